@@ -30,6 +30,7 @@ import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.ChunkWatchEvent.UnWatch;
 import net.minecraftforge.event.world.ChunkWatchEvent.Watch;
 import net.minecraftforge.event.world.WorldEvent;
@@ -57,6 +58,7 @@ import logisticspipes.network.packets.gui.GuiReopenPacket;
 import logisticspipes.pipes.PipeLogisticsChassi;
 import logisticspipes.pipes.basic.CoreRoutedPipe;
 import logisticspipes.pipes.basic.LogisticsTileGenericPipe;
+import logisticspipes.pipes.basic.PipeNeighborCache;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.renderer.LogisticsGuiOverrenderer;
@@ -172,6 +174,11 @@ public class LogisticsEventListener {
 		}
 	}
 
+	@SubscribeEvent
+	public void chunkUnload(ChunkEvent.Unload event) {
+		PipeNeighborCache.chunkUnloaded(event.getWorld());
+	}
+
 	@SubscribeEvent
 	public void watchChunk(Watch event) {
 		ChunkPos pos = event.getChunkInstance().getPos();
@@ -22,6 +22,7 @@ import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.Ingredient;
 import net.minecraft.item.crafting.ShapelessRecipes;
 import net.minecraft.launchwrapper.IClassTransformer;
@@ -45,6 +46,7 @@ import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.registry.GameRegistry;
@@ -140,6 +142,7 @@ import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.proxy.SpecialInventoryHandlerManager;
 import logisticspipes.proxy.SpecialTankHandlerManager;
 import logisticspipes.proxy.computers.objects.LPGlobalCCAccess;
+import logisticspipes.proxy.computers.wrapper.CCQueuedCalls;
 import logisticspipes.proxy.endercore.EnderCoreProgressProvider;
 import logisticspipes.proxy.ic2.IC2ProgressProvider;
 import logisticspipes.proxy.progressprovider.MachineProgressProvider;
@@ -158,6 +161,7 @@ import logisticspipes.recipes.PipeChippedCraftingRecipes;
 import logisticspipes.recipes.RecipeManager;
 import logisticspipes.recipes.UpgradeChippedCraftingRecipes;
 import logisticspipes.renderer.LogisticsHUDRenderer;
+import logisticspipes.request.RequestHandler;
 import logisticspipes.routing.RouterManager;
 import logisticspipes.routing.ServerRouter;
 import logisticspipes.routing.channels.ChannelManagerProvider;
@@ -165,12 +169,14 @@ import logisticspipes.routing.pathfinder.PipeInformationManager;
 import logisticspipes.textures.Textures;
 import logisticspipes.ticks.ClientPacketBufferHandlerThread;
 import logisticspipes.ticks.HudUpdateTick;
+import logisticspipes.ticks.ItemMotionUpdateTick;
 import logisticspipes.ticks.LPTickHandler;
 import logisticspipes.ticks.QueuedTasks;
 import logisticspipes.ticks.RenderTickHandler;
 import logisticspipes.ticks.RoutingTableUpdateThread;
 import logisticspipes.ticks.ServerPacketBufferHandlerThread;
 import logisticspipes.ticks.VersionChecker;
+import logisticspipes.utils.CraftingUtil;
 import logisticspipes.utils.FluidIdentifier;
 import logisticspipes.utils.InventoryUtilFactory;
 import logisticspipes.utils.RoutedItemHelper;
@@ -291,9 +297,7 @@ public class LogisticsPipes {
 			SimpleServiceLocator.setClientPacketBufferHandlerThread(new ClientPacketBufferHandlerThread());
 		}
 		SimpleServiceLocator.setServerPacketBufferHandlerThread(new ServerPacketBufferHandlerThread());
-		for (int i = 0; i < Configs.MULTI_THREAD_NUMBER; i++) {
-			new RoutingTableUpdateThread(i);
-		}
+		RoutingTableUpdateThread.startPool(Configs.MULTI_THREAD_NUMBER);
 		LogisticsEventListener eventListener = new LogisticsEventListener();
 		MinecraftForge.EVENT_BUS.register(eventListener);
 		MinecraftForge.EVENT_BUS.register(new LPChatListener());
@@ -474,6 +478,11 @@ public class LogisticsPipes {
 		registry.register(setName(new LogisticsBlockGenericSubMultiBlock(), "sub_multiblock"));
 	}
 
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void recipesRegistered(RegistryEvent.Register<IRecipe> event) {
+		CraftingUtil.recipesChanged();
+	}
+
 	@SubscribeEvent
 	public void onModelLoad(ModelRegistryEvent e) {
 		MainProxy.proxy.registerModels();
@@ -517,16 +526,22 @@ public class LogisticsPipes {
 	@Mod.EventHandler
 	public void starting(FMLServerStartingEvent event) {
 		globalTickExecutor = new TickExecutor();
+		// recipes may have been changed since the last world, e.g. by scripts
+		CraftingUtil.recipesChanged();
 	}
 
 	@Mod.EventHandler
 	public void cleanup(FMLServerStoppingEvent event) {
 		SimpleServiceLocator.routerManager.serverStopClean();
 		QueuedTasks.clearAllTasks();
+		CCQueuedCalls.clear();
+		RequestHandler.clearPendingRequests();
 		HudUpdateTick.clearUpdateFlags();
+		ItemMotionUpdateTick.clear();
 		PipeItemsSatelliteLogistics.cleanup();
 		PipeFluidSatellite.cleanup();
 		ServerRouter.cleanup();
+		CraftingUtil.recipesChanged();
 		if (event.getSide().equals(Side.CLIENT)) {
 			LogisticsHUDRenderer.instance().clear();
 		}
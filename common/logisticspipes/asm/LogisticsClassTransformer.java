@@ -1,11 +1,14 @@
 package logisticspipes.asm;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import net.minecraft.launchwrapper.IClassTransformer;
 import net.minecraft.launchwrapper.Launch;
@@ -39,16 +42,33 @@ import logisticspipes.utils.ModStatusHelper;
 
 public class LogisticsClassTransformer implements IClassTransformer {
 
+	/** the transformation of every class outside of LP which is changed by LP, by class name */
+	private final Map<String, Function<byte[], byte[]>> classTransformers = new HashMap<>();
+
+	private static final byte[][] LP_ANNOTATION_MARKERS = {
+			"Llogisticspipes/asm/ModDependent".getBytes(StandardCharsets.UTF_8),
+			"Llogisticspipes/asm/ClientSideOnlyMethodContent;".getBytes(StandardCharsets.UTF_8) };
+
 	public List<String> interfacesToClearA = new ArrayList<>();
 	public List<String> interfacesToClearB = new ArrayList<>();
 	private LaunchClassLoader cl = (LaunchClassLoader) LogisticsClassTransformer.class.getClassLoader();
 	private Field negativeResourceCache;
 	private Field invalidClasses;
+	private final TransformCache cache = TransformCache.open();
 
 	public static LogisticsClassTransformer instance;
 
 	public LogisticsClassTransformer() {
 		LogisticsClassTransformer.instance = this;
+		classTransformers.put("net.minecraft.tileentity.TileEntity", this::handleTileEntityClass);
+		classTransformers.put("net.minecraft.item.ItemStack", this::handleItemStackClass);
+		classTransformers.put("net.minecraftforge.fluids.FluidStack", this::handleFluidStackClass);
+		classTransformers.put("net.minecraftforge.fluids.Fluid", this::handleFluidClass);
+		classTransformers.put("mcmultipart.block.BlockMultipartContainer", ClassBlockMultipartContainerHandler::handleClass);
+		classTransformers.put("dan200.computercraft.core.lua.LuaJLuaMachine", this::handleCCLuaJLuaMachine);
+		classTransformers.put("dan200.computercraft.core.lua.CobaltLuaMachine", this::handleCCLuaJLuaMachine);
+		classTransformers.put("cofh.thermaldynamics.duct.item.TravelingItem", ClassTravelingItemHandler::handleTravelingItemClass);
+		classTransformers.put("cofh.thermaldynamics.render.RenderDuctItems", ClassRenderDuctItemsHandler::handleRenderDuctItemsClass);
 		try {
 			negativeResourceCache = LaunchClassLoader.class.getDeclaredField("negativeResourceCache");
 			negativeResourceCache.setAccessible(true);
@@ -65,60 +85,80 @@ public class LogisticsClassTransformer implements IClassTransformer {
 
 	@Override
 	public byte[] transform(String name, String transformedName, byte[] bytes) {
-		Thread thread = Thread.currentThread();
-		if (thread.getName().equals("Minecraft main thread") || thread.getName().equals("main") || thread.getName().equals("Server thread")) { //Only clear when called from the main thread to avoid ConcurrentModificationException on start
-			clearNegativeInterfaceCache();
+		if (!interfacesToClearA.isEmpty() || !interfacesToClearB.isEmpty()) {
+			Thread thread = Thread.currentThread();
+			if (thread.getName().equals("Minecraft main thread") || thread.getName().equals("main") || thread.getName().equals("Server thread")) { //Only clear when called from the main thread to avoid ConcurrentModificationException on start
+				clearNegativeInterfaceCache();
+			}
 		}
 		if (bytes == null) {
 			return null;
 		}
-		if (transformedName.startsWith("logisticspipes.") || transformedName.startsWith("net.minecraft") || LPConstants.DEBUG) {
+		if (classTransformers.containsKey(transformedName)) {
+			return ParamProfiler.handleClass(transformCached(transformedName, bytes));
+		}
+		if (transformedName.startsWith("logisticspipes.")) {
 			return ParamProfiler.handleClass(applyLPTransforms(transformedName, bytes));
 		}
-		byte[] tmp = bytes.clone();
-		bytes = applyLPTransforms(transformedName, bytes);
-		if (!Arrays.equals(bytes, tmp)) {
-			final ClassReader reader = new ClassReader(bytes);
+		// no other class is changed by LP
+		return ParamProfiler.handleClass(bytes);
+	}
+
+	/**
+	 * Transforms one of the {@link #classTransformers classes outside of LP},
+	 * or takes the result from the cache if the class was transformed from the
+	 * same bytes before.
+	 */
+	private byte[] transformCached(String name, byte[] bytes) {
+		String hash = cache.hash(bytes);
+		byte[] transformed = cache.get(name, hash);
+		if (transformed != null) {
+			return transformed;
+		}
+		transformed = applyLPTransforms(name, bytes);
+		if (transformed == bytes) {
+			return bytes;
+		}
+		if (!name.startsWith("net.minecraft") && !LPConstants.DEBUG) {
+			final ClassReader reader = new ClassReader(transformed);
 			final ClassNode node = new ClassNode();
 			reader.accept(node, 0);
 			node.sourceFile = "[LP|ASM] " + node.sourceFile;
 			ClassWriter writer = new ClassWriter(0);
 			node.accept(writer);
-			bytes = writer.toByteArray();
+			transformed = writer.toByteArray();
 		}
-		return ParamProfiler.handleClass(bytes);
+		cache.put(name, hash, transformed);
+		return transformed;
+	}
+
+	/**
+	 * @return whether the class uses any of the annotations handled by
+	 * {@link #handleLPTransformation}, judged by their descriptors in the
+	 * constant pool without parsing the class
+	 */
+	private static boolean hasLPAnnotations(byte[] bytes) {
+		for (byte[] marker : LogisticsClassTransformer.LP_ANNOTATION_MARKERS) {
+			outer:
+			for (int i = 0; i <= bytes.length - marker.length; i++) {
+				for (int j = 0; j < marker.length; j++) {
+					if (bytes[i + j] != marker[j]) {
+						continue outer;
+					}
+				}
+				return true;
+			}
+		}
+		return false;
 	}
 
 	private byte[] applyLPTransforms(String name, byte[] bytes) {
 		try {
-			if (name.equals("net.minecraft.tileentity.TileEntity")) {
-				return handleTileEntityClass(bytes);
-			}
-			if (name.equals("net.minecraft.item.ItemStack")) {
-				return handleItemStackClass(bytes);
-			}
-			if (name.equals("net.minecraftforge.fluids.FluidStack")) {
-				return handleFluidStackClass(bytes);
-			}
-			if (name.equals("net.minecraftforge.fluids.Fluid")) {
-				return handleFluidClass(bytes);
-			}
-			if (name.equals("mcmultipart.block.BlockMultipartContainer")) {
-				return ClassBlockMultipartContainerHandler.handleClass(bytes);
-			}
-			if (name.equals("dan200.computercraft.core.lua.LuaJLuaMachine")) {
-				return handleCCLuaJLuaMachine(bytes);
-			}
-			if (name.equals("dan200.computercraft.core.lua.CobaltLuaMachine")) {
-				return handleCCLuaJLuaMachine(bytes);
-			}
-			if (name.equals("cofh.thermaldynamics.duct.item.TravelingItem")) {
-				return ClassTravelingItemHandler.handleTravelingItemClass(bytes);
-			}
-			if (name.equals("cofh.thermaldynamics.render.RenderDuctItems")) {
-				return ClassRenderDuctItemsHandler.handleRenderDuctItemsClass(bytes);
+			Function<byte[], byte[]> transformer = classTransformers.get(name);
+			if (transformer != null) {
+				return transformer.apply(bytes);
 			}
-			if (!name.startsWith("logisticspipes.")) {
+			if (!name.startsWith("logisticspipes.") || !LogisticsClassTransformer.hasLPAnnotations(bytes)) {
 				return bytes;
 			}
 			return handleLPTransformation(bytes);
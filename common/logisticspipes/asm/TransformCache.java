@@ -0,0 +1,129 @@
+package logisticspipes.asm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import net.minecraft.launchwrapper.Launch;
+
+import logisticspipes.LPConstants;
+
+/**
+ * On-disk cache of the classes transformed by the
+ * {@link LogisticsClassTransformer}, so repeated starts don't have to transform
+ * them again.
+ *
+ * A transformed class is stored under its name and the hash of the bytes it
+ * was transformed from, in a directory of the LP version. The cached bytes are
+ * only used for exactly the same input and transformer, and the caches of
+ * other versions are deleted when the cache is opened. Debug builds don't use
+ * the cache, as their transformer changes without a version change.
+ */
+class TransformCache {
+
+	private static final String DIRECTORY = "logisticspipes" + File.separator + "asmcache";
+
+	/** null if the cache is disabled */
+	private final File directory;
+
+	private TransformCache(File directory) {
+		this.directory = directory;
+	}
+
+	static TransformCache open() {
+		if (LPConstants.DEBUG || Launch.minecraftHome == null) {
+			return new TransformCache(null);
+		}
+		File base = new File(Launch.minecraftHome, TransformCache.DIRECTORY);
+		String version = LPConstants.VERSION.replaceAll("[^A-Za-z0-9._-]", "_");
+		File[] others = base.listFiles();
+		if (others != null) {
+			for (File other : others) {
+				if (!other.getName().equals(version)) {
+					TransformCache.delete(other);
+				}
+			}
+		}
+		File directory = new File(base, version);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return new TransformCache(null);
+		}
+		return new TransformCache(directory);
+	}
+
+	/**
+	 * @return the hash identifying the input of a transformation, or null if
+	 * the cache is disabled
+	 */
+	String hash(byte[] bytes) {
+		if (directory == null) {
+			return null;
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+			StringBuilder builder = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				builder.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return builder.toString();
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the cached result of transforming the input with the hash, or
+	 * null if there is none
+	 */
+	byte[] get(String name, String hash) {
+		if (directory == null || hash == null) {
+			return null;
+		}
+		File file = getFile(name, hash);
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			return Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			if (LPConstants.DEBUG) { //For better Debugging
+				e.printStackTrace();
+			}
+			return null;
+		}
+	}
+
+	void put(String name, String hash, byte[] transformed) {
+		if (directory == null || hash == null) {
+			return;
+		}
+		File file = getFile(name, hash);
+		try {
+			// written to a temporary file first, so no other start reads a partly written class
+			File tmp = File.createTempFile(name, ".tmp", directory);
+			Files.write(tmp.toPath(), transformed);
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			if (LPConstants.DEBUG) { //For better Debugging
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private File getFile(String name, String hash) {
+		return new File(directory, name + "." + hash + ".class");
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				TransformCache.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -1,6 +1,5 @@
 package logisticspipes.blocks.crafting;
 
-import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -83,12 +82,7 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 		for (int i = 0; i < 9; i++) {
 			craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
 		}
-		List<IRecipe> list = new ArrayList<>();
-		for (IRecipe r : CraftingUtil.getRecipeList()) {
-			if (r.matches(craftInv, getWorld())) {
-				list.add(r);
-			}
-		}
+		List<IRecipe> list = CraftingUtil.getMatchingRecipes(craftInv, getWorld());
 		if (list.size() == 1) {
 			cache = list.get(0);
 			resultInv.setInventorySlotContents(0, cache.getCraftingResult(craftInv));
@@ -96,10 +90,6 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 		} else if (list.size() > 1) {
 			if (targetType != null) {
 				for (IRecipe recipe : list) {
-					craftInv = new AutoCraftingInventory(placedBy);
-					for (int i = 0; i < 9; i++) {
-						craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-					}
 					ItemStack result = recipe.getCraftingResult(craftInv);
 					if (!result.isEmpty() && targetType.equals(ItemIdentifier.get(result))) {
 						resultInv.setInventorySlotContents(0, result);
@@ -139,12 +129,7 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 			craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
 		}
 
-		List<IRecipe> list = new ArrayList<>();
-		for (IRecipe r : CraftingUtil.getRecipeList()) {
-			if (r.matches(craftInv, getWorld())) {
-				list.add(r);
-			}
-		}
+		List<IRecipe> list = CraftingUtil.getMatchingRecipes(craftInv, getWorld());
 
 		if (list.size() > 1) {
 			boolean found = false;
@@ -154,10 +139,6 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 					cache = recipe;
 					break;
 				}
-				craftInv = new AutoCraftingInventory(placedBy);
-				for (int i = 0; i < 9; i++) {
-					craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-				}
 				if (targetType != null && targetType.equals(ItemIdentifier.get(recipe.getCraftingResult(craftInv)))) {
 					if (down) {
 						found = true;
@@ -177,11 +158,6 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 				cache = list.get(0);
 			}
 
-			craftInv = new AutoCraftingInventory(placedBy);
-			for (int i = 0; i < 9; i++) {
-				craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-			}
-
 			targetType = ItemIdentifier.get(cache.getCraftingResult(craftInv));
 		}
 
@@ -243,8 +219,8 @@ public class LogisticsCraftingTableTileEntity extends LogisticsSolidTileEntity i
 		if (!recipe.matches(crafter, getWorld())) {
 			if (isFuzzy && outputFuzzyFlags.getBitSet().nextSetBit(0) != -1) {
 				recipe = null;
-				for (IRecipe r : CraftingUtil.getRecipeList()) {
-					if (r.matches(crafter, getWorld()) && outputFuzzyFlags.matches(ItemIdentifier.get(r.getRecipeOutput()), IResource.MatchSettings.NORMAL)) {
+				for (IRecipe r : CraftingUtil.getMatchingRecipes(crafter, getWorld())) {
+					if (outputFuzzyFlags.matches(ItemIdentifier.get(r.getRecipeOutput()), IResource.MatchSettings.NORMAL)) {
 						recipe = r;
 						break;
 					}
@@ -27,5 +27,7 @@ public class RoutingThreadCommand implements ICommandHandler {
 	public void executeCommand(ICommandSender sender, String[] args) {
 		sender.sendMessage(new TextComponentString("RoutingTableUpdateThread: Queued: " + RoutingTableUpdateThread.size()));
 		sender.sendMessage(new TextComponentString("RoutingTableUpdateThread: Average: " + RoutingTableUpdateThread.getAverage() + "ns"));
+		sender.sendMessage(new TextComponentString("RoutingTableUpdateThread: Last batch: " + RoutingTableUpdateThread.getLastBatchSize() + " routers in " + RoutingTableUpdateThread.getLastBatchTime() + "ns"));
+		sender.sendMessage(new TextComponentString("RoutingTableUpdateThread: Batch average: " + RoutingTableUpdateThread.getBatchAverage() + "ns"));
 	}
 }
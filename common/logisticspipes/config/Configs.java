@@ -27,6 +27,7 @@ public class Configs {
 	public static final float LOGISTICS_ROUTED_SPEED_MULTIPLIER = 20F;
 	public static final float LOGISTICS_DEFAULTROUTED_SPEED_MULTIPLIER = 10F;
 	public static int MAX_UNROUTED_CONNECTIONS = 32;
+	public static boolean INCREMENTAL_ROUTING = true;
 
 	public static int LOGISTICS_HUD_RENDER_DISTANCE = 15;
 
@@ -37,9 +38,11 @@ public class Configs {
 
 	public static boolean TOOLTIP_INFO = LPConstants.DEBUG;
 	public static boolean ENABLE_PARTICLE_FX = true;
+	public static boolean ITEM_MOTION_EXTRAPOLATION = false;
 
 	// GuiOrderer Popup setting
 	public static boolean DISPLAY_POPUP = true;
+	public static boolean DEFERRED_REQUEST_PLANNING = true;
 
 	// MultiThread
 	public static int MULTI_THREAD_NUMBER = 4;
@@ -94,6 +97,13 @@ public class Configs {
 								"The amount of time that passes between checks to see if it is still connected to its neighbours (Independently from block place detection). A low value will mean that it will correct wrong values faster but use more CPU. A high value means error correction takes longer, but CPU consumption is reduced. A value of 20 will check about every second (default 600 [30 seconds])")
 								.getInt(), 1);
 
+		Configs.INCREMENTAL_ROUTING = Configs.CONFIGURATION
+				.get(Configuration.CATEGORY_GENERAL,
+						"incrementalRouting",
+						Configs.INCREMENTAL_ROUTING,
+						"Only recalculate the routing table of a pipe if a change in the network can actually affect its routes. Uses a bit more memory per pipe, but avoids recalculating every routing table of a network whenever a single connection changes.")
+						.getBoolean(true);
+
 		Configs.MAX_ROBOT_DISTANCE = Configs.CONFIGURATION
 				.get(Configuration.CATEGORY_GENERAL, "maxRobotDistance",
 						Configs.MAX_ROBOT_DISTANCE,
@@ -129,11 +139,23 @@ public class Configs {
 						"Set the default configuration for the popup of the Orderer Gui. Should it be used?")
 						.getBoolean(false);
 
+		Configs.DEFERRED_REQUEST_PLANNING = Configs.CONFIGURATION
+				.get(Configuration.CATEGORY_GENERAL,
+						"deferredRequestPlanning",
+						Configs.DEFERRED_REQUEST_PLANNING,
+						"Plan requests made in the Orderer Gui on a separate thread against a snapshot of the network, instead of on the server thread while receiving them. The Gui shows that the request is being planned meanwhile.")
+						.getBoolean(true);
+
 		Configs.ENABLE_PARTICLE_FX = Configs.CONFIGURATION.get(Configuration.CATEGORY_GENERAL,
 				"enableParticleFX", Configs.ENABLE_PARTICLE_FX,
 				"Whether or not special particles will spawn.")
 				.getBoolean(false);
 
+		Configs.ITEM_MOTION_EXTRAPOLATION = Configs.CONFIGURATION.get(Configuration.CATEGORY_GENERAL,
+				"itemMotionExtrapolation", Configs.ITEM_MOTION_EXTRAPOLATION,
+				"Only send the position of items in pipes to the clients when they change speed or direction and let the clients move them straight on meanwhile. Saves bandwidth on long pipe lines, but players who start watching a pipe line late won't see the items already inside it.")
+				.getBoolean(false);
+
 		if(Configs.CONFIGURATION.hasKey(Configs.CATEGORY_MULTITHREAD, "enabled")) {
 			//ConfigCategory.remove is deprecated, but there's no other way to remove a key-value pair without completely recreating the config...
 			Configs.CONFIGURATION.getCategory(Configs.CATEGORY_MULTITHREAD).remove("enabled");
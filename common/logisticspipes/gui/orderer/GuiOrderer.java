@@ -46,6 +46,7 @@ public abstract class GuiOrderer extends LogisticsBaseGuiScreen implements IItem
 	private InputBar search;
 
 	protected String _title = "Request items";
+	private boolean planningRequest = false;
 
 	public final int xCoord;
 	public final int yCoord;
@@ -75,6 +76,10 @@ public abstract class GuiOrderer extends LogisticsBaseGuiScreen implements IItem
 		itemDisplay.setItemList(allItems);
 	}
 
+	public void handleContentChanges(int baseVersion, int version, Collection<ItemIdentifierStack> changed, Collection<ItemIdentifier> removed) {
+		itemDisplay.applyItemListChanges(baseVersion, version, changed, removed);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void initGui() {
@@ -114,7 +119,8 @@ public abstract class GuiOrderer extends LogisticsBaseGuiScreen implements IItem
 	public void drawGuiContainerBackgroundLayer(float f, int i, int j) {
 		GuiGraphics.drawGuiBackGround(mc, guiLeft, guiTop, right, bottom, zLevel, true);
 
-		mc.fontRenderer.drawString(_title, guiLeft + mc.fontRenderer.getStringWidth(_title) / 2, guiTop + 6, 0x404040);
+		String title = planningRequest ? "Planning request..." : _title;
+		mc.fontRenderer.drawString(title, guiLeft + mc.fontRenderer.getStringWidth(title) / 2, guiTop + 6, 0x404040);
 		itemDisplay.renderPageNumber(right - 47, guiTop + 6);
 
 		if (buttonList.get(9) instanceof GuiCheckBox && ((GuiCheckBox) buttonList.get(9)).getState()) {
@@ -186,6 +192,10 @@ public abstract class GuiOrderer extends LogisticsBaseGuiScreen implements IItem
 		super.handleMouseInputSub();
 	}
 
+	public void handleRequestPlanning(boolean planning) {
+		planningRequest = planning;
+	}
+
 	public void handleRequestAnswer(Collection<IResource> items, boolean error, ISubGuiControler control, EntityPlayer player) {
 		while (control.hasSubGui()) {
 			control = control.getSubGui();
@@ -73,6 +73,7 @@ public class GuiRequestTable extends LogisticsBaseGuiScreen implements IItemSear
 	private SmallGuiButton Macrobutton;
 	private InputBar search;
 	private boolean showRequest = true;
+	private boolean planningRequest = false;
 	private int startLeft;
 	private int startXSize;
 	private BitSet handledExtention = new BitSet();
@@ -196,7 +197,8 @@ public class GuiRequestTable extends LogisticsBaseGuiScreen implements IItemSear
 		drawRect(guiLeft + 164, guiTop + 25, guiLeft + 180, guiTop + 41, Color.DARKER_GREY);
 
 		if (showRequest) {
-			mc.fontRenderer.drawString(_title, guiLeft + 180 + mc.fontRenderer.getStringWidth(_title) / 2, guiTop + 6, 0x404040);
+			String title = planningRequest ? "Planning request..." : _title;
+			mc.fontRenderer.drawString(title, guiLeft + 180 + mc.fontRenderer.getStringWidth(title) / 2, guiTop + 6, 0x404040);
 			itemDisplay.renderPageNumber(right - 47, guiTop + 6);
 
 			if (buttonList.get(9) instanceof GuiCheckBox && ((GuiCheckBox) buttonList.get(9)).getState()) {
@@ -414,7 +416,7 @@ public class GuiRequestTable extends LogisticsBaseGuiScreen implements IItemSear
 				integer = 3;
 		}
 		integer += (dimension * 10);
-		MainProxy.sendPacketToServer(PacketHandler.getPacket(OrdererRefreshRequestPacket.class).setInteger(integer).setTilePos(_table.container));
+		MainProxy.sendPacketToServer(PacketHandler.getPacket(OrdererRefreshRequestPacket.class).setInteger(integer).setKnownVersion(itemDisplay.getContentVersion()).setTilePos(_table.container));
 	}
 
 	@Override
@@ -554,6 +556,10 @@ public class GuiRequestTable extends LogisticsBaseGuiScreen implements IItemSear
 		itemDisplay.setItemList(allItems);
 	}
 
+	public void handleContentChanges(int baseVersion, int version, Collection<ItemIdentifierStack> changed, Collection<ItemIdentifier> removed) {
+		itemDisplay.applyItemListChanges(baseVersion, version, changed, removed);
+	}
+
 	@Override
 	public void specialItemRendering(ItemIdentifier item, int x, int y) {
 		//TODO Render Thaumcraft aspects
@@ -620,6 +626,10 @@ public class GuiRequestTable extends LogisticsBaseGuiScreen implements IItemSear
 		super.handleMouseInputSub();
 	}
 
+	public void handleRequestPlanning(boolean planning) {
+		planningRequest = planning;
+	}
+
 	public void handleRequestAnswer(Collection<IResource> items, boolean error, ISubGuiControler control, EntityPlayer player) {
 		while (control.hasSubGui()) {
 			control = control.getSubGui();
@@ -52,7 +52,7 @@ public class NormalGuiOrderer extends GuiOrderer {
 				integer = 3;
 		}
 		integer += (dimension * 10);
-		MainProxy.sendPacketToServer(PacketHandler.getPacket(OrdererRefreshRequestPacket.class).setInteger(integer).setPosX(xCoord).setPosY(yCoord).setPosZ(zCoord));
+		MainProxy.sendPacketToServer(PacketHandler.getPacket(OrdererRefreshRequestPacket.class).setInteger(integer).setKnownVersion(itemDisplay.getContentVersion()).setPosX(xCoord).setPosY(yCoord).setPosZ(zCoord));
 	}
 
 	@Override
@@ -0,0 +1,94 @@
+package logisticspipes.logistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import logisticspipes.proxy.SimpleServiceLocator;
+import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.PipeRoutingConnectionType;
+import logisticspipes.routing.ServerRouter;
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Caches the routes from a source router to every router interested in an
+ * item, closest first.
+ *
+ * The routes of a source router are dropped when its routing table is
+ * replaced. The routes for an item are recalculated when the set of routers
+ * interested in it, as returned by
+ * {@link ServerRouter#getRoutersInterestedIn(ItemIdentifier)}, changes.
+ * Whether a destination can actually sink the item is not cached.
+ *
+ * Only to be used from the server thread.
+ */
+class DestinationCache {
+
+	private final Map<IRouter, SourceEntry> sources = new WeakHashMap<>();
+
+	/**
+	 * @return an unmodifiable list of all routes from the source router to
+	 * routers interested in the item, which allow routing to, closest first.
+	 */
+	List<ExitRoute> getValidDestinations(IRouter sourceRouter, ItemIdentifier item) {
+		List<List<ExitRoute>> routeTable = sourceRouter.getRouteTable();
+		SourceEntry source = sources.get(sourceRouter);
+		if (source == null || source.routeTable != routeTable) {
+			source = new SourceEntry(routeTable);
+			sources.put(sourceRouter, source);
+		}
+		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(item);
+		ItemEntry destinations = source.items.get(item);
+		if (destinations == null || !destinations.routersIndex.equals(routersIndex)) {
+			destinations = new ItemEntry(routersIndex, DestinationCache.findDestinations(sourceRouter, routersIndex));
+			source.items.put(item, destinations);
+		}
+		return destinations.routes;
+	}
+
+	private static List<ExitRoute> findDestinations(IRouter sourceRouter, BitSet routersIndex) {
+		List<ExitRoute> validDestinations = new ArrayList<>();
+		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
+			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
+			List<ExitRoute> exits = r == null ? null : sourceRouter.getDistanceTo(r);
+			if (exits == null) {
+				continue;
+			}
+			for (ExitRoute e : exits) {
+				if (e.containsFlag(PipeRoutingConnectionType.canRouteTo)) {
+					validDestinations.add(e);
+				}
+			}
+		}
+		ExitRoute[] sorted = validDestinations.toArray(new ExitRoute[0]);
+		Arrays.sort(sorted);
+		return Collections.unmodifiableList(Arrays.asList(sorted));
+	}
+
+	private static class SourceEntry {
+
+		private final List<List<ExitRoute>> routeTable;
+		private final Map<ItemIdentifier, ItemEntry> items = new HashMap<>();
+
+		private SourceEntry(List<List<ExitRoute>> routeTable) {
+			this.routeTable = routeTable;
+		}
+	}
+
+	private static class ItemEntry {
+
+		private final BitSet routersIndex;
+		private final List<ExitRoute> routes;
+
+		private ItemEntry(BitSet routersIndex, List<ExitRoute> routes) {
+			this.routersIndex = routersIndex;
+			this.routes = routes;
+		}
+	}
+}
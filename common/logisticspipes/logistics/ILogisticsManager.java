@@ -7,7 +7,6 @@
 
 package logisticspipes.logistics;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -28,13 +27,35 @@ public interface ILogisticsManager {
 
 	Triplet<Integer, SinkReply, List<IFilter>> hasDestinationWithMinPriority(ItemIdentifier stack, int sourceRouter, boolean excludeSource, FixedPriority priority);
 
-	LinkedList<ItemIdentifier> getCraftableItems(List<ExitRoute> list);
+	/**
+	 * @return all items the requester can have crafted, closest crafter
+	 * first. The list can't be modified.
+	 */
+	List<ItemIdentifier> getCraftableItems(IRouter requester);
+
+	/**
+	 * @return all routes from the requester to crafters of the item, which
+	 * allow requesting it, ordered by cost. The list can't be modified.
+	 */
+	List<ExitRoute> getCrafterRoutes(IRouter requester, ItemIdentifier item);
 
 	Map<ItemIdentifier, Integer> getAvailableItems(List<ExitRoute> list);
 
 	String getBetterRouterName(IRouter r);
 
 	int getAmountFor(ItemIdentifier item, List<ExitRoute> validDestinations);
+
+	/**
+	 * Tells the stock index that the items offered by the given provider
+	 * changed, e.g. because it took an order or sent items.
+	 */
+	void markProvidedItemsChanged(IRouter provider);
+
+	/**
+	 * Tells the craftable index that the items the given crafter can craft
+	 * changed, e.g. because its template was edited.
+	 */
+	void markCraftedItemsChanged(IRouter crafter);
 	//boolean request(LogisticsTransaction transaction, List<IRouter> validDestinations, List<ItemMessage> errors, boolean realrequest, boolean denyCrafterAdding);
 	//boolean request(LogisticsTransaction transaction, List<IRouter> validDestinations, List<ItemMessage> errors);
 	//boolean request(LogisticsRequest originalRequest, List<IRouter> validDestinations, List<ItemMessage> errors);
@@ -9,17 +9,11 @@ package logisticspipes.logistics;
 
 import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
-import logisticspipes.interfaces.routing.ICraftItems;
 import logisticspipes.interfaces.routing.IFilter;
-import logisticspipes.interfaces.routing.IProvideItems;
 import logisticspipes.items.LogisticsFluidContainer;
 import logisticspipes.logisticspipes.IRoutedItem;
 import logisticspipes.logisticspipes.IRoutedItem.TransportMode;
@@ -34,7 +28,6 @@ import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.routing.ExitRoute;
 import logisticspipes.routing.IRouter;
 import logisticspipes.routing.PipeRoutingConnectionType;
-import logisticspipes.routing.ServerRouter;
 import logisticspipes.utils.SinkReply;
 import logisticspipes.utils.SinkReply.FixedPriority;
 import logisticspipes.utils.item.ItemIdentifier;
@@ -44,6 +37,10 @@ import logisticspipes.utils.tuples.Triplet;
 
 public class LogisticsManager implements ILogisticsManager {
 
+	private final DestinationCache destinationCache = new DestinationCache();
+	private final NetworkStockIndex stockIndex = new NetworkStockIndex();
+	private final NetworkCraftableIndex craftableIndex = new NetworkCraftableIndex();
+
 	/**
 	 * Method used to check if a given stack has a destination.
 	 *
@@ -66,18 +63,7 @@ public class LogisticsManager implements ILogisticsManager {
 		if (sourceRouter == null) {
 			return null;
 		}
-		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(stack);
-		List<ExitRoute> validDestinations = new ArrayList<>(); // get the routing table
-		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
-			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
-			List<ExitRoute> exits = sourceRouter.getDistanceTo(r);
-			if (exits != null) {
-				validDestinations
-						.addAll(exits.stream().filter(e -> e.containsFlag(PipeRoutingConnectionType.canRouteTo))
-								.collect(Collectors.toList()));
-			}
-		}
-		Collections.sort(validDestinations);
+		List<ExitRoute> validDestinations = destinationCache.getValidDestinations(sourceRouter, stack);
 		Triplet<Integer, SinkReply, List<IFilter>> search = getBestReply(stack, sourceRouter, validDestinations, true, routerIDsToExclude, null, allowDefault);
 
 		if (search.getValue2() == null) {
@@ -126,6 +112,10 @@ public class LogisticsManager implements ILogisticsManager {
 		if (result == null) {
 			result = new Triplet<>(null, null, null);
 		}
+		BitSet jammed = new BitSet();
+		for (int jammedID : jamList) {
+			jammed.set(jammedID);
+		}
 
 		outer:
 		for (ExitRoute candidateRouter : validDestinations) {
@@ -134,7 +124,7 @@ public class LogisticsManager implements ILogisticsManager {
 					continue;
 				}
 			}
-			if (jamList.contains(candidateRouter.destination.getSimpleID())) {
+			if (jammed.get(candidateRouter.destination.getSimpleID())) {
 				continue;
 			}
 
@@ -244,18 +234,7 @@ public class LogisticsManager implements ILogisticsManager {
 		//Wipe current destination
 		item.clearDestination();
 
-		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(item.getItemIdentifierStack().getItem());
-		List<ExitRoute> validDestinations = new ArrayList<>(); // get the routing table
-		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
-			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
-			List<ExitRoute> exits = sourceRouter.getDistanceTo(r);
-			if (exits != null) {
-				validDestinations
-						.addAll(exits.stream().filter(e -> e.containsFlag(PipeRoutingConnectionType.canRouteTo))
-								.collect(Collectors.toList()));
-			}
-		}
-		Collections.sort(validDestinations);
+		List<ExitRoute> validDestinations = destinationCache.getValidDestinations(sourceRouter, item.getItemIdentifierStack().getItem());
 		if (item.getItemIdentifierStack() != null && item.getItemIdentifierStack().makeNormalStack().getItem() instanceof LogisticsFluidContainer) {
 			Pair<Integer, Integer> bestReply = SimpleServiceLocator.logisticsFluidManager.getBestReply(SimpleServiceLocator.logisticsFluidManager.getFluidFromContainer(item.getItemIdentifierStack()), sourceRouter, item.getJamList());
 			if (bestReply.getValue1() != null && bestReply.getValue1() != 0) {
@@ -327,132 +306,31 @@ public class LogisticsManager implements ILogisticsManager {
 	 */
 	@Override
 	public HashMap<ItemIdentifier, Integer> getAvailableItems(List<ExitRoute> validDestinations) {
-		//TODO: Replace this entire function wiht a fetch from the pre-built arrays (path incoming later)
-		List<Map<ItemIdentifier, Integer>> items = new ArrayList<>(ServerRouter.getBiggestSimpleID());
-		for (int i = 0; i < ServerRouter.getBiggestSimpleID(); i++) {
-			items.add(new HashMap<>());
-		}
-		BitSet used = new BitSet(ServerRouter.getBiggestSimpleID());
-		outer:
-		for (ExitRoute r : validDestinations) {
-			if (r == null) {
-				continue;
-			}
-			if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
-				continue;
-			}
-			if (!(r.destination.getPipe() instanceof IProvideItems)) {
-				continue;
-			}
-			for (IFilter filter : r.filters) {
-				if (filter.blockProvider()) {
-					continue outer;
-				}
-			}
-			IProvideItems provider = (IProvideItems) r.destination.getPipe();
-			provider.getAllItems(items.get(r.destination.getSimpleID()), r.filters);
-			used.set(r.destination.getSimpleID(), true);
-		}
-		//TODO: Fix this doubly nested list
-		HashMap<ItemIdentifier, Integer> allAvailableItems = new HashMap<>();
-		for (Map<ItemIdentifier, Integer> allItems : items) {
-			for (Entry<ItemIdentifier, Integer> item : allItems.entrySet()) {
-				Integer currentItem = allAvailableItems.get(item.getKey());
-				if (currentItem == null) {
-					allAvailableItems.put(item.getKey(), item.getValue());
-				} else {
-					allAvailableItems.put(item.getKey(), currentItem + item.getValue());
-				}
-			}
-		}
-		return allAvailableItems;
+		return stockIndex.getAvailableItems(validDestinations);
 	}
 
-	/**
-	 * @param validDestinations
-	 *            a List of ExitRoute of valid destinations.
-	 * @return LinkedList with ItemIdentifier
-	 */
 	@Override
-	public LinkedList<ItemIdentifier> getCraftableItems(List<ExitRoute> validDestinations) {
-		LinkedList<ItemIdentifier> craftableItems = new LinkedList<>();
-		BitSet used = new BitSet(ServerRouter.getBiggestSimpleID());
-		outer:
-		for (ExitRoute r : validDestinations) {
-			if (r == null) {
-				continue;
-			}
-			if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
-				continue;
-			}
-			if (used.get(r.destination.getSimpleID())) {
-				continue;
-			}
-			if (!(r.destination.getPipe() instanceof ICraftItems)) {
-				continue;
-			}
-			for (IFilter filter : r.filters) {
-				if (filter.blockCrafting()) {
-					continue outer;
-				}
-			}
-			ICraftItems crafter = (ICraftItems) r.destination.getPipe();
-			List<ItemIdentifierStack> craftedItems = crafter.getCraftedItems();
-			if (craftedItems != null) {
-				outer2:
-				for (ItemIdentifierStack craftedItem : craftedItems) {
-					if (craftedItem != null && !craftableItems.contains(craftedItem.getItem())) {
-						for (IFilter filter : r.filters) {
-							if (filter.isBlocked() == filter.isFilteredItem(craftedItem.getItem())) {
-								continue outer2;
-							}
-						}
-						craftableItems.add(craftedItem.getItem());
-					}
-				}
-			}
-			used.set(r.destination.getSimpleID(), true);
-		}
-		return craftableItems;
+	public List<ItemIdentifier> getCraftableItems(IRouter requester) {
+		return craftableIndex.getCraftableItems(requester);
+	}
+
+	@Override
+	public List<ExitRoute> getCrafterRoutes(IRouter requester, ItemIdentifier item) {
+		return craftableIndex.getCrafterRoutes(requester, item);
 	}
 
 	@Override
 	public int getAmountFor(ItemIdentifier itemType, List<ExitRoute> validDestinations) {
-		// TODO: Replace this entire function wiht a fetch from the pre-built arrays (path incoming later)
-		List<Map<ItemIdentifier, Integer>> items = new ArrayList<>(ServerRouter.getBiggestSimpleID());
-		for (int i = 0; i < ServerRouter.getBiggestSimpleID(); i++) {
-			items.add(new HashMap<>());
-		}
-		BitSet used = new BitSet(ServerRouter.getBiggestSimpleID());
-		outer:
-		for (ExitRoute r : validDestinations) {
-			if (r == null) {
-				continue;
-			}
-			if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
-				continue;
-			}
-			if (!(r.destination.getPipe() instanceof IProvideItems)) {
-				continue;
-			}
-			for (IFilter filter : r.filters) {
-				if (filter.blockProvider()) {
-					continue outer;
-				}
-			}
-			IProvideItems provider = (IProvideItems) r.destination.getPipe();
-			provider.getAllItems(items.get(r.destination.getSimpleID()), r.filters);
-			used.set(r.destination.getSimpleID(), true);
-		}
-		// TODO: Fix this doubly nested list
-		int amount = 0;
-		for (Map<ItemIdentifier, Integer> allItems : items) {
-			for (Entry<ItemIdentifier, Integer> item : allItems.entrySet()) {
-				if (item.getKey().equals(itemType)) {
-					amount += item.getValue();
-				}
-			}
-		}
-		return amount;
+		return stockIndex.getAmountFor(itemType, validDestinations);
+	}
+
+	@Override
+	public void markProvidedItemsChanged(IRouter provider) {
+		stockIndex.markChanged(provider);
+	}
+
+	@Override
+	public void markCraftedItemsChanged(IRouter crafter) {
+		craftableIndex.markChanged(crafter);
 	}
 }
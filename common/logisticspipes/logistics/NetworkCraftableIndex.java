@@ -0,0 +1,188 @@
+package logisticspipes.logistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import logisticspipes.interfaces.routing.ICraftItems;
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.proxy.MainProxy;
+import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.PipeRoutingConnectionType;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+
+/**
+ * Index of the items every crafter can craft, and for every requesting router
+ * of the routes to the crafters of each item.
+ *
+ * The items of a crafter are read through {@link ICraftItems#getCraftedItems()}
+ * and kept until the crafter reports a change of its templates or until they
+ * are {@link #MAX_AGE} ticks old, so configuration changes the crafter doesn't
+ * report are noticed after that time at the latest, like its interests. The
+ * routes of a requesting router are filtered once and kept until its routing
+ * table is replaced or the items of one of the crafters it reaches change.
+ *
+ * Only to be used from the server thread.
+ */
+class NetworkCraftableIndex {
+
+	static final int MAX_AGE = 20;
+
+	private final Map<IRouter, CrafterItems> crafters = new WeakHashMap<>();
+	private final Map<IRouter, RouterView> views = new WeakHashMap<>();
+	private int changes = 0;
+
+	void markChanged(IRouter crafter) {
+		if (crafters.remove(crafter) != null) {
+			changes++;
+		}
+	}
+
+	/**
+	 * @return an unmodifiable list of all items the requester can have
+	 * crafted, in the order of the closest crafter of each item.
+	 */
+	List<ItemIdentifier> getCraftableItems(IRouter requester) {
+		return getView(requester).items;
+	}
+
+	/**
+	 * @return an unmodifiable list of all routes from the requester to
+	 * crafters of the item, which allow requesting it. The routes are ordered
+	 * by cost.
+	 */
+	List<ExitRoute> getCrafterRoutes(IRouter requester, ItemIdentifier item) {
+		List<ExitRoute> routes = getView(requester).routesByItem.get(item);
+		return routes != null ? routes : Collections.emptyList();
+	}
+
+	private RouterView getView(IRouter requester) {
+		int now = MainProxy.getGlobalTick();
+		List<ExitRoute> routes = requester.getIRoutersByCost();
+		RouterView view = views.get(requester);
+		if (view == null || view.routes != routes || !isCurrent(view, now)) {
+			view = buildView(routes);
+			views.put(requester, view);
+		}
+		view.checkedAt = now;
+		view.checkedChanges = changes;
+		return view;
+	}
+
+	/**
+	 * The items of the crafters of a view are checked at most once per tick,
+	 * unless a crafter reported a change since.
+	 */
+	private boolean isCurrent(RouterView view, int now) {
+		if (view.checkedAt == now && view.checkedChanges == changes) {
+			return true;
+		}
+		for (Entry<IRouter, CrafterItems> crafter : view.crafters.entrySet()) {
+			if (getItems(crafter.getKey(), now) != crafter.getValue()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private RouterView buildView(List<ExitRoute> routes) {
+		int now = MainProxy.getGlobalTick();
+		Map<IRouter, CrafterItems> usedCrafters = new HashMap<>();
+		Map<ItemIdentifier, List<ExitRoute>> routesByItem = new LinkedHashMap<>();
+		outer:
+		for (ExitRoute r : routes) {
+			if (r == null) {
+				continue;
+			}
+			if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
+				continue;
+			}
+			if (!(r.destination.getPipe() instanceof ICraftItems)) {
+				continue;
+			}
+			for (IFilter filter : r.filters) {
+				if (filter.blockCrafting()) {
+					continue outer;
+				}
+			}
+			CrafterItems items = usedCrafters.computeIfAbsent(r.destination, crafter -> getItems(crafter, now));
+			outer2:
+			for (ItemIdentifier item : items.items) {
+				for (IFilter filter : r.filters) {
+					if (filter.isBlocked() == filter.isFilteredItem(item)) {
+						continue outer2;
+					}
+				}
+				routesByItem.computeIfAbsent(item, key -> new ArrayList<>(1)).add(r);
+			}
+		}
+		routesByItem.replaceAll((item, itemRoutes) -> Collections.unmodifiableList(itemRoutes));
+		return new RouterView(routes, usedCrafters, routesByItem);
+	}
+
+	private CrafterItems getItems(IRouter router, int now) {
+		CrafterItems items = crafters.get(router);
+		if (items == null || now - items.readAt >= NetworkCraftableIndex.MAX_AGE || now < items.readAt) {
+			List<ItemIdentifier> crafted = NetworkCraftableIndex.readCraftedItems(router);
+			if (items != null && items.items.equals(crafted)) {
+				items.readAt = now;
+			} else {
+				items = new CrafterItems(crafted, now);
+				crafters.put(router, items);
+			}
+		}
+		return items;
+	}
+
+	private static List<ItemIdentifier> readCraftedItems(IRouter router) {
+		if (!(router.getPipe() instanceof ICraftItems)) {
+			return Collections.emptyList();
+		}
+		List<ItemIdentifierStack> craftedItems = ((ICraftItems) router.getPipe()).getCraftedItems();
+		if (craftedItems == null || craftedItems.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<ItemIdentifier> items = new ArrayList<>(craftedItems.size());
+		for (ItemIdentifierStack craftedItem : craftedItems) {
+			if (craftedItem != null && !items.contains(craftedItem.getItem())) {
+				items.add(craftedItem.getItem());
+			}
+		}
+		return items;
+	}
+
+	private static class CrafterItems {
+
+		private final List<ItemIdentifier> items;
+		private int readAt;
+
+		private CrafterItems(List<ItemIdentifier> items, int readAt) {
+			this.items = items;
+			this.readAt = readAt;
+		}
+	}
+
+	private static class RouterView {
+
+		private final List<ExitRoute> routes;
+		private final Map<IRouter, CrafterItems> crafters;
+		private final Map<ItemIdentifier, List<ExitRoute>> routesByItem;
+		private final List<ItemIdentifier> items;
+		private int checkedAt;
+		private int checkedChanges;
+
+		private RouterView(List<ExitRoute> routes, Map<IRouter, CrafterItems> crafters, Map<ItemIdentifier, List<ExitRoute>> routesByItem) {
+			this.routes = routes;
+			this.crafters = crafters;
+			this.routesByItem = routesByItem;
+			this.items = Collections.unmodifiableList(new ArrayList<>(routesByItem.keySet()));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package logisticspipes.logistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.interfaces.routing.IProvideItems;
+import logisticspipes.proxy.MainProxy;
+import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.PipeRoutingConnectionType;
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Index of the items every provider offers to the network.
+ *
+ * The stock of a provider is read through
+ * {@link IProvideItems#getAllItems(Map, List)} without any route filters and
+ * kept until the provider reports a change, e.g. a new or finished order, or
+ * until it is {@link #MAX_AGE} ticks old. Changes made to the inventories by
+ * anything else than the provider are noticed after that time at the latest.
+ * Route filters are applied to the stored stock when collecting the items
+ * available from a router, so one stock serves every network and route the
+ * provider is part of.
+ *
+ * Only to be used from the server thread.
+ */
+class NetworkStockIndex {
+
+	static final int MAX_AGE = 20;
+
+	private final Map<IRouter, ProviderStock> providers = new WeakHashMap<>();
+
+	void markChanged(IRouter provider) {
+		providers.remove(provider);
+	}
+
+	/**
+	 * @return all items the providers in the given routes offer, with the
+	 * amount of every item summed up over all providers.
+	 */
+	HashMap<ItemIdentifier, Integer> getAvailableItems(List<ExitRoute> validDestinations) {
+		HashMap<ItemIdentifier, Integer> allAvailableItems = new HashMap<>();
+		for (Entry<IRouter, List<List<IFilter>>> provider : NetworkStockIndex.groupProviders(validDestinations).entrySet()) {
+			List<List<IFilter>> routeFilters = provider.getValue();
+			for (Entry<ItemIdentifier, Integer> item : getStock(provider.getKey()).entrySet()) {
+				if (NetworkStockIndex.isProvidedOverAnyRoute(item.getKey(), routeFilters)) {
+					allAvailableItems.merge(item.getKey(), item.getValue(), Integer::sum);
+				}
+			}
+		}
+		return allAvailableItems;
+	}
+
+	/**
+	 * @return the amount of the given item the providers in the given routes
+	 * offer.
+	 */
+	int getAmountFor(ItemIdentifier itemType, List<ExitRoute> validDestinations) {
+		int amount = 0;
+		for (Entry<IRouter, List<List<IFilter>>> provider : NetworkStockIndex.groupProviders(validDestinations).entrySet()) {
+			Integer provided = getStock(provider.getKey()).get(itemType);
+			if (provided != null && NetworkStockIndex.isProvidedOverAnyRoute(itemType, provider.getValue())) {
+				amount += provided;
+			}
+		}
+		return amount;
+	}
+
+	private Map<ItemIdentifier, Integer> getStock(IRouter router) {
+		int now = MainProxy.getGlobalTick();
+		ProviderStock stock = providers.get(router);
+		if (stock == null || now - stock.readAt >= NetworkStockIndex.MAX_AGE || now < stock.readAt) {
+			Map<ItemIdentifier, Integer> items = new HashMap<>();
+			((IProvideItems) router.getPipe()).getAllItems(items, Collections.emptyList());
+			stock = new ProviderStock(items, now);
+			providers.put(router, stock);
+		}
+		return stock.items;
+	}
+
+	/**
+	 * @return the filters of all usable routes for every provider in the
+	 * given routes
+	 */
+	private static Map<IRouter, List<List<IFilter>>> groupProviders(List<ExitRoute> validDestinations) {
+		Map<IRouter, List<List<IFilter>>> providers = new LinkedHashMap<>();
+		outer:
+		for (ExitRoute r : validDestinations) {
+			if (r == null) {
+				continue;
+			}
+			if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
+				continue;
+			}
+			if (!(r.destination.getPipe() instanceof IProvideItems)) {
+				continue;
+			}
+			for (IFilter filter : r.filters) {
+				if (filter.blockProvider()) {
+					continue outer;
+				}
+			}
+			providers.computeIfAbsent(r.destination, key -> new ArrayList<>(1)).add(r.filters);
+		}
+		return providers;
+	}
+
+	private static boolean isProvidedOverAnyRoute(ItemIdentifier item, List<List<IFilter>> routeFilters) {
+		outer:
+		for (List<IFilter> filters : routeFilters) {
+			for (IFilter filter : filters) {
+				if (filter.isBlocked() == filter.isFilteredItem(item.getUndamaged())) {
+					continue outer;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static class ProviderStock {
+
+		private final Map<ItemIdentifier, Integer> items;
+		private final int readAt;
+
+		private ProviderStock(Map<ItemIdentifier, Integer> items, int readAt) {
+			this.items = items;
+			this.readAt = readAt;
+		}
+	}
+}
@@ -35,10 +35,12 @@ public class ChassiModule extends LogisticsGuiModule {
 
 	public void installModule(int slot, LogisticsModule module) {
 		modules[slot] = module;
+		parentChassis.markCraftedItemsChanged();
 	}
 
 	public void removeModule(int slot) {
 		modules[slot] = null;
+		parentChassis.markCraftedItemsChanged();
 	}
 
 	public LogisticsModule getModule(int slot) {
@@ -151,6 +151,7 @@ public class ModuleCrafter extends LogisticsGuiModule implements ICraftItems, IH
 		for (int i = 0; i < fuzzyCraftingFlagArray.length; i++) {
 			fuzzyCraftingFlagArray[i] = new DictResource(null, null);
 		}
+		_dummyInventory.addListener(inventory -> markCraftedItemsChanged());
 	}
 
 	public ModuleCrafter(PipeItemsCraftingLogistics parent) {
@@ -161,6 +162,7 @@ public class ModuleCrafter extends LogisticsGuiModule implements ICraftItems, IH
 		for (int i = 0; i < fuzzyCraftingFlagArray.length; i++) {
 			fuzzyCraftingFlagArray[i] = new DictResource(null, null);
 		}
+		_dummyInventory.addListener(inventory -> markCraftedItemsChanged());
 	}
 
 	/**
@@ -860,6 +862,19 @@ public class ModuleCrafter extends LogisticsGuiModule implements ICraftItems, IH
 
 	public void setDummyInventorySlot(int slot, ItemStack itemstack) {
 		_dummyInventory.setInventorySlotContents(slot, itemstack);
+		if (slot == 9) {
+			markCraftedItemsChanged();
+		}
+	}
+
+	/**
+	 * Tells the craftable index to read the crafted item again, after the
+	 * template was edited.
+	 */
+	private void markCraftedItemsChanged() {
+		if (_service != null && _world != null && MainProxy.isServer(getWorld())) {
+			SimpleServiceLocator.logisticsManager.markCraftedItemsChanged(_service.getRouter());
+		}
 	}
 
 	public void importFromCraftingTable(EntityPlayer player) {
@@ -881,6 +896,7 @@ public class ModuleCrafter extends LogisticsGuiModule implements ICraftItems, IH
 					}
 				}
 			}
+			markCraftedItemsChanged();
 			// Send inventory as packet
 			final CoordinatesPacket packet = PacketHandler.getPacket(CPipeSatelliteImportBack.class).setInventory(_dummyInventory).setModulePos(this);
 			if (player != null) {
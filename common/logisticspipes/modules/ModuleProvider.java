@@ -199,6 +199,9 @@ public class ModuleProvider extends LogisticsSneakyDirectionModule implements IL
 			stacksleft -= 1;
 			itemsleft -= sent;
 		}
+		if (order != null) {
+			SimpleServiceLocator.logisticsManager.markProvidedItemsChanged(_service.getRouter());
+		}
 	}
 
 	public boolean filterAllowsItem(ItemIdentifier item) {
@@ -244,7 +247,9 @@ public class ModuleProvider extends LogisticsSneakyDirectionModule implements IL
 
 	@Override
 	public LogisticsOrder fullFill(LogisticsPromise promise, IRequestItems destination, IAdditionalTargetInformation info) {
-		return _service.getItemOrderManager().addOrder(new ItemIdentifierStack(promise.item, promise.numberOfItems), destination, ResourceType.PROVIDER, info);
+		LogisticsOrder order = _service.getItemOrderManager().addOrder(new ItemIdentifierStack(promise.item, promise.numberOfItems), destination, ResourceType.PROVIDER, info);
+		SimpleServiceLocator.logisticsManager.markProvidedItemsChanged(_service.getRouter());
+		return order;
 	}
 
 	private int getAvailableItemCount(ItemIdentifier item) {
@@ -36,6 +36,7 @@ import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.utils.StaticResolverUtil;
 import network.rs485.logisticspipes.util.LPDataIOWrapper;
 import network.rs485.logisticspipes.util.LPDataInput;
+import network.rs485.logisticspipes.util.LPDataOutput;
 
 /*
  *  Basically FML SimpleIndexedCodec, except with static registration of LP ModernPackets and short instead of byte discriminator
@@ -112,10 +113,30 @@ public class PacketHandler extends MessageToMessageCodec<FMLProxyPacket, ModernP
 	}
 
 	public static void fillByteBuf(ModernPacket msg, ByteBuf buffer) {
-		buffer.writeShort(msg.getId());
-		buffer.writeInt(msg.getDebugId());
+		LPDataIOWrapper.writeData(buffer, output -> PacketHandler.writePacket(output, msg));
+	}
+
+	/**
+	 * Writes the id of the packet, its debug id in debug builds and its data.
+	 */
+	public static void writePacket(LPDataOutput output, ModernPacket packet) {
+		output.writeVarInt(packet.getId());
+		if (LPConstants.DEBUG) {
+			output.writeInt(packet.getDebugId());
+		}
+		packet.writeData(output);
+	}
 
-		LPDataIOWrapper.writeData(buffer, msg::writeData);
+	/**
+	 * Reads a packet written with {@link #writePacket}.
+	 */
+	public static ModernPacket readPacket(LPDataInput input) {
+		final ModernPacket packet = PacketHandler.packetlist.get(input.readVarInt()).template();
+		if (LPConstants.DEBUG) {
+			packet.setDebugId(input.readInt());
+		}
+		packet.readData(input);
+		return packet;
 	}
 
 	public static void addPacketToNBT(ModernPacket packet, NBTTagCompound nbt) {
@@ -133,13 +154,7 @@ public class PacketHandler extends MessageToMessageCodec<FMLProxyPacket, ModernP
 	public static void queueAndRemovePacketFromNBT(NBTTagCompound nbt) {
 		byte[] data = nbt.getByteArray("LogisticsPipes:PacketData");
 		if (data.length > 0) {
-			LPDataIOWrapper.provideData(data, dataInput -> {
-				final int packetID = dataInput.readShort();
-				final ModernPacket packet = PacketHandler.packetlist.get(packetID).template();
-				packet.setDebugId(dataInput.readInt());
-				packet.readData(dataInput);
-				SimpleServiceLocator.clientBufferHandler.queuePacket(packet, MainProxy.proxy.getClientPlayer());
-			});
+			LPDataIOWrapper.provideData(data, dataInput -> SimpleServiceLocator.clientBufferHandler.queuePacket(PacketHandler.readPacket(dataInput), MainProxy.proxy.getClientPlayer()));
 		}
 		nbt.removeTag("LogisticsPipes:PacketData");
 	}
@@ -147,13 +162,11 @@ public class PacketHandler extends MessageToMessageCodec<FMLProxyPacket, ModernP
 	//hacky callback to process packets coming from by the packetbufferhandler decompressors
 	//TODO replace with proper netty implementation
 	public static void onPacketData(final LPDataInput data, final EntityPlayer player) {
+		// always read, the packet may define item identifiers of the connection
+		final ModernPacket packet = PacketHandler.readPacket(data);
 		if (player == null) {
 			return;
 		}
-		final int packetID = data.readShort();
-		final ModernPacket packet = PacketHandler.packetlist.get(packetID).template();
-		packet.setDebugId(data.readInt());
-		packet.readData(data);
 		PacketHandler.onPacketData(packet, player);
 	}
 
@@ -194,19 +207,17 @@ public class PacketHandler extends MessageToMessageCodec<FMLProxyPacket, ModernP
 
 	@Override
 	protected final void decode(ChannelHandlerContext ctx, FMLProxyPacket msg, List<Object> out) {
-		ByteBuf payload = msg.payload();
-		int packetID = payload.readShort();
-		final ModernPacket packet = PacketHandler.packetlist.get(packetID).template();
-		packet.setDebugId(payload.readInt());
 		ctx.attr(PacketHandler.INBOUNDPACKETTRACKER).get().set(msg);
 
-		LPDataIOWrapper.provideData(payload.slice(), packet::readData);
+		LPDataIOWrapper.provideData(msg.payload().slice(), input -> {
+			final ModernPacket packet = PacketHandler.readPacket(input);
 
-		EntityPlayer player = MainProxy.proxy.getEntityPlayerFromNetHandler(msg.handler());
+			EntityPlayer player = MainProxy.proxy.getEntityPlayerFromNetHandler(msg.handler());
 
-		if (player != null) {
-			out.add(new InboundModernPacketWrapper(packet, player));
-		}
+			if (player != null) {
+				out.add(new InboundModernPacketWrapper(packet, player));
+			}
+		});
 	}
 
 	@Override
@@ -1,6 +1,6 @@
 package logisticspipes.network.packets.block;
 
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeSet;
@@ -34,7 +34,7 @@ public class RequestAmountTaskSubGui extends CoordinatesPacket {
 		}
 
 		Map<ItemIdentifier, Integer> _availableItems = SimpleServiceLocator.logisticsManager.getAvailableItems(pipe.getRouter().getIRoutersByCost());
-		LinkedList<ItemIdentifier> _craftableItems = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter().getIRoutersByCost());
+		List<ItemIdentifier> _craftableItems = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter());
 
 		TreeSet<ItemIdentifierStack> _allItems = new TreeSet<>();
 
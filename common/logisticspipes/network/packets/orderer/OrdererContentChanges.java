@@ -0,0 +1,82 @@
+package logisticspipes.network.packets.orderer;
+
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayer;
+
+import net.minecraftforge.fml.client.FMLClientHandler;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import logisticspipes.asm.ClientSideOnlyMethodContent;
+import logisticspipes.gui.orderer.GuiOrderer;
+import logisticspipes.gui.orderer.GuiRequestTable;
+import logisticspipes.network.abstractpackets.ModernPacket;
+import logisticspipes.utils.StaticResolve;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+import network.rs485.logisticspipes.util.LPDataInput;
+import network.rs485.logisticspipes.util.LPDataOutput;
+
+/**
+ * The changes of the orderer content since the version the client has. A
+ * base version of 0 means the changes are the complete content.
+ */
+@StaticResolve
+public class OrdererContentChanges extends ModernPacket {
+
+	@Getter
+	@Setter
+	private int baseVersion;
+
+	@Getter
+	@Setter
+	private int version;
+
+	/**
+	 * added items and items with a changed amount
+	 */
+	@Getter
+	@Setter
+	private List<ItemIdentifierStack> changed;
+
+	@Getter
+	@Setter
+	private List<ItemIdentifier> removed;
+
+	public OrdererContentChanges(int id) {
+		super(id);
+	}
+
+	@Override
+	public ModernPacket template() {
+		return new OrdererContentChanges(getId());
+	}
+
+	@Override
+	@ClientSideOnlyMethodContent
+	public void processPacket(EntityPlayer player) {
+		if (FMLClientHandler.instance().getClient().currentScreen instanceof GuiOrderer) {
+			((GuiOrderer) FMLClientHandler.instance().getClient().currentScreen).handleContentChanges(getBaseVersion(), getVersion(), getChanged(), getRemoved());
+		} else if (FMLClientHandler.instance().getClient().currentScreen instanceof GuiRequestTable) {
+			((GuiRequestTable) FMLClientHandler.instance().getClient().currentScreen).handleContentChanges(getBaseVersion(), getVersion(), getChanged(), getRemoved());
+		}
+	}
+
+	@Override
+	public void writeData(LPDataOutput output) {
+		output.writeInt(baseVersion);
+		output.writeInt(version);
+		output.writeCollection(changed, LPDataOutput::writeItemIdentifierStack);
+		output.writeCollection(removed, LPDataOutput::writeItemIdentifier);
+	}
+
+	@Override
+	public void readData(LPDataInput input) {
+		baseVersion = input.readInt();
+		version = input.readInt();
+		changed = input.readArrayList(LPDataInput::readItemIdentifierStack);
+		removed = input.readArrayList(LPDataInput::readItemIdentifier);
+	}
+}
@@ -2,6 +2,9 @@ package logisticspipes.network.packets.orderer;
 
 import net.minecraft.entity.player.EntityPlayer;
 
+import lombok.Getter;
+import lombok.Setter;
+
 import logisticspipes.network.abstractpackets.IntegerCoordinatesPacket;
 import logisticspipes.network.abstractpackets.ModernPacket;
 import logisticspipes.pipes.basic.CoreRoutedPipe;
@@ -9,10 +12,19 @@ import logisticspipes.pipes.basic.LogisticsTileGenericPipe;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.request.RequestHandler;
 import logisticspipes.utils.StaticResolve;
+import network.rs485.logisticspipes.util.LPDataInput;
+import network.rs485.logisticspipes.util.LPDataOutput;
 
 @StaticResolve
 public class OrdererRefreshRequestPacket extends IntegerCoordinatesPacket {
 
+	/**
+	 * the content version the client shows, 0 if it shows nothing yet
+	 */
+	@Getter
+	@Setter
+	private int knownVersion;
+
 	public OrdererRefreshRequestPacket(int id) {
 		super(id);
 	}
@@ -44,6 +56,18 @@ public class OrdererRefreshRequestPacket extends IntegerCoordinatesPacket {
 				option = RequestHandler.DisplayOptions.Both;
 				break;
 		}
-		RequestHandler.refresh(player, (CoreRoutedPipe) pipe.pipe, option);
+		RequestHandler.refresh(player, (CoreRoutedPipe) pipe.pipe, option, getKnownVersion());
+	}
+
+	@Override
+	public void writeData(LPDataOutput output) {
+		super.writeData(output);
+		output.writeInt(knownVersion);
+	}
+
+	@Override
+	public void readData(LPDataInput input) {
+		super.readData(input);
+		knownVersion = input.readInt();
 	}
 }
@@ -0,0 +1,53 @@
+package logisticspipes.network.packets.orderer;
+
+import net.minecraft.entity.player.EntityPlayer;
+
+import net.minecraftforge.fml.client.FMLClientHandler;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import logisticspipes.asm.ClientSideOnlyMethodContent;
+import logisticspipes.gui.orderer.GuiOrderer;
+import logisticspipes.gui.orderer.GuiRequestTable;
+import logisticspipes.network.abstractpackets.ModernPacket;
+import logisticspipes.utils.StaticResolve;
+import network.rs485.logisticspipes.util.LPDataInput;
+import network.rs485.logisticspipes.util.LPDataOutput;
+
+@StaticResolve
+public class RequestPlanning extends ModernPacket {
+
+	@Getter
+	@Setter
+	private boolean planning;
+
+	public RequestPlanning(int id) {
+		super(id);
+	}
+
+	@Override
+	public ModernPacket template() {
+		return new RequestPlanning(getId());
+	}
+
+	@Override
+	@ClientSideOnlyMethodContent
+	public void processPacket(EntityPlayer player) {
+		if (FMLClientHandler.instance().getClient().currentScreen instanceof GuiOrderer) {
+			((GuiOrderer) FMLClientHandler.instance().getClient().currentScreen).handleRequestPlanning(isPlanning());
+		} else if (FMLClientHandler.instance().getClient().currentScreen instanceof GuiRequestTable) {
+			((GuiRequestTable) FMLClientHandler.instance().getClient().currentScreen).handleRequestPlanning(isPlanning());
+		}
+	}
+
+	@Override
+	public void writeData(LPDataOutput output) {
+		output.writeBoolean(isPlanning());
+	}
+
+	@Override
+	public void readData(LPDataInput input) {
+		setPlanning(input.readBoolean());
+	}
+}
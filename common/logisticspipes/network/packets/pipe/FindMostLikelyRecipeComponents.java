@@ -1,7 +1,6 @@
 package logisticspipes.network.packets.pipe;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -64,7 +63,7 @@ public class FindMostLikelyRecipeComponents extends CoordinatesPacket {
 			list.add(-1);
 		}
 		if (pipe == null) return;
-		LinkedList<ItemIdentifier> craftable = null;
+		List<ItemIdentifier> craftable = null;
 		for (int j = 0; j < content.size(); j++) {
 			GuiRecipeImport.Canidates canidates = content.get(j);
 			int maxItemPos = -1;
@@ -79,7 +78,7 @@ public class FindMostLikelyRecipeComponents extends CoordinatesPacket {
 			}
 			if (max < 64) {
 				if (craftable == null) {
-					craftable = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter().getIRoutersByCost());
+					craftable = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter());
 				}
 				for (ItemIdentifier craft : craftable) {
 					for (int i = 0; i < canidates.order.size(); i++) {
@@ -0,0 +1,178 @@
+package logisticspipes.network.packets.pipe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import logisticspipes.network.abstractpackets.ModernPacket;
+import logisticspipes.pipes.basic.LogisticsTileGenericPipe;
+import logisticspipes.utils.StaticResolve;
+import network.rs485.logisticspipes.util.LPDataInput;
+import network.rs485.logisticspipes.util.LPDataOutput;
+
+/**
+ * All item position updates of one chunk in one tick, instead of one packet
+ * per item. Pipe positions are relative to the chunk, travel ids are varints,
+ * both facings share one byte and speed, position and yaw are sent in fixed
+ * point with 16 bits each.
+ */
+@StaticResolve
+public class ItemMotionBatchPacket extends ModernPacket {
+
+	private static final float SPEED_SCALE = 16384F; // up to 4 blocks per tick
+	private static final float POSITION_SCALE = 1024F; // up to 64 blocks of pipe length
+	private static final float YAW_SCALE = 65536F / 360F;
+
+	@Getter
+	@Setter
+	private int chunkX;
+	@Getter
+	@Setter
+	private int chunkZ;
+	@Getter
+	private final List<ItemMotion> motions = new ArrayList<>();
+
+	public ItemMotionBatchPacket(int id) {
+		super(id);
+	}
+
+	public ItemMotionBatchPacket addMotion(ItemMotion motion) {
+		motions.add(motion);
+		return this;
+	}
+
+	@Override
+	public void processPacket(EntityPlayer player) {
+		for (ItemMotion motion : motions) {
+			BlockPos pos = new BlockPos((chunkX << 4) | motion.localX, motion.y, (chunkZ << 4) | motion.localZ);
+			TileEntity tile = player.getEntityWorld().getTileEntity(pos);
+			if (!(tile instanceof LogisticsTileGenericPipe)) {
+				continue;
+			}
+			LogisticsTileGenericPipe pipe = (LogisticsTileGenericPipe) tile;
+			if (pipe.pipe == null || pipe.pipe.transport == null) {
+				continue;
+			}
+			pipe.pipe.transport.handleItemPositionPacket(motion.travelId, motion.getInput(), motion.getOutput(), motion.getSpeed(), motion.getPosition(), motion.getYaw());
+		}
+	}
+
+	@Override
+	public void writeData(LPDataOutput output) {
+		output.writeInt(chunkX);
+		output.writeInt(chunkZ);
+		output.writeVarInt(motions.size());
+		for (ItemMotion motion : motions) {
+			output.writeByte((motion.localX << 4) | motion.localZ);
+			output.writeByte(motion.y);
+			output.writeVarInt(motion.travelId);
+			output.writeByte(motion.facings);
+			output.writeShort(motion.speed);
+			output.writeShort(motion.position);
+			output.writeShort(motion.yaw);
+		}
+	}
+
+	@Override
+	public void readData(LPDataInput input) {
+		chunkX = input.readInt();
+		chunkZ = input.readInt();
+		int size = input.readVarInt();
+		for (int i = 0; i < size; i++) {
+			int local = input.readByte() & 0xFF;
+			int y = input.readByte() & 0xFF;
+			int travelId = input.readVarInt();
+			int facings = input.readByte() & 0xFF;
+			int speed = input.readShort() & 0xFFFF;
+			int position = input.readShort() & 0xFFFF;
+			int yaw = input.readShort() & 0xFFFF;
+			motions.add(new ItemMotion(local >> 4, y, local & 0xF, travelId, facings, speed, position, yaw));
+		}
+	}
+
+	@Override
+	public ModernPacket template() {
+		return new ItemMotionBatchPacket(getId());
+	}
+
+	/**
+	 * The quantized motion of one item, as the clients will see it.
+	 */
+	public static class ItemMotion {
+
+		private final int localX;
+		private final int y;
+		private final int localZ;
+		private final int travelId;
+		private final int facings;
+		private final int speed;
+		private final int position;
+		private final int yaw;
+
+		private ItemMotion(int localX, int y, int localZ, int travelId, int facings, int speed, int position, int yaw) {
+			this.localX = localX;
+			this.y = y;
+			this.localZ = localZ;
+			this.travelId = travelId;
+			this.facings = facings;
+			this.speed = speed;
+			this.position = position;
+			this.yaw = yaw;
+		}
+
+		public ItemMotion(BlockPos pipe, int travelId, EnumFacing input, EnumFacing output, float speed, float position, float yaw) {
+			this(pipe.getX() & 0xF, pipe.getY() & 0xFF, pipe.getZ() & 0xF, travelId,
+					ItemMotion.packFacing(input) * 7 + ItemMotion.packFacing(output),
+					ItemMotion.quantize(speed, ItemMotionBatchPacket.SPEED_SCALE),
+					ItemMotion.quantize(position, ItemMotionBatchPacket.POSITION_SCALE),
+					ItemMotion.quantize(((yaw % 360F) + 360F) % 360F, ItemMotionBatchPacket.YAW_SCALE));
+		}
+
+		private static int packFacing(EnumFacing facing) {
+			return facing == null ? 6 : facing.ordinal();
+		}
+
+		private static EnumFacing unpackFacing(int packed) {
+			return packed == 6 ? null : EnumFacing.VALUES[packed];
+		}
+
+		private static int quantize(float value, float scale) {
+			return Math.max(0, Math.min(0xFFFF, Math.round(value * scale)));
+		}
+
+		public EnumFacing getInput() {
+			return ItemMotion.unpackFacing(facings / 7);
+		}
+
+		public EnumFacing getOutput() {
+			return ItemMotion.unpackFacing(facings % 7);
+		}
+
+		public float getSpeed() {
+			return speed / ItemMotionBatchPacket.SPEED_SCALE;
+		}
+
+		public float getPosition() {
+			return position / ItemMotionBatchPacket.POSITION_SCALE;
+		}
+
+		public float getYaw() {
+			return yaw / ItemMotionBatchPacket.YAW_SCALE;
+		}
+
+		/**
+		 * @return true, if a client that knows the other motion would move
+		 * the item the same way
+		 */
+		public boolean sameCourse(ItemMotion other) {
+			return other != null && travelId == other.travelId && facings % 7 == other.facings % 7 && speed == other.speed;
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package logisticspipes.pipes;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -264,12 +263,7 @@ public class PipeBlockRequestTable extends PipeItemsRequestLogistics implements
 		for (int i = 0; i < 9; i++) {
 			craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
 		}
-		List<IRecipe> list = new ArrayList<>();
-		for (IRecipe r : CraftingUtil.getRecipeList()) {
-			if (r.matches(craftInv, getWorld())) {
-				list.add(r);
-			}
-		}
+		List<IRecipe> list = CraftingUtil.getMatchingRecipes(craftInv, getWorld());
 		if (list.size() == 1) {
 			cache = list.get(0);
 			resultInv.setInventorySlotContents(0, cache.getCraftingResult(craftInv));
@@ -277,10 +271,6 @@ public class PipeBlockRequestTable extends PipeItemsRequestLogistics implements
 		} else if (list.size() > 1) {
 			if (targetType != null) {
 				for (IRecipe recipe : list) {
-					craftInv = new AutoCraftingInventory(null);
-					for (int i = 0; i < 9; i++) {
-						craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-					}
 					ItemStack result = recipe.getCraftingResult(craftInv);
 					if (targetType == ItemIdentifier.get(result)) {
 						resultInv.setInventorySlotContents(0, result);
@@ -313,12 +303,7 @@ public class PipeBlockRequestTable extends PipeItemsRequestLogistics implements
 		for (int i = 0; i < 9; i++) {
 			craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
 		}
-		List<IRecipe> list = new ArrayList<>();
-		for (IRecipe r : CraftingUtil.getRecipeList()) {
-			if (r.matches(craftInv, getWorld())) {
-				list.add(r);
-			}
-		}
+		List<IRecipe> list = CraftingUtil.getMatchingRecipes(craftInv, getWorld());
 		if (list.size() > 1) {
 			boolean found = false;
 			IRecipe prev = null;
@@ -327,10 +312,6 @@ public class PipeBlockRequestTable extends PipeItemsRequestLogistics implements
 					cache = recipe;
 					break;
 				}
-				craftInv = new AutoCraftingInventory(null);
-				for (int i = 0; i < 9; i++) {
-					craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-				}
 				if (targetType == ItemIdentifier.get(recipe.getCraftingResult(craftInv))) {
 					if (down) {
 						found = true;
@@ -348,10 +329,6 @@ public class PipeBlockRequestTable extends PipeItemsRequestLogistics implements
 			if (cache == null) {
 				cache = list.get(0);
 			}
-			craftInv = new AutoCraftingInventory(null);
-			for (int i = 0; i < 9; i++) {
-				craftInv.setInventorySlotContents(i, matrix.getStackInSlot(i));
-			}
 			targetType = ItemIdentifier.get(cache.getCraftingResult(craftInv));
 		}
 		if (!localGuiWatcher.isEmpty() && getWorld() != null && MainProxy.isServer(getWorld())) {
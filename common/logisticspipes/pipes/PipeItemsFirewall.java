@@ -33,6 +33,9 @@ public class PipeItemsFirewall extends CoreRoutedPipe {
 	private boolean isBlocking = true;
 	private IFilter filter = null;
 
+	/** changes whenever the power blocking of any firewall may have changed */
+	private static int powerFilterVersion = 0;
+
 	public PipeItemsFirewall(Item item) {
 		super(item);
 	}
@@ -69,6 +72,7 @@ public class PipeItemsFirewall extends CoreRoutedPipe {
 		if (nbttagcompound.hasKey("blockPower")) {
 			blockPower = nbttagcompound.getBoolean("blockPower");
 		}
+		PipeItemsFirewall.powerFilterVersion++;
 		isBlocking = nbttagcompound.getBoolean("isBlocking");
 	}
 
@@ -207,6 +211,11 @@ public class PipeItemsFirewall extends CoreRoutedPipe {
 		blockSorting = flags.get(2);
 		blockPower = flags.get(3);
 		isBlocking = flags.get(4);
+		PipeItemsFirewall.powerFilterVersion++;
+	}
+
+	public static int getPowerFilterVersion() {
+		return PipeItemsFirewall.powerFilterVersion;
 	}
 
 	@Override
@@ -400,6 +400,7 @@ public class PipeItemsProviderLogistics extends CoreRoutedPipe implements IProvi
 	@Override
 	public void listenedChanged() {
 		doContentUpdate = true;
+		SimpleServiceLocator.logisticsManager.markProvidedItemsChanged(getRouter());
 	}
 
 	private void checkContentUpdate(EntityPlayer player) {
@@ -119,7 +119,7 @@ public class PipeItemsRequestLogistics extends CoreRoutedPipe implements IReques
 		if (stillNeedReplace()) {
 			return new ArrayList<>();
 		}
-		LinkedList<ItemIdentifier> items = SimpleServiceLocator.logisticsManager.getCraftableItems(getRouter().getIRoutersByCost());
+		List<ItemIdentifier> items = SimpleServiceLocator.logisticsManager.getCraftableItems(getRouter());
 		List<ItemStack> list = new ArrayList<>(items.size());
 		for (ItemIdentifier item : items) {
 			ItemStack is = item.unsafeMakeNormalStack(1);
@@ -244,7 +244,7 @@ public class PipeItemsRequestLogistics extends CoreRoutedPipe implements IReques
 	@CCCommand(description = "Asks for all craftable ItemIdentifier inside the Logistics Network")
 	@CCQueued
 	public List<ItemIdentifier> getCraftableItems() {
-		return SimpleServiceLocator.logisticsManager.getCraftableItems(getRouter().getIRoutersByCost());
+		return SimpleServiceLocator.logisticsManager.getCraftableItems(getRouter());
 	}
 
 	@CCCommand(description = "Asks for the amount of an ItemIdentifier Id inside the Logistics Network")
@@ -15,7 +15,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
@@ -49,6 +48,7 @@ import logisticspipes.api.ILogisticsPowerProvider;
 import logisticspipes.asm.ModDependentMethod;
 import logisticspipes.asm.te.ILPTEInformation;
 import logisticspipes.blocks.LogisticsSecurityTileEntity;
+import logisticspipes.blocks.powertile.LogisticsPowerJunctionTileEntity;
 import logisticspipes.config.Configs;
 import logisticspipes.interfaces.IClientState;
 import logisticspipes.interfaces.IInventoryUtil;
@@ -88,6 +88,7 @@ import logisticspipes.network.packets.pipe.RequestSignPacket;
 import logisticspipes.network.packets.pipe.StatUpdate;
 import logisticspipes.pipefxhandlers.Particles;
 import logisticspipes.pipefxhandlers.PipeFXRenderHandler;
+import logisticspipes.pipes.PipeItemsFirewall;
 import logisticspipes.pipes.basic.debug.DebugLogController;
 import logisticspipes.pipes.basic.debug.StatusEntry;
 import logisticspipes.pipes.signs.IPipeSign;
@@ -108,7 +109,6 @@ import logisticspipes.routing.ServerRouter;
 import logisticspipes.routing.order.IOrderInfoProvider;
 import logisticspipes.routing.order.LogisticsItemOrderManager;
 import logisticspipes.routing.order.LogisticsOrderManager;
-import logisticspipes.routing.pathfinder.IPipeInformationProvider.ConnectionPipeType;
 import logisticspipes.security.PermissionException;
 import logisticspipes.security.SecuritySettings;
 import logisticspipes.textures.Textures;
@@ -129,7 +129,6 @@ import network.rs485.logisticspipes.connection.NeighborTileEntity;
 import network.rs485.logisticspipes.util.LPDataInput;
 import network.rs485.logisticspipes.util.LPDataOutput;
 import network.rs485.logisticspipes.world.DoubleCoordinates;
-import network.rs485.logisticspipes.world.WorldCoordinatesWrapper;
 
 @CCType(name = "LogisticsPipes:Normal")
 public abstract class CoreRoutedPipe extends CoreUnroutedPipe
@@ -173,6 +172,9 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 	private boolean preventRemove = false;
 	private boolean destroyByPlayer = false;
 	private PowerSupplierHandler powerHandler = new PowerSupplierHandler(this);
+	private List<ILogisticsPowerProvider> usablePowerProviders = null;
+	private List<Pair<ILogisticsPowerProvider, List<IFilter>>> usablePowerProvidersSource = null;
+	private int usablePowerProvidersFilterVersion;
 	@Getter
 	private List<IOrderInfoProvider> clientSideOrderManager = new ArrayList<>();
 	private int throttleTimeLeft = 20 + new Random().nextInt(Configs.LOGISTICS_DETECTION_FREQUENCY);
@@ -313,9 +315,8 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 
 	protected List<TileEntity> getConnectedRawInventories() {
 		if (_cachedAdjacentInventories == null) {
-			_cachedAdjacentInventories = new WorldCoordinatesWrapper(container)
-					.connectedTileEntities(ConnectionPipeType.ITEM)
-					.filter(adjacent -> adjacent.isItemHandler() && !adjacent.isLogisticsPipe())
+			_cachedAdjacentInventories = container.getNeighborCache().getConnectedItemHandlers().stream()
+					.filter(adjacent -> !adjacent.isLogisticsPipe())
 					.map(NeighborTileEntity::getTileEntity)
 					.collect(Collectors.toList());
 		}
@@ -814,6 +815,16 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 		return router;
 	}
 
+	/**
+	 * Tells the craftable index to read the crafted items of this pipe again,
+	 * e.g. after its modules or upgrades changed.
+	 */
+	public void markCraftedItemsChanged() {
+		if (!stillNeedReplace && container != null && MainProxy.isServer(getWorld())) {
+			SimpleServiceLocator.logisticsManager.markCraftedItemsChanged(getRouter());
+		}
+	}
+
 	public boolean isEnabled() {
 		return enabled;
 	}
@@ -1087,18 +1098,12 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 		if (providersToIgnore != null && providersToIgnore.contains(this)) {
 			return false;
 		}
-		List<Pair<ILogisticsPowerProvider, List<IFilter>>> list = getRoutedPowerProviders();
-		if (list == null) {
+		List<ILogisticsPowerProvider> providers = getUsablePowerProviders();
+		if (providers == null) {
 			return false;
 		}
-		outer:
-		for (Pair<ILogisticsPowerProvider, List<IFilter>> provider : list) {
-			for (IFilter filter : provider.getValue2()) {
-				if (filter.blockPower()) {
-					continue outer;
-				}
-			}
-			if (provider.getValue1().canUseEnergy(amount, providersToIgnore)) {
+		for (ILogisticsPowerProvider provider : providers) {
+			if (provider.canUseEnergy(amount, providersToIgnore)) {
 				return true;
 			}
 		}
@@ -1120,40 +1125,66 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 		if (amount == 0) {
 			return true;
 		}
-		if (providersToIgnore == null) {
-			providersToIgnore = new ArrayList<>();
-		}
-		if (providersToIgnore.contains(this)) {
+		if (providersToIgnore != null && providersToIgnore.contains(this)) {
 			return false;
 		}
-		providersToIgnore.add(this);
-		List<Pair<ILogisticsPowerProvider, List<IFilter>>> list = getRoutedPowerProviders();
-		if (list == null) {
+		List<ILogisticsPowerProvider> providers = getUsablePowerProviders();
+		if (providers == null) {
 			return false;
 		}
-		outer:
-		for (Pair<ILogisticsPowerProvider, List<IFilter>> provider : list) {
-			for (IFilter filter : provider.getValue2()) {
-				if (filter.blockPower()) {
-					continue outer;
+		for (ILogisticsPowerProvider provider : providers) {
+			if (!(provider instanceof LogisticsPowerJunctionTileEntity)) {
+				// only providers drawing from somewhere else need to know who already asked
+				if (providersToIgnore == null) {
+					providersToIgnore = new ArrayList<>();
+				}
+				if (!providersToIgnore.contains(this)) {
+					providersToIgnore.add(this);
 				}
 			}
-			if (provider.getValue1().canUseEnergy(amount, providersToIgnore)) {
-				if (provider.getValue1().useEnergy(amount, providersToIgnore)) {
-					if (sparkles) {
-						int particlecount = amount;
-						if (particlecount > 10) {
-							particlecount = 10;
-						}
-						spawnParticle(Particles.GoldParticle, particlecount);
+			if (provider.canUseEnergy(amount, providersToIgnore) && provider.useEnergy(amount, providersToIgnore)) {
+				if (sparkles) {
+					int particlecount = amount;
+					if (particlecount > 10) {
+						particlecount = 10;
 					}
-					return true;
+					spawnParticle(Particles.GoldParticle, particlecount);
 				}
+				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * @return the power providers of the router, closest first, without those
+	 * behind a filter blocking power, or null if the pipe can't use power.
+	 * The list is kept until the routing table or a firewall changes.
+	 */
+	private List<ILogisticsPowerProvider> getUsablePowerProviders() {
+		List<Pair<ILogisticsPowerProvider, List<IFilter>>> providers = getRoutedPowerProviders();
+		if (providers == null) {
+			return null;
+		}
+		int filterVersion = PipeItemsFirewall.getPowerFilterVersion();
+		if (providers != usablePowerProvidersSource || filterVersion != usablePowerProvidersFilterVersion) {
+			List<ILogisticsPowerProvider> usable = new ArrayList<>(providers.size());
+			outer:
+			for (Pair<ILogisticsPowerProvider, List<IFilter>> provider : providers) {
+				for (IFilter filter : provider.getValue2()) {
+					if (filter.blockPower()) {
+						continue outer;
+					}
+				}
+				usable.add(provider.getValue1());
+			}
+			usablePowerProviders = usable;
+			usablePowerProvidersSource = providers;
+			usablePowerProvidersFilterVersion = filterVersion;
+		}
+		return usablePowerProviders;
+	}
+
 	@Override
 	public void queueEvent(String event, Object[] arguments) {
 		if (container instanceof LogisticsTileGenericPipe) {
@@ -1545,10 +1576,8 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 	public NeighborTileEntity<TileEntity> getPointedItemHandler() {
 		final EnumFacing pointedOrientation = getPointedOrientation();
 		if (pointedOrientation == null) return null;
-		final TileEntity tile = getContainer().getTile(pointedOrientation);
-		if (tile == null) return null;
-		final NeighborTileEntity<TileEntity> neighbor = new NeighborTileEntity<>(tile, pointedOrientation);
-		if (!neighbor.isItemHandler()) return null;
+		final NeighborTileEntity<TileEntity> neighbor = getContainer().getNeighborCache().getNeighbor(pointedOrientation);
+		if (neighbor == null || !neighbor.isItemHandler()) return null;
 		return neighbor;
 	}
 
@@ -1593,12 +1622,13 @@ public abstract class CoreRoutedPipe extends CoreUnroutedPipe
 	@Override
 	public EnumFacing getPointedOrientation() {
 		if (pointedDirection == null) {
-			final Optional<EnumFacing> firstDirection = new WorldCoordinatesWrapper(container)
-					.connectedTileEntities(ConnectionPipeType.ITEM)
-					.filter(adjacent -> !SimpleServiceLocator.pipeInformationManager.isPipe(adjacent.getTileEntity()))
-					.map(NeighborTileEntity::getDirection)
-					.findFirst();
-			firstDirection.ifPresent(enumFacing -> pointedDirection = enumFacing);
+			final List<NeighborTileEntity<TileEntity>> connected = container.getNeighborCache().getConnected();
+			for (int i = 0; i < connected.size(); i++) {
+				if (!SimpleServiceLocator.pipeInformationManager.isPipe(connected.get(i).getTileEntity())) {
+					pointedDirection = connected.get(i).getDirection();
+					break;
+				}
+			}
 		}
 		return pointedDirection;
 	}
@@ -79,12 +79,12 @@ import logisticspipes.utils.StackTraceUtil;
 import logisticspipes.utils.StackTraceUtil.Info;
 import logisticspipes.utils.TileBuffer;
 import logisticspipes.utils.item.ItemIdentifier;
+import network.rs485.logisticspipes.connection.NeighborTileEntity;
 import network.rs485.logisticspipes.connection.PipeInventoryConnectionChecker;
 import network.rs485.logisticspipes.util.LPDataInput;
 import network.rs485.logisticspipes.util.LPDataOutput;
 import network.rs485.logisticspipes.world.DoubleCoordinates;
 import network.rs485.logisticspipes.world.DoubleCoordinatesType;
-import network.rs485.logisticspipes.world.WorldCoordinatesWrapper;
 
 @ModDependentInterface(modId = { LPConstants.cofhCoreModID, LPConstants.openComputersModID, LPConstants.openComputersModID, LPConstants.openComputersModID },
 		interfacePath = { "cofh.api.transport.IItemDuct", "li.cil.oc.api.network.ManagedPeripheral",
@@ -120,6 +120,7 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 	private boolean initialized = false;
 	private boolean deletePipe = false;
 	private TileBuffer[] tileBuffer;
+	private final PipeNeighborCache neighborCache = new PipeNeighborCache(this);
 	private boolean sendClientUpdate = false;
 	private boolean blockNeighborChange = false;
 	private boolean refreshRenderState = false;
@@ -148,11 +149,13 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 			tileEntityInvalid = true;
 			initialized = false;
 			tileBuffer = null;
+			neighborCache.invalidate();
 			super.invalidate();
 		} else if (!pipe.preventRemove()) {
 			tileEntityInvalid = true;
 			initialized = false;
 			tileBuffer = null;
+			neighborCache.invalidate();
 			pipe.invalidate();
 			super.invalidate();
 			SimpleServiceLocator.openComputersProxy.handleInvalidate(this);
@@ -165,6 +168,7 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 		super.validate();
 		initialized = false;
 		tileBuffer = null;
+		neighborCache.invalidate();
 		bindPipe();
 		if (pipe != null) {
 			pipe.validate();
@@ -174,6 +178,7 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 	@Override
 	public void onChunkUnload() {
 		super.onChunkUnload();
+		neighborCache.invalidate();
 		if (pipe != null) {
 			pipe.onChunkUnload();
 		}
@@ -350,10 +355,17 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 	public void scheduleNeighborChange() {
 		tdPart.scheduleNeighborChange();
 		blockNeighborChange = true;
+		neighborCache.invalidate();
 		boolean[] connected = new boolean[6];
-		new WorldCoordinatesWrapper(this).allNeighborTileEntities()
-				.filter(adjacent -> SimpleServiceLocator.ccProxy.isTurtle(adjacent.getTileEntity()))
-				.forEach(adjacent -> connected[adjacent.getDirection().ordinal()] = true);
+		for (NeighborTileEntity<TileEntity> adjacent : neighborCache.getNeighbors()) {
+			if (SimpleServiceLocator.ccProxy.isTurtle(adjacent.getTileEntity())) {
+				connected[adjacent.getDirection().ordinal()] = true;
+			}
+			// adjacent pipes have to check again whether they connect to this one
+			if (adjacent.getTileEntity() instanceof LogisticsTileGenericPipe) {
+				((LogisticsTileGenericPipe) adjacent.getTileEntity()).neighborCache.invalidateConnections();
+			}
+		}
 		for (int i = 0; i < 6; i++) {
 			if (!connected[i]) {
 				turtleConnect[i] = false;
@@ -811,6 +823,14 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 		if (cache != null) {
 			cache[from.getOpposite().ordinal()].set(block, tile);
 		}
+		neighborCache.invalidate();
+	}
+
+	/**
+	 * @return the cached neighbors of this pipe, see {@link PipeNeighborCache}
+	 */
+	public PipeNeighborCache getNeighborCache() {
+		return neighborCache;
 	}
 
 	@Override
@@ -853,6 +873,7 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 		}
 
 		boolean[] pipeTDConnectionsBufferOld = pipeTDConnectionsBuffer.clone();
+		neighborCache.invalidate();
 
 		for (EnumFacing side : EnumFacing.VALUES) {
 			TileBuffer t = cache[side.ordinal()];
@@ -1030,6 +1051,7 @@ public class LogisticsTileGenericPipe extends LPDuctHolderTileEntity
 		if (cache != null) {
 			cache[side.ordinal()].refresh();
 		}
+		neighborCache.invalidate();
 	}
 
 	public boolean nonNull() {
@@ -0,0 +1,197 @@
+package logisticspipes.pipes.basic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
+
+import logisticspipes.proxy.MainProxy;
+import network.rs485.logisticspipes.connection.NeighborTileEntity;
+
+/**
+ * The neighbors of one pipe, resolved through the {@link logisticspipes.utils.TileBuffer}
+ * of its tile, together with whether the pipe connects to them and whether
+ * they offer an item handler on the connected side.
+ *
+ * The neighbors are kept until the pipe is told about a neighbor change, until
+ * one of the neighbors is invalidated or until a chunk unload in the same world
+ * left one of them in an unloaded chunk. The connections are also checked
+ * again when an adjacent pipe changed its connections. The lists are
+ * unmodifiable and only replaced on a rebuild, so iterating them by index
+ * doesn't allocate.
+ */
+public class PipeNeighborCache {
+
+	/** counts the chunk unloads per world, neighbors in unloaded chunks are only looked for after one */
+	private static final Map<World, AtomicInteger> chunkUnloads = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final LogisticsTileGenericPipe tile;
+	@SuppressWarnings("unchecked")
+	private final NeighborTileEntity<TileEntity>[] neighbors = new NeighborTileEntity[6];
+	private List<NeighborTileEntity<TileEntity>> all = Collections.emptyList();
+	private List<NeighborTileEntity<TileEntity>> connected = Collections.emptyList();
+	private List<NeighborTileEntity<TileEntity>> connectedItemHandlers = Collections.emptyList();
+	private int connectedMask = 0;
+	private int itemHandlerMask = 0;
+	private boolean valid = false;
+	private boolean connectionsValid = false;
+	private int checkedChunkUnloads = 0;
+	private AtomicInteger worldChunkUnloads = null;
+
+	PipeNeighborCache(LogisticsTileGenericPipe tile) {
+		this.tile = tile;
+	}
+
+	public static void chunkUnloaded(World world) {
+		PipeNeighborCache.getChunkUnloads(world).incrementAndGet();
+	}
+
+	private static AtomicInteger getChunkUnloads(World world) {
+		return PipeNeighborCache.chunkUnloads.computeIfAbsent(world, key -> new AtomicInteger());
+	}
+
+	public void invalidate() {
+		valid = false;
+		connectionsValid = false;
+		worldChunkUnloads = null;
+	}
+
+	/**
+	 * Called when an adjacent pipe changed whether it connects, the neighbors
+	 * themselves stay the same.
+	 */
+	public void invalidateConnections() {
+		connectionsValid = false;
+	}
+
+	/**
+	 * @return all neighbors with a tile entity, ordered by direction
+	 */
+	public List<NeighborTileEntity<TileEntity>> getNeighbors() {
+		ensureValid();
+		return all;
+	}
+
+	/**
+	 * @return the neighbors the pipe connects to, ordered by direction
+	 */
+	public List<NeighborTileEntity<TileEntity>> getConnected() {
+		ensureConnectionsValid();
+		return connected;
+	}
+
+	/**
+	 * @return the neighbors the pipe connects to, which offer an item handler
+	 * on the connected side
+	 */
+	public List<NeighborTileEntity<TileEntity>> getConnectedItemHandlers() {
+		ensureConnectionsValid();
+		return connectedItemHandlers;
+	}
+
+	@Nullable
+	public NeighborTileEntity<TileEntity> getNeighbor(EnumFacing direction) {
+		ensureValid();
+		return neighbors[direction.ordinal()];
+	}
+
+	public boolean isConnected(EnumFacing direction) {
+		ensureConnectionsValid();
+		return (connectedMask & 1 << direction.ordinal()) != 0;
+	}
+
+	public boolean isItemHandler(EnumFacing direction) {
+		ensureConnectionsValid();
+		return (itemHandlerMask & 1 << direction.ordinal()) != 0;
+	}
+
+	private void ensureValid() {
+		if (valid) {
+			int unloads = worldChunkUnloads.get();
+			boolean checkLoaded = checkedChunkUnloads != unloads;
+			checkedChunkUnloads = unloads;
+			for (int i = 0; i < all.size(); i++) {
+				TileEntity neighbor = all.get(i).getTileEntity();
+				if (neighbor.isInvalid() || (checkLoaded && !neighbor.getWorld().isBlockLoaded(neighbor.getPos()))) {
+					invalidate();
+					break;
+				}
+			}
+		}
+		if (!valid) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * The connections are only checked when asked for, as the neighbors are
+	 * also looked up while the world notifies the pipe of a change.
+	 */
+	private void ensureConnectionsValid() {
+		ensureValid();
+		if (valid && !connectionsValid) {
+			checkConnections();
+		}
+	}
+
+	private void rebuild() {
+		if (tile.getTileCache() == null) {
+			// the pipe isn't bound yet
+			Arrays.fill(neighbors, null);
+			all = Collections.emptyList();
+			connected = Collections.emptyList();
+			connectedItemHandlers = Collections.emptyList();
+			connectedMask = 0;
+			itemHandlerMask = 0;
+			return;
+		}
+		List<NeighborTileEntity<TileEntity>> newAll = new ArrayList<>(6);
+		for (EnumFacing direction : EnumFacing.VALUES) {
+			TileEntity neighbor = tile.getTile(direction, true);
+			if (neighbor == null || neighbor.isInvalid()) {
+				neighbors[direction.ordinal()] = null;
+				continue;
+			}
+			NeighborTileEntity<TileEntity> handle = new NeighborTileEntity<>(neighbor, direction);
+			neighbors[direction.ordinal()] = handle;
+			newAll.add(handle);
+		}
+		all = Collections.unmodifiableList(newAll);
+		worldChunkUnloads = PipeNeighborCache.getChunkUnloads(tile.getWorld());
+		checkedChunkUnloads = worldChunkUnloads.get();
+		valid = true;
+		connectionsValid = false;
+	}
+
+	private void checkConnections() {
+		List<NeighborTileEntity<TileEntity>> newConnected = new ArrayList<>(all.size());
+		List<NeighborTileEntity<TileEntity>> newItemHandlers = new ArrayList<>(all.size());
+		int newConnectedMask = 0;
+		int newItemHandlerMask = 0;
+		for (int i = 0; i < all.size(); i++) {
+			NeighborTileEntity<TileEntity> handle = all.get(i);
+			EnumFacing direction = handle.getDirection();
+			if (MainProxy.checkPipesConnections(tile, handle.getTileEntity(), direction)) {
+				newConnected.add(handle);
+				newConnectedMask |= 1 << direction.ordinal();
+				if (handle.isItemHandler()) {
+					newItemHandlers.add(handle);
+					newItemHandlerMask |= 1 << direction.ordinal();
+				}
+			}
+		}
+		connected = Collections.unmodifiableList(newConnected);
+		connectedItemHandlers = Collections.unmodifiableList(newItemHandlers);
+		connectedMask = newConnectedMask;
+		itemHandlerMask = newItemHandlerMask;
+		connectionsValid = true;
+	}
+}
@@ -161,6 +161,7 @@ public class ModuleUpgradeManager implements ISimpleInventoryEventHandler, ISlot
 				pipe.container.sendUpdateToClient();
 			}
 		}
+		pipe.markCraftedItemsChanged();
 	}
 
 	public void readFromNBT(NBTTagCompound nbttagcompound, String prefix) {
@@ -246,6 +246,7 @@ public class UpgradeManager implements ISimpleInventoryEventHandler, ISlotUpgrad
 				pipe.container.sendUpdateToClient();
 			}
 		}
+		pipe.markCraftedItemsChanged();
 		uuid = null;
 		uuidS = null;
 		ItemStack stack = secInv.getStackInSlot(0);
@@ -1,8 +1,11 @@
 package logisticspipes.proxy.cc.wrapper;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.annotation.Nonnull;
 
 import dan200.computercraft.api.lua.ILuaContext;
@@ -13,11 +16,13 @@ import logisticspipes.LogisticsPipes;
 import logisticspipes.proxy.computers.interfaces.CCCommand;
 import logisticspipes.proxy.computers.interfaces.CCDirectCall;
 import logisticspipes.proxy.computers.interfaces.CCQueued;
+import logisticspipes.proxy.computers.wrapper.CCCommandInvoker;
+import logisticspipes.proxy.computers.wrapper.CCCommandOverloads;
 import logisticspipes.proxy.computers.wrapper.CCObjectWrapper;
+import logisticspipes.proxy.computers.wrapper.CCQueuedCalls;
 import logisticspipes.proxy.computers.wrapper.CCWrapperInformation;
 import logisticspipes.proxy.computers.wrapper.ICommandWrapper;
 import logisticspipes.security.PermissionException;
-import logisticspipes.ticks.QueuedTasks;
 
 public class CCCommandWrapper implements ILuaObject {
 
@@ -63,129 +68,58 @@ public class CCCommandWrapper implements ILuaObject {
 		}
 		methodId--;
 
-		String name = info.commandMap.get(methodId);
-		Method match = null;
-		for (Method method : info.commands.values()) {
-			if (!method.getName().equalsIgnoreCase(name)) {
-				continue;
-			}
-			if (!argumentsMatch(method, arguments)) {
-				continue;
-			}
-			match = method;
-			break;
+		if (methodId < 0 || methodId >= info.commandOverloads.length || info.commandOverloads[methodId] == null) {
+			throw new UnsupportedOperationException("Internal Excption (Code: 1, " + info.commandMap.get(methodId) + ")");
 		}
-
+		CCCommandOverloads overloads = info.commandOverloads[methodId];
+		CCCommandInvoker match = overloads.find(arguments);
 		if (match == null) {
-			StringBuilder error = new StringBuilder();
-			error.append("No such method.");
-			boolean handled = false;
-			for (Method method : info.commands.values()) {
-				if (!method.getName().equalsIgnoreCase(name)) {
-					continue;
-				}
-				if (handled) {
-					error.append("\n");
-				}
-				handled = true;
-				error.append(method.getName());
-				error.append("(");
-				boolean a = false;
-				for (Class<?> clazz : method.getParameterTypes()) {
-					if (a) {
-						error.append(", ");
-					}
-					error.append(clazz.getName());
-					a = true;
-				}
-				error.append(")");
-			}
-			if (!handled) {
-				error = new StringBuilder();
-				error.append("Internal Excption (Code: 1, ");
-				error.append(name);
-				error.append(")");
-			}
-			throw new UnsupportedOperationException(error.toString());
+			throw overloads.noSuchMethod();
 		}
 
-		if (match.getAnnotation(CCDirectCall.class) != null) {
+		if (match.isDirectCall()) {
 			if (!isDirectCall) {
 				throw new PermissionException();
 			}
 		}
 
-		if (match.getAnnotation(CCCommand.class).needPermission()) {
-			if (info.securityMethod != null) {
+		if (match.isNeedPermission()) {
+			if (info.securityCheck != null) {
 				try {
-					info.securityMethod.invoke(object);
-				} catch (InvocationTargetException e) {
-					if (e.getTargetException() instanceof Exception) {
-						throw new RuntimeException(e.getTargetException());
-					}
-					throw new RuntimeException(e);
-				} catch (IllegalAccessException | IllegalArgumentException e) {
+					info.securityCheck.invoke(object);
+				} catch (Exception e) {
 					throw new RuntimeException(e);
 				}
 			}
 		}
 
-		if (match.getAnnotation(CCQueued.class) != null) {
-			final Method m = match;
-			final Object[] a = arguments;
-			final Object[] resultArray = new Object[1];
-			final Boolean[] booleans = new Boolean[2];
-			booleans[0] = false;
-			booleans[1] = false;
-			QueuedTasks.queueTask(() -> {
-				try {
-					Object result = m.invoke(object, a);
-					if (result != null) {
-						resultArray[0] = result;
-					}
-				} catch (InvocationTargetException e) {
-					if (e.getTargetException() instanceof PermissionException) {
-						booleans[1] = true;
-						resultArray[0] = e.getTargetException();
-					} else {
-						booleans[0] = true;
-						throw e;
-					}
-				}
-				booleans[0] = true;
-				return null;
-			});
-			int count = 0;
-			while (!booleans[0] && count < 200) {
-				try {
-					Thread.sleep(10);
-				} catch (InterruptedException e) {
-					throw new RuntimeException(e);
-				}
-				count++;
-			}
-			if (count >= 199) {
-				LogisticsPipes.log.warn("CC call " + m.getName() + " on " + object.getClass().getName() + ", (" + object.toString() + ") took too long.");
+		if (match.isQueued()) {
+			CompletableFuture<Object> future = CCQueuedCalls.submit(match, object, arguments);
+			Object result;
+			try {
+				result = future.get(CCQueuedCalls.TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				future.cancel(false);
+				LogisticsPipes.log.warn("CC call " + match.getMethod().getName() + " on " + object.getClass().getName() + ", (" + object.toString() + ") took too long.");
 				throw new RuntimeException("Took too long");
+			} catch (InterruptedException e) {
+				future.cancel(false);
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof PermissionException) {
+					throw (PermissionException) e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
 			}
-			if (m.getReturnType().equals(Void.class)) {
+			if (match.getMethod().getReturnType().equals(Void.class)) {
 				return null;
 			}
-			if (booleans[1]) {
-				//PermissionException
-				throw ((RuntimeException) resultArray[0]);
-			}
-			return CCObjectWrapper.createArray(CCObjectWrapper.getWrappedObject(resultArray[0], CCCommandWrapper.WRAPPER));
+			return CCObjectWrapper.createArray(CCObjectWrapper.getWrappedObject(result, CCCommandWrapper.WRAPPER));
 		}
 		Object result;
 		try {
 			result = match.invoke(object, arguments);
-		} catch (InvocationTargetException e) {
-			if (e.getTargetException() instanceof Exception) {
-				throw new RuntimeException(e.getTargetException());
-			}
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException | IllegalArgumentException e) {
+		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 		return CCObjectWrapper.createArray(CCObjectWrapper.getWrappedObject(result, CCCommandWrapper.WRAPPER));
@@ -322,21 +256,6 @@ public class CCCommandWrapper implements ILuaObject {
 		return new Object[] { help.toString() };
 	}
 
-	private boolean argumentsMatch(Method method, Object[] arguments) {
-		int i = 0;
-		for (Class<?> args : method.getParameterTypes()) {
-			if (arguments.length <= i) {
-				return false;
-			}
-			if (!args.isAssignableFrom(arguments[i].getClass())) {
-				return false;
-			}
-			//if(!arguments[i].getClass().equals(args)) return false;
-			i++;
-		}
-		return true;
-	}
-
 	public String getType() {
 		return info.type;
 	}
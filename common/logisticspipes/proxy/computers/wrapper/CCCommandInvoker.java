@@ -0,0 +1,76 @@
+package logisticspipes.proxy.computers.wrapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import lombok.Getter;
+
+import logisticspipes.proxy.computers.interfaces.CCCommand;
+import logisticspipes.proxy.computers.interfaces.CCDirectCall;
+import logisticspipes.proxy.computers.interfaces.CCQueued;
+
+/**
+ * One method callable from a computer, with its annotations read once and a
+ * method handle taking the target and the argument array.
+ */
+public class CCCommandInvoker {
+
+	@Getter
+	private final Method method;
+	private final Class<?>[] parameterTypes;
+	/** (Object target, Object[] arguments)Object, null for void methods */
+	private final MethodHandle handle;
+	@Getter
+	private final boolean directCall;
+	@Getter
+	private final boolean queued;
+	@Getter
+	private final boolean needPermission;
+
+	CCCommandInvoker(Method method) throws IllegalAccessException {
+		this.method = method;
+		parameterTypes = method.getParameterTypes();
+		method.setAccessible(true);
+		handle = MethodHandles.lookup().unreflect(method)
+				.asType(MethodType.genericMethodType(parameterTypes.length + 1))
+				.asSpreader(Object[].class, parameterTypes.length);
+		directCall = method.isAnnotationPresent(CCDirectCall.class);
+		queued = method.isAnnotationPresent(CCQueued.class);
+		CCCommand command = method.getAnnotation(CCCommand.class);
+		needPermission = command != null && command.needPermission();
+	}
+
+	int getParameterCount() {
+		return parameterTypes.length;
+	}
+
+	/**
+	 * @return whether every argument is an instance of its parameter type.
+	 * The number of arguments has to match already.
+	 */
+	boolean argumentsMatch(Object[] arguments) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (arguments[i] == null || !parameterTypes[i].isInstance(arguments[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calls the method. Exceptions of the method are thrown as they are, not
+	 * wrapped in an {@link InvocationTargetException}.
+	 */
+	public Object invoke(Object target, Object... arguments) throws Exception {
+		try {
+			return (Object) handle.invokeExact(target, arguments);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package logisticspipes.proxy.computers.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All methods of a wrapped type which are called by the same command name,
+ * ignoring case, grouped by their number of parameters.
+ */
+public class CCCommandOverloads {
+
+	private static final CCCommandInvoker[] NONE = new CCCommandInvoker[0];
+
+	private final List<CCCommandInvoker> invokers = new ArrayList<>();
+	private CCCommandInvoker[][] byArity = new CCCommandInvoker[0][];
+
+	void add(CCCommandInvoker invoker) {
+		invokers.add(invoker);
+		int arity = invoker.getParameterCount();
+		if (byArity.length <= arity) {
+			CCCommandInvoker[][] grown = new CCCommandInvoker[arity + 1][];
+			System.arraycopy(byArity, 0, grown, 0, byArity.length);
+			byArity = grown;
+		}
+		CCCommandInvoker[] overloads = byArity[arity] == null ? CCCommandOverloads.NONE : byArity[arity];
+		CCCommandInvoker[] added = new CCCommandInvoker[overloads.length + 1];
+		System.arraycopy(overloads, 0, added, 0, overloads.length);
+		added[overloads.length] = invoker;
+		byArity[arity] = added;
+	}
+
+	/**
+	 * @return the first method, in declaration order, with as many
+	 * parameters as there are arguments and matching their types, or null
+	 */
+	public CCCommandInvoker find(Object[] arguments) {
+		if (arguments.length >= byArity.length || byArity[arguments.length] == null) {
+			return null;
+		}
+		for (CCCommandInvoker invoker : byArity[arguments.length]) {
+			if (invoker.argumentsMatch(arguments)) {
+				return invoker;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the error for arguments no method matches, listing all
+	 * signatures of the command
+	 */
+	public UnsupportedOperationException noSuchMethod() {
+		StringBuilder error = new StringBuilder();
+		error.append("No such method.");
+		boolean handled = false;
+		for (CCCommandInvoker invoker : invokers) {
+			if (handled) {
+				error.append("\n");
+			}
+			handled = true;
+			error.append(invoker.getMethod().getName());
+			error.append("(");
+			boolean a = false;
+			for (Class<?> clazz : invoker.getMethod().getParameterTypes()) {
+				if (a) {
+					error.append(", ");
+				}
+				error.append(clazz.getName());
+				a = true;
+			}
+			error.append(")");
+		}
+		return new UnsupportedOperationException(error.toString());
+	}
+}
@@ -3,6 +3,7 @@ package logisticspipes.proxy.computers.wrapper;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -173,12 +174,38 @@ public class CCObjectWrapper {
 					}
 					clazz = clazz.getSuperclass();
 				}
+				CCObjectWrapper.createInvokers(info);
 			}
 			CCObjectWrapper.ccMapings.put(wrappedClass, info);
 		}
 		return info;
 	}
 
+	/**
+	 * Resolves the methods of every command number and method name once, so
+	 * calls don't need to look at the methods and their annotations.
+	 */
+	private static void createInvokers(CCWrapperInformation info) {
+		Map<String, CCCommandOverloads> byLowerCaseName = new HashMap<>();
+		try {
+			for (Method method : info.commands.values()) {
+				byLowerCaseName.computeIfAbsent(method.getName().toLowerCase(Locale.ROOT), name -> new CCCommandOverloads()).add(new CCCommandInvoker(method));
+			}
+			if (info.securityMethod != null) {
+				info.securityCheck = new CCCommandInvoker(info.securityMethod);
+			}
+		} catch (IllegalAccessException e) {
+			throw new InternalError("Internal Excption (Code: 6)", e);
+		}
+		info.commandOverloads = new CCCommandOverloads[info.commandMap.size()];
+		for (int i = 0; i < info.commandOverloads.length; i++) {
+			info.commandOverloads[i] = byLowerCaseName.get(info.commandMap.get(i).toLowerCase(Locale.ROOT));
+		}
+		for (String name : info.commandTypes.keySet()) {
+			info.overloadsByName.put(name, byLowerCaseName.get(name.toLowerCase(Locale.ROOT)));
+		}
+	}
+
 	public static Object[] createArray(Object input) {
 		if (input instanceof Object[]) {
 			return (Object[]) input;
@@ -0,0 +1,100 @@
+package logisticspipes.proxy.computers.wrapper;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import logisticspipes.LogisticsPipes;
+
+import network.rs485.grow.TickExecutor;
+
+/**
+ * Runs the {@link logisticspipes.proxy.computers.interfaces.CCQueued} calls of
+ * computers on the server thread.
+ *
+ * All calls queued until the next tick of the global {@link TickExecutor} are
+ * run together by a single task of that tick, in the order they were queued.
+ * Every caller waits on the future of its own call, which is completed as soon
+ * as the call ran. Calls whose future was cancelled before their batch ran are
+ * skipped.
+ */
+public final class CCQueuedCalls {
+
+	/** how long a computer waits for its queued call */
+	public static final long TIMEOUT_MILLISECONDS = 2000L;
+
+	private static final ConcurrentLinkedQueue<QueuedCall> pending = new ConcurrentLinkedQueue<>();
+	private static final AtomicBoolean batchScheduled = new AtomicBoolean(false);
+
+	private CCQueuedCalls() {}
+
+	/**
+	 * Queues the call for the next batch.
+	 *
+	 * @return the future of the result of the call, completed exceptionally with
+	 * the exception thrown by the method
+	 */
+	public static CompletableFuture<Object> submit(CCCommandInvoker invoker, Object target, Object[] arguments) {
+		TickExecutor executor = LogisticsPipes.getGlobalTickExecutor();
+		if (executor == null || executor.isShutdown()) {
+			throw new IllegalStateException("Server is not running");
+		}
+		QueuedCall call = new QueuedCall(invoker, target, arguments);
+		CCQueuedCalls.pending.add(call);
+		if (CCQueuedCalls.batchScheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(CCQueuedCalls::runBatch);
+			} catch (IllegalStateException e) {
+				CCQueuedCalls.batchScheduled.set(false);
+				CCQueuedCalls.pending.remove(call);
+				throw e;
+			}
+		}
+		return call.future;
+	}
+
+	private static void runBatch() {
+		// calls queued from now on need a new batch, if this one doesn't take them anymore
+		CCQueuedCalls.batchScheduled.set(false);
+		QueuedCall call;
+		while ((call = CCQueuedCalls.pending.poll()) != null) {
+			call.run();
+		}
+	}
+
+	// called on server shutdown only
+	public static void clear() {
+		QueuedCall call;
+		while ((call = CCQueuedCalls.pending.poll()) != null) {
+			call.future.completeExceptionally(new CancellationException("Server stopped"));
+		}
+		CCQueuedCalls.batchScheduled.set(false);
+	}
+
+	private static class QueuedCall {
+
+		private final CCCommandInvoker invoker;
+		private final Object target;
+		private final Object[] arguments;
+		private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+		private QueuedCall(CCCommandInvoker invoker, Object target, Object[] arguments) {
+			this.invoker = invoker;
+			this.target = target;
+			this.arguments = arguments;
+		}
+
+		private void run() {
+			if (future.isDone()) {
+				// the computer stopped waiting
+				return;
+			}
+			try {
+				future.complete(invoker.invoke(target, arguments));
+			} catch (Exception e) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+}
@@ -15,4 +15,9 @@ public class CCWrapperInformation {
 	public Map<Integer, Method> commands = new LinkedHashMap<>();
 	public Map<String, Pair<Boolean, String>> commandTypes = new LinkedHashMap<>();
 	public Method securityMethod = null;
+	public CCCommandInvoker securityCheck = null;
+	/** the overloads called by every command number */
+	public CCCommandOverloads[] commandOverloads = new CCCommandOverloads[0];
+	/** the overloads called by every method name */
+	public Map<String, CCCommandOverloads> overloadsByName = new HashMap<>();
 }
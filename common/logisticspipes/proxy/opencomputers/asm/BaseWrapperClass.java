@@ -1,6 +1,5 @@
 package logisticspipes.proxy.opencomputers.asm;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +30,8 @@ import logisticspipes.proxy.computers.objects.CCItemIdentifier.CCItemIdentifierI
 import logisticspipes.proxy.computers.objects.CCItemIdentifierBuilder;
 import logisticspipes.proxy.computers.objects.CCItemIdentifierStack.CCItemIdentifierStackImplementation;
 import logisticspipes.proxy.computers.objects.LPGlobalCCAccess;
+import logisticspipes.proxy.computers.wrapper.CCCommandInvoker;
+import logisticspipes.proxy.computers.wrapper.CCCommandOverloads;
 import logisticspipes.proxy.computers.wrapper.CCObjectWrapper;
 import logisticspipes.proxy.computers.wrapper.CCWrapperInformation;
 import logisticspipes.proxy.computers.wrapper.ICommandWrapper;
@@ -259,96 +260,31 @@ public abstract class BaseWrapperClass extends AbstractValue {
 			}
 		}
 
-		Method match = null;
-		for (Method method : info.commands.values()) {
-			if (!method.getName().equalsIgnoreCase(methodName)) {
-				continue;
-			}
-			if (!argumentsMatch(method, arguments)) {
-				continue;
-			}
-			match = method;
-			break;
+		CCCommandOverloads overloads = info.overloadsByName.get(methodName);
+		if (overloads == null) {
+			throw new UnsupportedOperationException("Internal Excption (Code: 1, " + methodName + ")");
 		}
-
+		CCCommandInvoker match = overloads.find(arguments);
 		if (match == null) {
-			StringBuilder error = new StringBuilder();
-			error.append("No such method.");
-			boolean handled = false;
-			for (Method method : info.commands.values()) {
-				if (!method.getName().equalsIgnoreCase(methodName)) {
-					continue;
-				}
-				if (handled) {
-					error.append("\n");
-				}
-				handled = true;
-				error.append(method.getName());
-				error.append("(");
-				boolean a = false;
-				for (Class<?> clazz : method.getParameterTypes()) {
-					if (a) {
-						error.append(", ");
-					}
-					error.append(clazz.getName());
-					a = true;
-				}
-				error.append(")");
-			}
-			if (!handled) {
-				error = new StringBuilder();
-				error.append("Internal Excption (Code: 1, ");
-				error.append(methodName);
-				error.append(")");
-			}
-			throw new UnsupportedOperationException(error.toString());
+			throw overloads.noSuchMethod();
 		}
 
-		if (match.getAnnotation(CCDirectCall.class) != null) {
+		if (match.isDirectCall()) {
 			if (!isDirectCall) {
 				throw new PermissionException();
 			}
 		}
 
-		if (match.getAnnotation(CCCommand.class).needPermission()) {
-			if (info.securityMethod != null) {
-				try {
-					info.securityMethod.invoke(object);
-				} catch (InvocationTargetException e) {
-					if (e.getTargetException() instanceof Exception) {
-						throw (Exception) e.getTargetException();
-					}
-					throw e;
-				}
+		if (match.isNeedPermission()) {
+			if (info.securityCheck != null) {
+				info.securityCheck.invoke(object);
 			}
 		}
 
-		Object result;
-		try {
-			result = match.invoke(object, arguments);
-		} catch (InvocationTargetException e) {
-			if (e.getTargetException() instanceof Exception) {
-				throw (Exception) e.getTargetException();
-			}
-			throw e;
-		}
+		Object result = match.invoke(object, arguments);
 		return CCObjectWrapper.createArray(CCObjectWrapper.getWrappedObject(result, BaseWrapperClass.WRAPPER));
 	}
 
-	private boolean argumentsMatch(Method method, Object[] arguments) {
-		int i = 0;
-		for (Class<?> args : method.getParameterTypes()) {
-			if (arguments.length <= i) {
-				return false;
-			}
-			if (!args.isAssignableFrom(arguments[i].getClass())) {
-				return false;
-			}
-			i++;
-		}
-		return true;
-	}
-
 	public String getType() {
 		return info.type;
 	}
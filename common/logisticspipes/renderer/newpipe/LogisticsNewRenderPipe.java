@@ -618,7 +618,11 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 		} else {
 			renderState.forceRenderOldPipe = false;
 			boolean recalculateList = checkAndCalculateRenderCache(pipeTile);
-			renderList(x, y, z, renderState.renderLists, renderState.cachedRenderer, recalculateList);
+			if (renderState.cachedRenderer instanceof PipeRenderCache.CachedRenderList) {
+				renderSharedList(x, y, z, (PipeRenderCache.CachedRenderList) renderState.cachedRenderer);
+			} else {
+				renderList(x, y, z, renderState.renderLists, renderState.cachedRenderer, recalculateList);
+			}
 			if (recalculateList) {
 				pipeTile.getWorld().markBlockRangeForRenderUpdate(pipeTile.getPos(), pipeTile.getPos());
 			}
@@ -633,17 +637,24 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 		}
 
 		if (renderState.cachedRenderer == null) {
-			List<RenderEntry> objectsToRender = new ArrayList<>();
-
+			List<RenderEntry> normalPipe = Collections.emptyList();
 			if (pipeTile.pipe != null && pipeTile.pipe.actAsNormalPipe()) {
-				fillObjectsToRenderList(objectsToRender, pipeTile, renderState);
+				// identical pipes share their render list and everything computed from it
+				normalPipe = PipeRenderCache.getRenderList(createRenderKey(pipeTile, renderState), MainProxy.proxy.getRenderIndex(), key -> {
+					List<RenderEntry> objectsToRender = new ArrayList<>();
+					fillObjectsToRenderList(objectsToRender, key, pipeTile, renderState);
+					return objectsToRender;
+				});
 			}
+
+			renderState.cachedRenderIndex = MainProxy.proxy.getRenderIndex();
 			if (pipeTile.pipe != null && pipeTile.pipe.getSpecialRenderer() != null) {
+				List<RenderEntry> objectsToRender = new ArrayList<>(normalPipe);
 				pipeTile.pipe.getSpecialRenderer().renderToList(pipeTile.pipe, objectsToRender);
+				renderState.cachedRenderer = Collections.unmodifiableList(objectsToRender);
+			} else {
+				renderState.cachedRenderer = normalPipe;
 			}
-
-			renderState.cachedRenderIndex = MainProxy.proxy.getRenderIndex();
-			renderState.cachedRenderer = Collections.unmodifiableList(objectsToRender);
 			return true;
 		}
 		return false;
@@ -668,19 +679,45 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 				if (renderList.isFilled() && !recalculateList) {
 					continue;
 				}
-				renderList.startListCompile();
+				compileRenderList(renderList, entries.getValue());
+			}
+		}
+		drawRenderLists(x, y, z, renderLists);
+	}
+
+	private static void renderSharedList(double x, double y, double z, PipeRenderCache.CachedRenderList cachedRenderer) {
+		if (cachedRenderer.getGLEntries().isEmpty()) {
+			return;
+		}
+		Map<ResourceLocation, GLRenderList> renderLists = cachedRenderer.getRenderLists();
+		for (Entry<ResourceLocation, List<RenderEntry>> entries : cachedRenderer.getGLEntries().entrySet()) {
+			GLRenderList renderList = renderLists.get(entries.getKey());
+			if (renderList == null) {
+				renderList = SimpleServiceLocator.renderListHandler.getNewRenderList();
+				renderLists.put(entries.getKey(), renderList);
+			}
+			if (!renderList.isFilled()) {
+				compileRenderList(renderList, entries.getValue());
+			}
+		}
+		drawRenderLists(x, y, z, renderLists);
+	}
 
-				SimpleServiceLocator.cclProxy.getRenderState().reset();
-				SimpleServiceLocator.cclProxy.getRenderState().startDrawing(GL11.GL_QUADS, DefaultVertexFormats.OLDMODEL_POSITION_TEX_NORMAL);
+	private static void compileRenderList(GLRenderList renderList, List<RenderEntry> entries) {
+		renderList.startListCompile();
 
-				for (RenderEntry entry : entries.getValue()) {
-					entry.getModel().render(entry.getOperations());
-				}
+		SimpleServiceLocator.cclProxy.getRenderState().reset();
+		SimpleServiceLocator.cclProxy.getRenderState().startDrawing(GL11.GL_QUADS, DefaultVertexFormats.OLDMODEL_POSITION_TEX_NORMAL);
 
-				SimpleServiceLocator.cclProxy.getRenderState().draw();
-				renderList.stopCompile();
-			}
+		for (RenderEntry entry : entries) {
+			entry.getModel().render(entry.getOperations());
 		}
+
+		SimpleServiceLocator.cclProxy.getRenderState().draw();
+		renderList.stopCompile();
+	}
+
+	private static void drawRenderLists(double x, double y, double z, Map<ResourceLocation, GLRenderList> renderLists) {
 		if (!renderLists.isEmpty()) {
 			GL11.glPushMatrix();
 			GL11.glTranslated(x, y, z);
@@ -695,7 +732,47 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 		}
 	}
 
-	private static void fillObjectsToRenderList(List<RenderEntry> objectsToRender, LogisticsTileGenericPipe pipeTile, PipeRenderState renderState) {
+	/**
+	 * @return the key of everything the render list of the pipe as a normal
+	 * pipe is computed from, including the neighbors it reads from the world
+	 */
+	private static PipeRenderCache.Key createRenderKey(LogisticsTileGenericPipe pipeTile, PipeRenderState renderState) {
+		int specialPipeEnds = 0;
+		double[] sideBounds = new double[6];
+		int solidSides = 0;
+		for (EnumFacing dir : EnumFacing.VALUES) {
+			if (pipeTile.pipe.hasSpecialPipeEndAt(dir)) {
+				specialPipeEnds |= 1 << dir.ordinal();
+			} else if (renderState.pipeConnectionMatrix.isConnected(dir) && !renderState.pipeConnectionMatrix.isTDConnected(dir) && !renderState.pipeConnectionMatrix.isBCConnected(dir)) {
+				double[] bounds = { Block.FULL_BLOCK_AABB.minY, Block.FULL_BLOCK_AABB.minZ, Block.FULL_BLOCK_AABB.minX, Block.FULL_BLOCK_AABB.maxY, Block.FULL_BLOCK_AABB.maxZ, Block.FULL_BLOCK_AABB.maxX };
+				if (pipeTile.getWorld() != null) { //This can be null in some cases now !!!
+					DoubleCoordinates coords = CoordinateUtils.add(new DoubleCoordinates((TileEntity) pipeTile), dir);
+					Block block = coords.getBlock(pipeTile.getWorld());
+					AxisAlignedBB bb = block.getCollisionBoundingBox(coords.getBlockState(pipeTile.getWorld()), pipeTile.getWorld(), coords.getBlockPos());
+					if (bb == null) bb = Block.FULL_BLOCK_AABB;
+					bounds = new double[] { bb.minY, bb.minZ, bb.minX, bb.maxY, bb.maxZ, bb.maxX };
+					if (SimpleServiceLocator.enderIOProxy.isItemConduit(coords.getTileEntity(pipeTile.getWorld()), dir.getOpposite()) || SimpleServiceLocator.enderIOProxy.isFluidConduit(coords.getTileEntity(pipeTile.getWorld()), dir.getOpposite())) {
+						bounds = new double[] { 0.0249D, 0.0249D, 0.0249D, 0.9751D, 0.9751D, 0.9751D };
+					}
+				}
+				sideBounds[dir.ordinal()] = bounds[dir.ordinal() / 2 + (dir.ordinal() % 2 == 0 ? 3 : 0)];
+			}
+		}
+		boolean mountsAllowed = false;
+		if (pipeTile.getWorld() != null) { // This can be null in some cases now !!!
+			for (EnumFacing dir : EnumFacing.VALUES) {
+				DoubleCoordinates pos = CoordinateUtils.add(new DoubleCoordinates((TileEntity) pipeTile), dir);
+				Block blockSide = pos.getBlock(pipeTile.getWorld());
+				if (blockSide != null && blockSide.isSideSolid(pos.getBlockState(pipeTile.getWorld()), pipeTile.getWorld(), pos.getBlockPos(), dir.getOpposite()) && !renderState.pipeConnectionMatrix.isConnected(dir)) {
+					solidSides |= 1 << dir.ordinal();
+				}
+			}
+			mountsAllowed = !SimpleServiceLocator.mcmpProxy.hasParts(pipeTile);
+		}
+		return new PipeRenderCache.Key(renderState.pipeConnectionMatrix, renderState.textureMatrix, specialPipeEnds, sideBounds, solidSides, mountsAllowed);
+	}
+
+	private static void fillObjectsToRenderList(List<RenderEntry> objectsToRender, PipeRenderCache.Key key, LogisticsTileGenericPipe pipeTile, PipeRenderState renderState) {
 		List<Edge> edgesToRender = new ArrayList<>(Arrays.asList(Edge.values()));
 		Map<Corner, Integer> connectionAtCorner = new HashMap<>();
 		List<PipeMount> mountCanidates = new ArrayList<>(Arrays.asList(PipeMount.values()));
@@ -703,7 +780,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 		int connectionCount = 0;
 
 		for (EnumFacing dir : EnumFacing.VALUES) {
-			if (renderState.pipeConnectionMatrix.isConnected(dir) || pipeTile.pipe.hasSpecialPipeEndAt(dir)) {
+			if (renderState.pipeConnectionMatrix.isConnected(dir) || key.hasSpecialPipeEndAt(dir)) {
 				connectionCount++;
 				if (renderState.pipeConnectionMatrix.isTDConnected(dir) || renderState.pipeConnectionMatrix.isBCConnected(dir)) {
 					I3DOperation[] texture = new I3DOperation[] { LogisticsNewRenderPipe.basicPipeTexture };
@@ -721,7 +798,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 					for (IModel3D model : LogisticsNewRenderPipe.sideBC.get(dir)) {
 						objectsToRender.add(new RenderEntry(model, texture));
 					}
-				} else if (!pipeTile.pipe.hasSpecialPipeEndAt(dir)) {
+				} else if (!key.hasSpecialPipeEndAt(dir)) {
 					I3DOperation[] texture = new I3DOperation[] { LogisticsNewRenderPipe.basicPipeTexture };
 					if (renderState.textureMatrix.isRouted()) {
 						if (renderState.textureMatrix.isRoutedInDir(dir)) {
@@ -747,18 +824,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 						}
 					}
 					for (IModel3D model : LogisticsNewRenderPipe.sideNormal.get(dir)) {
-						double[] bounds = { Block.FULL_BLOCK_AABB.minY, Block.FULL_BLOCK_AABB.minZ, Block.FULL_BLOCK_AABB.minX, Block.FULL_BLOCK_AABB.maxY, Block.FULL_BLOCK_AABB.maxZ, Block.FULL_BLOCK_AABB.maxX };
-						if (pipeTile.getWorld() != null) { //This can be null in some cases now !!!
-							DoubleCoordinates coords = CoordinateUtils.add(new DoubleCoordinates((TileEntity) pipeTile), dir);
-							Block block = coords.getBlock(pipeTile.getWorld());
-							AxisAlignedBB bb = block.getCollisionBoundingBox(coords.getBlockState(pipeTile.getWorld()), pipeTile.getWorld(), coords.getBlockPos());
-							if (bb == null) bb = Block.FULL_BLOCK_AABB;
-							bounds = new double[] { bb.minY, bb.minZ, bb.minX, bb.maxY, bb.maxZ, bb.maxX };
-							if (SimpleServiceLocator.enderIOProxy.isItemConduit(coords.getTileEntity(pipeTile.getWorld()), dir.getOpposite()) || SimpleServiceLocator.enderIOProxy.isFluidConduit(coords.getTileEntity(pipeTile.getWorld()), dir.getOpposite())) {
-								bounds = new double[] { 0.0249D, 0.0249D, 0.0249D, 0.9751D, 0.9751D, 0.9751D };
-							}
-						}
-						double bound = bounds[dir.ordinal() / 2 + (dir.ordinal() % 2 == 0 ? 3 : 0)];
+						double bound = key.getSideBound(dir);
 						ScaleObject key = new ScaleObject(model, bound);
 						IModel3D model2 = LogisticsNewRenderPipe.scaleMap.get(key);
 						if (model2 == null) {
@@ -820,7 +886,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 					if (turn.corner != corner) {
 						continue;
 					}
-					if (renderState.pipeConnectionMatrix.isConnected(turn.getPointer()) || pipeTile.pipe.hasSpecialPipeEndAt(turn.getPointer())) {
+					if (renderState.pipeConnectionMatrix.isConnected(turn.getPointer()) || key.hasSpecialPipeEndAt(turn.getPointer())) {
 						objectsToRender.add(new RenderEntry(LogisticsNewRenderPipe.spacers.get(turn), cornerTexture));
 						break;
 					}
@@ -830,7 +896,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 					if (turn.corner != corner) {
 						continue;
 					}
-					if (!renderState.pipeConnectionMatrix.isConnected(turn.getPointer()) || pipeTile.pipe.hasSpecialPipeEndAt(turn.getPointer())) {
+					if (!renderState.pipeConnectionMatrix.isConnected(turn.getPointer()) || key.hasSpecialPipeEndAt(turn.getPointer())) {
 						objectsToRender.add(new RenderEntry(LogisticsNewRenderPipe.corners_I.get(turn), cornerTexture));
 						break;
 					}
@@ -885,27 +951,20 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 			}
 		}
 
-		boolean[] solidSides = new boolean[6];
-		if (pipeTile.getWorld() != null) { // This can be null in some cases now !!!
+		if (key.isMountsAllowed()) {
 			for (EnumFacing dir : EnumFacing.VALUES) {
-				DoubleCoordinates pos = CoordinateUtils.add(new DoubleCoordinates((TileEntity) pipeTile), dir);
-				Block blockSide = pos.getBlock(pipeTile.getWorld());
-				if (blockSide == null || !blockSide.isSideSolid(pos.getBlockState(pipeTile.getWorld()), pipeTile.getWorld(), pos.getBlockPos(), dir.getOpposite()) || renderState.pipeConnectionMatrix.isConnected(dir)) {
+				if (!key.isSolidSide(dir)) {
 					mountCanidates.removeIf(mount -> mount.dir == dir);
-				} else {
-					solidSides[dir.ordinal()] = true;
 				}
 			}
-
-			mountCanidates.removeIf(mount -> SimpleServiceLocator.mcmpProxy.hasParts(pipeTile));
 		} else {
 			mountCanidates.clear();
 		}
 
 		if (!mountCanidates.isEmpty()) {
-			if (solidSides[EnumFacing.DOWN.ordinal()]) {
+			if (key.isSolidSide(EnumFacing.DOWN)) {
 				findOponentOnSameSide(mountCanidates, EnumFacing.DOWN);
-			} else if (solidSides[EnumFacing.UP.ordinal()]) {
+			} else if (key.isSolidSide(EnumFacing.UP)) {
 				findOponentOnSameSide(mountCanidates, EnumFacing.UP);
 			} else {
 				removeFromSide(mountCanidates, EnumFacing.DOWN);
@@ -1149,6 +1208,13 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 	}
 
 	public List<BakedQuad> getQuadsFromRenderList(List<RenderEntry> renderEntryList, VertexFormat format, boolean skipNonBlockTextures) {
+		if (renderEntryList instanceof PipeRenderCache.CachedRenderList) {
+			return ((PipeRenderCache.CachedRenderList) renderEntryList).getQuads(format, entries -> bakeQuads(entries, format));
+		}
+		return bakeQuads(renderEntryList, format);
+	}
+
+	private List<BakedQuad> bakeQuads(List<RenderEntry> renderEntryList, VertexFormat format) {
 		List<BakedQuad> quads = Lists.newArrayList();
 		for (RenderEntry model : renderEntryList) {
 			ResourceLocation texture = model.getTexture();
@@ -1171,7 +1237,7 @@ public class LogisticsNewRenderPipe implements IHighlightPlacementRenderer {
 		if (pipeFrameRenderList.isEmpty()) {
 			LogisticsTileGenericPipe pipe = new LogisticsTileGenericPipe();
 			pipe.pipe = new PipeItemsBasicLogistics(null);
-			fillObjectsToRenderList(pipeFrameRenderList, pipe, pipe.renderState);
+			fillObjectsToRenderList(pipeFrameRenderList, createRenderKey(pipe, pipe.renderState), pipe, pipe.renderState);
 		}
 		return pipeFrameRenderList;
 	}
@@ -0,0 +1,201 @@
+package logisticspipes.renderer.newpipe;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+
+import logisticspipes.renderer.state.ConnectionMatrix;
+import logisticspipes.renderer.state.TextureMatrix;
+
+/**
+ * Shares the geometry of pipes rendered the same way. The render list of a pipe
+ * is looked up by a {@link Key} of everything it is computed from, and the
+ * baked quads and display lists are kept with the shared list, so identical
+ * pipes only compute them once.
+ *
+ * The least recently used lists are dropped once there are more than
+ * {@link #MAX_ENTRIES}, and all of them when the render index changes.
+ */
+class PipeRenderCache {
+
+	private static final int MAX_ENTRIES = 512;
+
+	private static final Map<Key, CachedRenderList> cache = new LinkedHashMap<Key, CachedRenderList>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, CachedRenderList> eldest) {
+			return size() > PipeRenderCache.MAX_ENTRIES;
+		}
+	};
+	private static int cacheRenderIndex = -1;
+
+	private PipeRenderCache() {}
+
+	static synchronized CachedRenderList getRenderList(Key key, int renderIndex, Function<Key, List<RenderEntry>> builder) {
+		if (PipeRenderCache.cacheRenderIndex != renderIndex) {
+			PipeRenderCache.cache.clear();
+			PipeRenderCache.cacheRenderIndex = renderIndex;
+		}
+		CachedRenderList list = PipeRenderCache.cache.get(key);
+		if (list == null) {
+			list = new CachedRenderList(builder.apply(key));
+			PipeRenderCache.cache.put(key, list);
+		}
+		return list;
+	}
+
+	/**
+	 * Everything the render list of a normal pipe depends on.
+	 */
+	static class Key {
+
+		private final int connections;
+		private final int textureIndex;
+		private final int textureState;
+		private final double[] sideBounds;
+		private final int solidSides;
+		private final boolean mountsAllowed;
+		private final int hash;
+
+		/**
+		 * @param specialPipeEnds mask of the sides with a special pipe end
+		 * @param sideBounds the bound of the neighbor on every side with a
+		 *                   normal connection, 0 on all other sides
+		 * @param solidSides mask of the unconnected sides with a solid neighbor
+		 */
+		Key(ConnectionMatrix connectionMatrix, TextureMatrix textureMatrix, int specialPipeEnds, double[] sideBounds, int solidSides, boolean mountsAllowed) {
+			int bcConnected = 0;
+			int tdConnected = 0;
+			int routedInDir = 0;
+			int subPowerInDir = 0;
+			for (EnumFacing dir : EnumFacing.VALUES) {
+				int bit = 1 << dir.ordinal();
+				if (connectionMatrix.isBCConnected(dir)) {
+					bcConnected |= bit;
+				}
+				if (connectionMatrix.isTDConnected(dir)) {
+					tdConnected |= bit;
+				}
+				if (textureMatrix.isRoutedInDir(dir)) {
+					routedInDir |= bit;
+				}
+				if (textureMatrix.isSubPowerInDir(dir)) {
+					subPowerInDir |= bit;
+				}
+			}
+			connections = connectionMatrix.getMask() & 0x3F | bcConnected << 6 | tdConnected << 12 | specialPipeEnds << 18;
+			textureIndex = textureMatrix.getTextureIndex();
+			EnumFacing pointed = textureMatrix.getPointedOrientation();
+			textureState = routedInDir | subPowerInDir << 6 | (pointed == null ? 0 : pointed.ordinal() + 1) << 12
+					| (textureMatrix.isRouted() ? 1 << 16 : 0) | (textureMatrix.isHasPowerUpgrade() ? 1 << 17 : 0)
+					| (textureMatrix.isHasPower() ? 1 << 18 : 0) | (textureMatrix.isFluid() ? 1 << 19 : 0);
+			this.sideBounds = sideBounds;
+			this.solidSides = solidSides;
+			this.mountsAllowed = mountsAllowed;
+			int h = connections;
+			h = 31 * h + textureIndex;
+			h = 31 * h + textureState;
+			h = 31 * h + Arrays.hashCode(sideBounds);
+			h = 31 * h + solidSides;
+			hash = 31 * h + (mountsAllowed ? 1 : 0);
+		}
+
+		boolean hasSpecialPipeEndAt(EnumFacing dir) {
+			return (connections & 1 << 18 + dir.ordinal()) != 0;
+		}
+
+		double getSideBound(EnumFacing dir) {
+			return sideBounds[dir.ordinal()];
+		}
+
+		boolean isSolidSide(EnumFacing dir) {
+			return (solidSides & 1 << dir.ordinal()) != 0;
+		}
+
+		boolean isMountsAllowed() {
+			return mountsAllowed;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && connections == other.connections && textureIndex == other.textureIndex && textureState == other.textureState
+					&& solidSides == other.solidSides && mountsAllowed == other.mountsAllowed && Arrays.equals(sideBounds, other.sideBounds);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * An unmodifiable render list shared by all pipes with the same key,
+	 * together with its baked quads and display lists.
+	 */
+	static class CachedRenderList extends AbstractList<RenderEntry> {
+
+		private final List<RenderEntry> entries;
+		/** the entries which aren't part of the block model, by texture */
+		private final Map<ResourceLocation, List<RenderEntry>> glEntries = new HashMap<>();
+		/** only used from the render thread */
+		private final Map<ResourceLocation, GLRenderList> renderLists = new HashMap<>();
+		private List<BakedQuad> quads = null;
+		private VertexFormat quadsFormat = null;
+
+		private CachedRenderList(List<RenderEntry> entries) {
+			this.entries = Collections.unmodifiableList(entries);
+			for (RenderEntry entry : entries) {
+				if (!entry.getTexture().equals(TextureMap.LOCATION_BLOCKS_TEXTURE)) {
+					glEntries.computeIfAbsent(entry.getTexture(), key -> new LinkedList<>()).add(entry);
+				}
+			}
+		}
+
+		@Override
+		public RenderEntry get(int index) {
+			return entries.get(index);
+		}
+
+		@Override
+		public int size() {
+			return entries.size();
+		}
+
+		synchronized List<BakedQuad> getQuads(VertexFormat format, Function<List<RenderEntry>, List<BakedQuad>> baker) {
+			if (quads == null || quadsFormat != format) {
+				quads = baker.apply(entries);
+				quadsFormat = format;
+			}
+			return quads;
+		}
+
+		Map<ResourceLocation, List<RenderEntry>> getGLEntries() {
+			return glEntries;
+		}
+
+		/**
+		 * @return the display lists of this render list, without the ones
+		 * removed for not being used
+		 */
+		Map<ResourceLocation, GLRenderList> getRenderLists() {
+			renderLists.values().removeIf(GLRenderList::isInvalid);
+			return renderLists;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package logisticspipes.request;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -9,6 +10,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import net.minecraft.entity.player.EntityPlayer;
@@ -17,22 +22,28 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.text.TextComponentTranslation;
 
+import logisticspipes.LogisticsPipes;
+import logisticspipes.config.Configs;
 import logisticspipes.interfaces.IRequestWatcher;
 import logisticspipes.interfaces.routing.IRequestFluid;
 import logisticspipes.network.PacketHandler;
 import logisticspipes.network.packets.orderer.ComponentList;
 import logisticspipes.network.packets.orderer.MissingItems;
 import logisticspipes.network.packets.orderer.OrdererContent;
+import logisticspipes.network.packets.orderer.OrdererContentChanges;
+import logisticspipes.network.packets.orderer.RequestPlanning;
 import logisticspipes.pipes.basic.CoreRoutedPipe;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.request.RequestTree.ActiveRequestType;
 import logisticspipes.request.resources.IResource;
+import logisticspipes.request.resources.ItemResource;
 import logisticspipes.routing.order.LinkedLogisticsOrderList;
 import logisticspipes.utils.FluidIdentifier;
 import logisticspipes.utils.FluidIdentifierStack;
 import logisticspipes.utils.item.ItemIdentifier;
 import logisticspipes.utils.item.ItemIdentifierStack;
+import network.rs485.grow.TickExecutor;
 
 public class RequestHandler {
 
@@ -42,12 +53,121 @@ public class RequestHandler {
 		CraftOnly
 	}
 
+	// a failed revalidation is planned again this often before planning on the server thread
+	private static final int MAX_PLANNING_ATTEMPTS = 3;
+
+	private static ExecutorService planningExecutor;
+	// the snapshot of the last simulation of every player, reused by the following request
+	private static final Map<EntityPlayer, SnapshotRequestMemo> simulations = new WeakHashMap<>();
+	// the orderer content last sent to every player
+	private static final Map<EntityPlayer, OrdererView> ordererViews = new WeakHashMap<>();
+	private static int lastContentVersion = 0;
+
+	/**
+	 * Requests the stack for the player. With deferred request planning the
+	 * player is told that the request is being planned, the request tree is
+	 * built on the planning thread against a snapshot of the network, and the
+	 * result is committed on one of the next ticks if its promises still hold.
+	 */
 	public static void request(final EntityPlayer player, final ItemIdentifierStack stack, final CoreRoutedPipe pipe) {
+		TickExecutor executor = LogisticsPipes.getGlobalTickExecutor();
+		if (!Configs.DEFERRED_REQUEST_PLANNING || executor == null) {
+			RequestHandler.requestNow(player, stack, pipe);
+			return;
+		}
 		if (!pipe.useEnergy(5)) {
 			player.sendMessage(new TextComponentTranslation("lp.misc.noenergy"));
 			return;
 		}
-		RequestTree.request(stack.clone(), pipe, new RequestLog() {
+		MainProxy.sendPacketToPlayer(PacketHandler.getPacket(RequestPlanning.class).setPlanning(true), player);
+		SnapshotRequestMemo simulation = RequestHandler.simulations.remove(player);
+		if (simulation != null && !simulation.isCurrentFor(pipe.getRouter())) {
+			simulation = null;
+		}
+		RequestHandler.planRequest(player, stack, pipe, executor, 1, simulation);
+	}
+
+	private static void planRequest(final EntityPlayer player, final ItemIdentifierStack stack, final CoreRoutedPipe pipe, final TickExecutor executor, final int attempt, SnapshotRequestMemo reusedSnapshot) {
+		final SnapshotRequestMemo snapshot = reusedSnapshot != null ? reusedSnapshot : SnapshotRequestMemo.capture(pipe.getRouter());
+		final ItemResource resource = new ItemResource(stack.clone(), pipe);
+		CompletableFuture.supplyAsync(() -> new RequestTree(resource, RequestTree.defaultRequestFlags, null, snapshot), RequestHandler.getPlanningExecutor())
+				.whenCompleteAsync((tree, error) -> {
+					try {
+						if (error != null) {
+							LogisticsPipes.log.error("Could not plan the request of " + stack, error);
+						}
+						RequestHandler.commitRequest(player, stack, pipe, executor, attempt, snapshot, error == null ? tree : null);
+					} catch (Exception e) {
+						e.printStackTrace();
+						MainProxy.sendPacketToPlayer(PacketHandler.getPacket(RequestPlanning.class).setPlanning(false), player);
+					}
+				}, executor);
+	}
+
+	/**
+	 * Commits the planned request on the server thread. A plan whose promises
+	 * went stale is planned again, the request is planned on the server thread
+	 * if that keeps failing or if a failed plan might have succeeded with the
+	 * parts of the network the snapshot doesn't hold.
+	 */
+	private static void commitRequest(EntityPlayer player, ItemIdentifierStack stack, CoreRoutedPipe pipe, TickExecutor executor, int attempt, SnapshotRequestMemo snapshot, RequestTree tree) {
+		// the pipe might be gone by now
+		if (pipe.container == null || pipe.container.isInvalid()) {
+			MainProxy.sendPacketToPlayer(PacketHandler.getPacket(RequestPlanning.class).setPlanning(false), player);
+			return;
+		}
+		RequestLog log = RequestHandler.createRequestLog(player, pipe);
+		if (tree == null) {
+			RequestTree.request(stack.clone(), pipe, log, null);
+		} else if (tree.isDone()) {
+			if (snapshot.isStillValid(tree)) {
+				LinkedLogisticsOrderList list = tree.fullFillAll();
+				log.handleSucessfullRequestOf(tree.getRequestType().copyForDisplayWith(stack.getStackSize()), list);
+			} else if (attempt < RequestHandler.MAX_PLANNING_ATTEMPTS) {
+				RequestHandler.planRequest(player, stack, pipe, executor, attempt + 1, null);
+				return;
+			} else {
+				RequestTree.request(stack.clone(), pipe, log, null);
+			}
+		} else if (snapshot.isExact()) {
+			tree.recurseFailedRequestTree();
+			tree.sendMissingMessage(log);
+		} else {
+			RequestTree.request(stack.clone(), pipe, log, null);
+		}
+		MainProxy.sendPacketToPlayer(PacketHandler.getPacket(RequestPlanning.class).setPlanning(false), player);
+	}
+
+	private static synchronized ExecutorService getPlanningExecutor() {
+		if (RequestHandler.planningExecutor == null) {
+			RequestHandler.planningExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "LogisticsPipes Request Planning");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return RequestHandler.planningExecutor;
+	}
+
+	// called on server shutdown only
+	public static synchronized void clearPendingRequests() {
+		RequestHandler.simulations.clear();
+		if (RequestHandler.planningExecutor != null) {
+			RequestHandler.planningExecutor.shutdownNow();
+			RequestHandler.planningExecutor = null;
+		}
+	}
+
+	private static void requestNow(final EntityPlayer player, final ItemIdentifierStack stack, final CoreRoutedPipe pipe) {
+		if (!pipe.useEnergy(5)) {
+			player.sendMessage(new TextComponentTranslation("lp.misc.noenergy"));
+			return;
+		}
+		RequestTree.request(stack.clone(), pipe, RequestHandler.createRequestLog(player, pipe), null);
+	}
+
+	private static RequestLog createRequestLog(final EntityPlayer player, final CoreRoutedPipe pipe) {
+		return new RequestLog() {
 
 			@Override
 			public void handleMissingItems(List<IResource> resources) {
@@ -66,13 +186,19 @@ public class RequestHandler {
 
 			@Override
 			public void handleSucessfullRequestOfList(List<IResource> resources, LinkedLogisticsOrderList parts) {}
-		}, null);
+		};
 	}
 
+	/**
+	 * Sends the player the components the request of the stack would use and
+	 * miss. With deferred request planning the simulation is planned against
+	 * a snapshot of the network, which the following request of the player
+	 * reuses while it is current.
+	 */
 	public static void simulate(final EntityPlayer player, final ItemIdentifierStack stack, CoreRoutedPipe pipe) {
 		final List<IResource> usedList = new ArrayList<>();
 		final List<IResource> missingList = new ArrayList<>();
-		RequestTree.simulate(stack.clone(), pipe, new RequestLog() {
+		RequestLog log = new RequestLog() {
 
 			@Override
 			public void handleMissingItems(List<IResource> resources) {
@@ -86,13 +212,36 @@ public class RequestHandler {
 			public void handleSucessfullRequestOfList(List<IResource> resources, LinkedLogisticsOrderList parts) {
 				usedList.addAll(resources);
 			}
-		});
+		};
+		SnapshotRequestMemo snapshot = null;
+		if (Configs.DEFERRED_REQUEST_PLANNING) {
+			snapshot = SnapshotRequestMemo.capture(pipe.getRouter());
+			int simulated = RequestTree.simulate(stack.clone(), pipe, log, snapshot);
+			if (simulated < stack.getStackSize() && !snapshot.isExact()) {
+				// the snapshot might be missing what the request needs
+				usedList.clear();
+				missingList.clear();
+				snapshot = null;
+			}
+		}
+		if (snapshot != null) {
+			RequestHandler.simulations.put(player, snapshot);
+		} else {
+			RequestHandler.simulations.remove(player);
+			RequestTree.simulate(stack.clone(), pipe, log);
+		}
 		MainProxy.sendPacketToPlayer(PacketHandler.getPacket(ComponentList.class).setUsed(usedList).setMissing(missingList), player);
 	}
 
-	public static void refresh(EntityPlayer player, CoreRoutedPipe pipe, DisplayOptions option) {
+	/**
+	 * Sends the player the changes of the items available and craftable at
+	 * the pipe since the content version the player knows. Everything is sent
+	 * if the player knows another version than the last one sent, e.g. after
+	 * opening the gui or changing the display options.
+	 */
+	public static void refresh(EntityPlayer player, CoreRoutedPipe pipe, DisplayOptions option, int knownVersion) {
 		Map<ItemIdentifier, Integer> _availableItems;
-		LinkedList<ItemIdentifier> _craftableItems;
+		List<ItemIdentifier> _craftableItems;
 
 		if (option == DisplayOptions.SupplyOnly || option == DisplayOptions.Both) {
 			_availableItems = SimpleServiceLocator.logisticsManager.getAvailableItems(pipe.getRouter().getIRoutersByCost());
@@ -100,24 +249,50 @@ public class RequestHandler {
 			_availableItems = new HashMap<>();
 		}
 		if (option == DisplayOptions.CraftOnly || option == DisplayOptions.Both) {
-			_craftableItems = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter().getIRoutersByCost());
+			_craftableItems = SimpleServiceLocator.logisticsManager.getCraftableItems(pipe.getRouter());
 		} else {
-			_craftableItems = new LinkedList<>();
+			_craftableItems = Collections.emptyList();
+		}
+		Map<ItemIdentifier, Integer> content = new HashMap<>(_availableItems);
+		for (ItemIdentifier item : _craftableItems) {
+			content.putIfAbsent(item, 0);
 		}
-		TreeSet<ItemIdentifierStack> _allItems = new TreeSet<>();
 
-		for (Entry<ItemIdentifier, Integer> item : _availableItems.entrySet()) {
-			ItemIdentifierStack newStack = item.getKey().makeStack(item.getValue());
-			_allItems.add(newStack);
+		int routerId = pipe.getRouter().getSimpleID();
+		OrdererView view = RequestHandler.ordererViews.get(player);
+		if (view == null || view.routerId != routerId || view.option != option || view.version != knownVersion) {
+			view = new OrdererView(routerId, option);
+			RequestHandler.ordererViews.put(player, view);
 		}
 
-		for (ItemIdentifier item : _craftableItems) {
-			if (_availableItems.containsKey(item)) {
-				continue;
+		List<ItemIdentifierStack> changed = new ArrayList<>();
+		for (Entry<ItemIdentifier, Integer> item : content.entrySet()) {
+			if (!item.getValue().equals(view.content.get(item.getKey()))) {
+				changed.add(item.getKey().makeStack(item.getValue()));
 			}
-			_allItems.add(item.makeStack(0));
 		}
-		MainProxy.sendPacketToPlayer(PacketHandler.getPacket(OrdererContent.class).setIdentSet(_allItems), player);
+		List<ItemIdentifier> removed = view.content.keySet().stream()
+				.filter(item -> !content.containsKey(item))
+				.collect(Collectors.toList());
+		if (view.version != 0 && changed.isEmpty() && removed.isEmpty()) {
+			return;
+		}
+
+		int baseVersion = view.version;
+		view.version = RequestHandler.nextContentVersion();
+		view.content = content;
+		MainProxy.sendPacketToPlayer(PacketHandler.getPacket(OrdererContentChanges.class)
+				.setBaseVersion(baseVersion)
+				.setVersion(view.version)
+				.setChanged(changed)
+				.setRemoved(removed), player);
+	}
+
+	private static int nextContentVersion() {
+		if (++RequestHandler.lastContentVersion <= 0) {
+			RequestHandler.lastContentVersion = 1;
+		}
+		return RequestHandler.lastContentVersion;
 	}
 
 	public static void requestList(final EntityPlayer player, final List<ItemIdentifierStack> list, final CoreRoutedPipe pipe) {
@@ -250,4 +425,17 @@ public class RequestHandler {
 			public void handleSucessfullRequestOfList(List<IResource> resources, LinkedLogisticsOrderList parts) {}
 		});
 	}
+
+	private static class OrdererView {
+
+		private final int routerId;
+		private final DisplayOptions option;
+		private int version = 0;
+		private Map<ItemIdentifier, Integer> content = Collections.emptyMap();
+
+		private OrdererView(int routerId, DisplayOptions option) {
+			this.routerId = routerId;
+			this.option = option;
+		}
+	}
 }
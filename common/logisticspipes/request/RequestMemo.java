@@ -0,0 +1,232 @@
+package logisticspipes.request;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import logisticspipes.interfaces.routing.ICraft;
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.interfaces.routing.IProvide;
+import logisticspipes.pipes.basic.CoreRoutedPipe;
+import logisticspipes.proxy.SimpleServiceLocator;
+import logisticspipes.request.RequestTree.workWeightedSorter;
+import logisticspipes.request.resources.DictResource;
+import logisticspipes.request.resources.FluidResource;
+import logisticspipes.request.resources.IResource;
+import logisticspipes.request.resources.ItemResource;
+import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.PipeRoutingConnectionType;
+import logisticspipes.routing.ServerRouter;
+import logisticspipes.utils.tuples.Pair;
+
+/**
+ * Memo table for the planning of one request tree, keyed by the requesting
+ * router and the requested resource regardless of its amount.
+ *
+ * The routes to all routers interested in a resource and the sorted provider
+ * and crafter candidates are only kept for one tree, as they depend on the
+ * routing tables, the load of the pipes and the crafter configuration. Nothing
+ * outlives the tree, so no router is held after it was removed.
+ *
+ * Every read of the network the tree does goes through this class. This one
+ * reads the world and is only to be used from the server thread,
+ * {@link SnapshotRequestMemo} reads a copy which can be planned against on
+ * another thread, and which a request may take over from the simulation
+ * before it while the network didn't change.
+ */
+class RequestMemo {
+
+	private final Map<Pair<IRouter, Object>, List<ExitRoute>> sources = new HashMap<>();
+	private final Map<Pair<IRouter, Object>, List<Pair<IProvide, List<IFilter>>>> providers = new HashMap<>();
+	private final Map<Pair<IRouter, Object>, List<Pair<ICraftingTemplate, List<IFilter>>>> crafters = new HashMap<>();
+
+	/**
+	 * @return the providers the destination can request the resource from,
+	 * closer providers first
+	 */
+	List<Pair<IProvide, List<IFilter>>> getProviders(IRouter destination, IResource item) {
+		Pair<IRouter, Object> key = RequestMemo.getKey(destination, item);
+		List<Pair<IProvide, List<IFilter>>> result = key == null ? null : providers.get(key);
+		if (result == null) {
+			List<ExitRoute> validSources = new ArrayList<>(getSources(destination, item, key));
+			// closer providers are good
+			validSources.sort(getSorter(1.0));
+
+			result = new LinkedList<>();
+			for (ExitRoute r : validSources) {
+				if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
+					continue;
+				}
+				IProvide provider = getProvider(r.destination);
+				if (provider != null) {
+					result.add(new Pair<>(provider, new LinkedList<>(r.filters)));
+				}
+			}
+			if (key != null) {
+				providers.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the crafting templates of all crafters the destination can
+	 * request the resource from, ordered by priority and load
+	 */
+	List<Pair<ICraftingTemplate, List<IFilter>>> getCrafters(IRouter destination, IResource item) {
+		Pair<IRouter, Object> key = RequestMemo.getKey(destination, item);
+		List<Pair<ICraftingTemplate, List<IFilter>>> result = key == null ? null : crafters.get(key);
+		if (result == null) {
+			List<ExitRoute> validSources = new ArrayList<>(getCrafterSources(destination, item, key));
+			// distance doesn't matter, because ingredients have to be delivered to the crafter, and we can't tell how long that will take.
+			validSources.sort(getSorter(0));
+
+			result = new ArrayList<>(validSources.size());
+			outer:
+			for (ExitRoute r : validSources) {
+				if (!r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
+					continue;
+				}
+				ICraftingTemplate craftable = getCraftingTemplate(r.destination, item);
+				if (craftable == null) {
+					continue;
+				}
+				for (IFilter filter : r.filters) {
+					if (filter.isBlocked() == filter.isFilteredItem(craftable.getResultItem()) || filter.blockCrafting()) {
+						continue outer;
+					}
+				}
+				result.add(new Pair<>(craftable, new LinkedList<>(r.filters)));
+			}
+			if (key != null) {
+				crafters.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return all routes from the destination to routers with a valid pipe
+	 * which are interested in the resource
+	 */
+	List<ExitRoute> getSources(IRouter destination, IResource item, Pair<IRouter, Object> key) {
+		List<ExitRoute> result = key == null ? null : sources.get(key);
+		if (result == null) {
+			List<ExitRoute> validSources = new ArrayList<>();
+			for (IRouter r : getInterestedRouters(item)) {
+				validSources.addAll(getRoutes(destination, r));
+			}
+			result = Collections.unmodifiableList(validSources);
+			if (key != null) {
+				sources.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the routes from the destination to all routers which might
+	 * craft the resource
+	 */
+	protected List<ExitRoute> getCrafterSources(IRouter destination, IResource item, Pair<IRouter, Object> key) {
+		if (item instanceof ItemResource) {
+			// crafters of an exact item are indexed network-wide, with their route filters applied
+			return SimpleServiceLocator.logisticsManager.getCrafterRoutes(destination, ((ItemResource) item).getItem());
+		}
+		return getSources(destination, item, key);
+	}
+
+	/**
+	 * @return all routers with a valid pipe which are interested in the
+	 * resource
+	 */
+	protected List<IRouter> getInterestedRouters(IResource item) {
+		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(item);
+		List<IRouter> result = new ArrayList<>(routersIndex.cardinality());
+		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
+			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
+
+			if (r == null || !r.isValidCache()) {
+				continue; //Skip Routers without a valid pipe
+			}
+			result.add(r);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the routes from one router to another, closest first
+	 */
+	protected List<ExitRoute> getRoutes(IRouter from, IRouter to) {
+		List<ExitRoute> routes = from.getDistanceTo(to);
+		return routes != null ? routes : Collections.emptyList();
+	}
+
+	protected IProvide getProvider(IRouter router) {
+		CoreRoutedPipe pipe = router.getPipe();
+		return pipe instanceof IProvide ? (IProvide) pipe : null;
+	}
+
+	protected ICraftingTemplate getCraftingTemplate(IRouter router, IResource item) {
+		CoreRoutedPipe pipe = router.getPipe();
+		return pipe instanceof ICraft ? ((ICraft) pipe).addCrafting(item) : null;
+	}
+
+	protected Comparator<ExitRoute> getSorter(double distanceWeight) {
+		return new workWeightedSorter(distanceWeight);
+	}
+
+	/**
+	 * @return true if the provider may send items to the destination, which it
+	 * must not if both pull from the same inventory
+	 */
+	boolean canProvideTo(IProvide provider, IRouter destination) {
+		CoreRoutedPipe thisPipe = destination.getCachedPipe();
+		if (thisPipe == null) {
+			return false;
+		}
+		if (provider == null || provider.getRouter() == null || provider.getRouter().getPipe() == null) {
+			return false;
+		}
+		return !thisPipe.sharesInterestWith(provider.getRouter().getPipe());
+	}
+
+	/**
+	 * @return true if the extras of the provider can be sent to and requested
+	 * by the destination
+	 */
+	boolean canRequestExtra(IRouter provider, IRouter destination) {
+		boolean canRouteTo = getRoutes(provider, destination).stream()
+				.anyMatch(route -> route.containsFlag(PipeRoutingConnectionType.canRouteTo));
+		return canRouteTo && getRoutes(destination, provider).stream()
+				.anyMatch(route -> route.containsFlag(PipeRoutingConnectionType.canRequestFrom));
+	}
+
+	int getTodo(ICraft crafter) {
+		return crafter.getTodo();
+	}
+
+	/**
+	 * @return the key for the resource requested by the destination, ignoring
+	 * the amount, or null if the resource can't be memoized
+	 */
+	private static Pair<IRouter, Object> getKey(IRouter destination, IResource item) {
+		Object resourceKey;
+		if (item instanceof ItemResource) {
+			resourceKey = ((ItemResource) item).getItem();
+		} else if (item instanceof FluidResource) {
+			resourceKey = ((FluidResource) item).getFluid();
+		} else if (item instanceof DictResource) {
+			resourceKey = ((DictResource) item).getIdentifier();
+		} else {
+			return null;
+		}
+		return new Pair<>(destination, resourceKey);
+	}
+}
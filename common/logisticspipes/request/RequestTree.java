@@ -18,6 +18,7 @@ import logisticspipes.request.resources.FluidResource;
 import logisticspipes.request.resources.IResource;
 import logisticspipes.request.resources.ItemResource;
 import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
 import logisticspipes.routing.order.LinkedLogisticsOrderList;
 import logisticspipes.utils.FinalPair;
 import logisticspipes.utils.FluidIdentifier;
@@ -43,6 +44,14 @@ public class RequestTree extends RequestTreeNode {
 		super(requestType, parent, requestFlags, info);
 	}
 
+	/**
+	 * Plans the request with the given memo, e.g. one which reads a snapshot
+	 * of the network instead of the world, or with a new one if it is null.
+	 */
+	RequestTree(IResource requestType, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info, RequestMemo memo) {
+		super(requestType, requestFlags, info, memo);
+	}
+
 	private int getExistingPromisesFor(FinalPair<IProvide, ItemIdentifier> key) {
 		if (_promisetotals == null) {
 			_promisetotals = new HashMap<>();
@@ -115,9 +124,11 @@ public class RequestTree extends RequestTreeNode {
 		@Override
 		public int compare(ExitRoute o1, ExitRoute o2) {
 			int c;
-			if (o1.destination.getPipe() instanceof IHavePriority) {
-				if (o2.destination.getPipe() instanceof IHavePriority) {
-					c = ((IHavePriority) o2.destination.getCachedPipe()).getPriority() - ((IHavePriority) o1.destination.getCachedPipe()).getPriority();
+			Integer priority1 = getPriority(o1.destination);
+			Integer priority2 = getPriority(o2.destination);
+			if (priority1 != null) {
+				if (priority2 != null) {
+					c = priority2 - priority1;
 					if (c != 0) {
 						return c;
 					}
@@ -125,19 +136,33 @@ public class RequestTree extends RequestTreeNode {
 					return -1;
 				}
 			} else {
-				if (o2.destination.getPipe() instanceof IHavePriority) {
+				if (priority2 != null) {
 					return 1;
 				}
 			}
 
 			//GetLoadFactor*64 should be an integer anyway.
-			c = (int) Math.floor(o1.destination.getCachedPipe().getLoadFactor() * 64) - (int) Math.floor(o2.destination.getCachedPipe().getLoadFactor() * 64);
+			c = (int) Math.floor(getLoadFactor(o1.destination) * 64) - (int) Math.floor(getLoadFactor(o2.destination) * 64);
 			if (distanceWeight != 0) {
 				c += (int) (Math.floor(o1.distanceToDestination * 64) - (int) Math.floor(o2.distanceToDestination * 64)) * distanceWeight;
 			}
 			return c;
 		}
 
+		/**
+		 * @return the priority of the router's pipe, or null if it has none
+		 */
+		protected Integer getPriority(IRouter router) {
+			if (router.getPipe() instanceof IHavePriority) {
+				return ((IHavePriority) router.getCachedPipe()).getPriority();
+			}
+			return null;
+		}
+
+		protected double getLoadFactor(IRouter router) {
+			return router.getCachedPipe().getLoadFactor();
+		}
+
 	}
 
 	public static boolean request(List<ItemIdentifierStack> items, IRequestItems requester, RequestLog log, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info) {
@@ -171,8 +196,12 @@ public class RequestTree extends RequestTreeNode {
 	}
 
 	public static int request(ItemIdentifierStack item, IRequestItems requester, RequestLog log, boolean acceptPartial, boolean simulateOnly, boolean logMissing, boolean logUsed, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info) {
+		return RequestTree.request(item, requester, log, acceptPartial, simulateOnly, logMissing, logUsed, requestFlags, info, null);
+	}
+
+	static int request(ItemIdentifierStack item, IRequestItems requester, RequestLog log, boolean acceptPartial, boolean simulateOnly, boolean logMissing, boolean logUsed, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info, RequestMemo memo) {
 		ItemResource req = new ItemResource(item, requester);
-		RequestTree tree = new RequestTree(req, null, requestFlags, info);
+		RequestTree tree = new RequestTree(req, requestFlags, info, memo);
 		if (!simulateOnly && (tree.isDone() || ((tree.getPromiseAmount() > 0) && acceptPartial))) {
 			LinkedLogisticsOrderList list = tree.fullFillAll();
 			if (log != null) {
@@ -205,7 +234,11 @@ public class RequestTree extends RequestTreeNode {
 	}
 
 	public static int simulate(ItemIdentifierStack item, IRequestItems requester, RequestLog log) {
-		return RequestTree.request(item, requester, log, true, true, false, true, RequestTree.defaultRequestFlags, null);
+		return RequestTree.simulate(item, requester, log, null);
+	}
+
+	static int simulate(ItemIdentifierStack item, IRequestItems requester, RequestLog log, RequestMemo memo) {
+		return RequestTree.request(item, requester, log, true, true, false, true, RequestTree.defaultRequestFlags, null, memo);
 	}
 
 	public static int requestFluidPartial(FluidIdentifier liquid, int amount, IRequestFluid pipe, RequestLog log) {
@@ -1,8 +1,6 @@
 package logisticspipes.request;
 
 import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,18 +17,10 @@ import java.util.TreeSet;
 import lombok.Getter;
 
 import logisticspipes.interfaces.routing.IAdditionalTargetInformation;
-import logisticspipes.interfaces.routing.ICraft;
 import logisticspipes.interfaces.routing.IFilter;
 import logisticspipes.interfaces.routing.IProvide;
-import logisticspipes.pipes.basic.CoreRoutedPipe;
-import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.request.RequestTree.ActiveRequestType;
-import logisticspipes.request.RequestTree.workWeightedSorter;
 import logisticspipes.request.resources.IResource;
-import logisticspipes.routing.ExitRoute;
-import logisticspipes.routing.IRouter;
-import logisticspipes.routing.PipeRoutingConnectionType;
-import logisticspipes.routing.ServerRouter;
 import logisticspipes.routing.order.IOrderInfoProvider;
 import logisticspipes.routing.order.IOrderInfoProvider.ResourceType;
 import logisticspipes.routing.order.LinkedLogisticsOrderList;
@@ -44,6 +34,7 @@ public class RequestTreeNode {
 	private final IResource requestType;
 	private final IAdditionalTargetInformation info;
 	private final RequestTreeNode parentNode;
+	private final RequestMemo memo;
 	private List<RequestTreeNode> subRequests = new ArrayList<>();
 	private List<IPromise> promises = new ArrayList<>();
 	private List<IExtraPromise> extrapromises = new ArrayList<>();
@@ -54,18 +45,24 @@ public class RequestTreeNode {
 	private int promiseAmount = 0;
 
 	protected RequestTreeNode(IResource requestType, RequestTreeNode parentNode, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info) {
-		this(null, requestType, parentNode, requestFlags, info);
+		this(null, requestType, parentNode, requestFlags, info, null);
 	}
 
-	private RequestTreeNode(ICraftingTemplate template, IResource requestType, RequestTreeNode parentNode, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info) {
+	protected RequestTreeNode(IResource requestType, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info, RequestMemo memo) {
+		this(null, requestType, null, requestFlags, info, memo);
+	}
+
+	private RequestTreeNode(ICraftingTemplate template, IResource requestType, RequestTreeNode parentNode, EnumSet<ActiveRequestType> requestFlags, IAdditionalTargetInformation info, RequestMemo memo) {
 		this.info = info;
 		this.parentNode = parentNode;
 		this.requestType = requestType;
 		if (parentNode != null) {
 			parentNode.subRequests.add(this);
 			root = parentNode.root;
+			this.memo = parentNode.memo;
 		} else {
 			root = (RequestTree) this;
+			this.memo = memo != null ? memo : new RequestMemo();
 		}
 		if (template != null) {
 			declareCrafterUsed(template);
@@ -86,62 +83,6 @@ public class RequestTreeNode {
 		// crafting is not done!
 	}
 
-	private static List<Pair<IProvide, List<IFilter>>> getProviders(IRouter destination, IResource item) {
-
-		// get all the routers
-		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(item);
-		List<ExitRoute> validSources = new ArrayList<>(); // get the routing table
-		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
-			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
-
-			if (!r.isValidCache()) {
-				continue; //Skip Routers without a valid pipe
-			}
-
-			List<ExitRoute> e = destination.getDistanceTo(r);
-			if (e != null) {
-				validSources.addAll(e);
-			}
-		}
-		// closer providers are good
-		Collections.sort(validSources, new workWeightedSorter(1.0));
-
-		List<Pair<IProvide, List<IFilter>>> providers = new LinkedList<>();
-		validSources.stream().filter(r -> r.containsFlag(PipeRoutingConnectionType.canRequestFrom)).forEach(r -> {
-			CoreRoutedPipe pipe = r.destination.getPipe();
-			if (pipe instanceof IProvide) {
-				List<IFilter> list = new LinkedList<>(r.filters);
-				providers.add(new Pair<>((IProvide) pipe, list));
-			}
-		});
-		return providers;
-	}
-
-	private static List<Pair<ICraftingTemplate, List<IFilter>>> getCrafters(IResource iRequestType, List<ExitRoute> validDestinations) {
-		List<Pair<ICraftingTemplate, List<IFilter>>> crafters = new ArrayList<>(validDestinations.size());
-		outer:
-		for (ExitRoute r : validDestinations) {
-			CoreRoutedPipe pipe = r.destination.getPipe();
-			if (r.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
-				if (pipe instanceof ICraft) {
-					ICraftingTemplate craftable = ((ICraft) pipe).addCrafting(iRequestType);
-					if (craftable != null) {
-						for (IFilter filter : r.filters) {
-							if (filter.isBlocked() == filter.isFilteredItem(craftable.getResultItem()) || filter.blockCrafting()) {
-								continue outer;
-							}
-						}
-						List<IFilter> list = new LinkedList<>(r.filters);
-						crafters.add(new Pair<>(craftable, list));
-					}
-				}
-			}
-		}
-		// don't need to sort, as a sorted list is passed in and List guarantees order preservation
-		//		Collections.sort(crafters,new CraftingTemplate.PairPrioritizer());
-		return crafters;
-	}
-
 	protected static List<IResource> shrinkToList(Map<IResource, Integer> items) {
 		List<IResource> resources = new ArrayList<>();
 		outer:
@@ -340,18 +281,11 @@ public class RequestTreeNode {
 	}
 
 	private boolean checkProvider() {
-		CoreRoutedPipe thisPipe = requestType.getRouter().getCachedPipe();
-		if (thisPipe == null) {
-			return false;
-		}
-		for (Pair<IProvide, List<IFilter>> provider : RequestTreeNode.getProviders(requestType.getRouter(), getRequestType())) {
+		for (Pair<IProvide, List<IFilter>> provider : memo.getProviders(requestType.getRouter(), getRequestType())) {
 			if (isDone()) {
 				break;
 			}
-			if (provider.getValue1() == null || provider.getValue1().getRouter() == null || provider.getValue1().getRouter().getPipe() == null) {
-				continue;
-			}
-			if (!thisPipe.sharesInterestWith(provider.getValue1().getRouter().getPipe())) {
+			if (memo.canProvideTo(provider.getValue1(), requestType.getRouter())) {
 				provider.getValue1().canProvide(this, root, provider.getValue2());
 			}
 		}
@@ -367,22 +301,7 @@ public class RequestTreeNode {
 			if (extraPromise.getAmount() == 0) {
 				continue;
 			}
-			boolean valid = false;
-			List<ExitRoute> sources = extraPromise.getProvider().getRouter().getRouteTable().get(getRequestType().getRouter().getSimpleID());
-			outer:
-			for (ExitRoute source : sources) {
-				if (source != null && source.containsFlag(PipeRoutingConnectionType.canRouteTo)) {
-					for (ExitRoute node : getRequestType().getRouter().getIRoutersByCost()) {
-						if (node.destination == extraPromise.getProvider().getRouter()) {
-							if (node.containsFlag(PipeRoutingConnectionType.canRequestFrom)) {
-								valid = true;
-								break outer;
-							}
-						}
-					}
-				}
-			}
-			if (valid) {
+			if (memo.canRequestExtra(extraPromise.getProvider().getRouter(), getRequestType().getRouter())) {
 				extraPromise.setAmount(Math.min(extraPromise.getAmount(), getMissingAmount()));
 				addPromise(extraPromise);
 			}
@@ -392,25 +311,7 @@ public class RequestTreeNode {
 
 	private boolean checkCrafting() {
 
-		// get all the routers
-		BitSet routersIndex = ServerRouter.getRoutersInterestedIn(getRequestType());
-		List<ExitRoute> validSources = new ArrayList<>(); // get the routing table
-		for (int i = routersIndex.nextSetBit(0); i >= 0; i = routersIndex.nextSetBit(i + 1)) {
-			IRouter r = SimpleServiceLocator.routerManager.getRouterUnsafe(i, false);
-
-			if (!r.isValidCache()) {
-				continue; //Skip Routers without a valid pipe
-			}
-
-			List<ExitRoute> e = getRequestType().getRouter().getDistanceTo(r);
-			if (e != null) {
-				validSources.addAll(e);
-			}
-		}
-		workWeightedSorter wSorter = new workWeightedSorter(0); // distance doesn't matter, because ingredients have to be delivered to the crafter, and we can't tell how long that will take.
-		Collections.sort(validSources, wSorter);
-
-		List<Pair<ICraftingTemplate, List<IFilter>>> allCraftersForItem = RequestTreeNode.getCrafters(getRequestType(), validSources);
+		List<Pair<ICraftingTemplate, List<IFilter>>> allCraftersForItem = memo.getCrafters(getRequestType().getRouter(), getRequestType());
 
 		// if you have a crafter which can make the top treeNode.getStack().getItem()
 		Iterator<Pair<ICraftingTemplate, List<IFilter>>> iterAllCrafters = allCraftersForItem.iterator();
@@ -545,7 +446,7 @@ public class RequestTreeNode {
 		int workSetsAvailable = nCraftingSets;
 		ArrayList<RequestTreeNode> lastNodes = new ArrayList<>(stacks.size());
 		for (Pair<IResource, IAdditionalTargetInformation> stack : stacks) {
-			RequestTreeNode node = new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2());
+			RequestTreeNode node = new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2(), null);
 			lastNodes.add(node);
 			if (!node.isDone()) {
 				failed = true;
@@ -575,7 +476,7 @@ public class RequestTreeNode {
 			List<Pair<IResource, IAdditionalTargetInformation>> stacks = template.getComponents(workSets);
 			boolean failed = false;
 			for (Pair<IResource, IAdditionalTargetInformation> stack : stacks) {
-				RequestTreeNode node = new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2());
+				RequestTreeNode node = new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2(), null);
 				newChildren.add(node);
 				if (!node.isDone()) {
 					failed = true;
@@ -605,7 +506,7 @@ public class RequestTreeNode {
 		List<Pair<IResource, IAdditionalTargetInformation>> stacks = template.getComponents(nCraftingSetsNeeded);
 
 		for (Pair<IResource, IAdditionalTargetInformation> stack : stacks) {
-			new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2());
+			new RequestTreeNode(template, stack.getValue1(), this, RequestTree.defaultRequestFlags, stack.getValue2(), null);
 		}
 
 		addPromise(template.generatePromise(nCraftingSetsNeeded));
@@ -623,6 +524,16 @@ public class RequestTreeNode {
 		log.handleMissingItems(RequestTreeNode.shrinkToList(missing));
 	}
 
+	/**
+	 * Adds the promises of this node and all its sub nodes to the list.
+	 */
+	void collectPromises(List<IPromise> list) {
+		list.addAll(promises);
+		for (RequestTreeNode subNode : subRequests) {
+			subNode.collectPromises(list);
+		}
+	}
+
 	private void destroy() {
 		parentNode.remove(this);
 	}
@@ -639,7 +550,7 @@ public class RequestTreeNode {
 		CraftingSorterNode(Pair<ICraftingTemplate, List<IFilter>> crafter, int maxCount, RequestTree tree, RequestTreeNode treeNode) {
 			this.crafter = crafter;
 			this.treeNode = treeNode;
-			originalToDo = crafter.getValue1().getCrafter().getTodo();
+			originalToDo = memo.getTodo(crafter.getValue1().getCrafter());
 			stacksOfWorkRequested = 0;
 			setSize = crafter.getValue1().getResultStackSize();
 			maxWorkSetsAvailable = ((treeNode.getMissingAmount()) + setSize - 1) / setSize;
@@ -0,0 +1,373 @@
+package logisticspipes.request;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import logisticspipes.interfaces.routing.ICraft;
+import logisticspipes.interfaces.routing.ICraftItems;
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.interfaces.routing.IProvide;
+import logisticspipes.interfaces.routing.IProvideItems;
+import logisticspipes.pipes.basic.CoreRoutedPipe;
+import logisticspipes.proxy.MainProxy;
+import logisticspipes.request.RequestTree.workWeightedSorter;
+import logisticspipes.request.resources.IResource;
+import logisticspipes.request.resources.ItemResource;
+import logisticspipes.routing.ExitRoute;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.LogisticsPromise;
+import logisticspipes.routing.ServerRouter;
+import logisticspipes.routing.order.IOrderInfoProvider.ResourceType;
+import logisticspipes.utils.IHavePriority;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+import logisticspipes.utils.tuples.Pair;
+
+/**
+ * Request memo which plans against a copy of the network taken on the server
+ * thread, so the request tree can be built on another thread.
+ *
+ * The copy holds the routing tables, priorities and load of all routers the
+ * requester can reach, the items their providers have available and the
+ * crafting templates of their crafters. Fluid providers, extras of the order
+ * managers and fuzzy crafters are not copied; if the network has any, the
+ * snapshot is not exact and a failed plan has to be checked against the world.
+ *
+ * The promises of a finished plan point to the real providers and crafters,
+ * they have to be checked with {@link #isStillValid(RequestTree)} on the server
+ * thread before the tree is fulfilled.
+ *
+ * A snapshot taken for a simulation can be reused for the following request
+ * while it {@link #isCurrentFor(IRouter) is current}, i.e. as long as the
+ * routing table of the requester and the interests of the network didn't
+ * change and it isn't older than {@link #MAX_AGE} ticks.
+ */
+class SnapshotRequestMemo extends RequestMemo {
+
+	static final int MAX_AGE = 100;
+
+	private final IRouter requester;
+	private final List<List<ExitRoute>> requesterRouteTable;
+	private final int interestVersion;
+	private final int capturedAt;
+
+	private final Map<IRouter, RouterState> states = new HashMap<>();
+	private final List<RouterState> stateList = new ArrayList<>();
+	// routers providing or crafting an exact item
+	private final Map<ItemIdentifier, List<IRouter>> itemSources = new HashMap<>();
+	private final Map<ICraft, Integer> todos = new HashMap<>();
+	private volatile boolean exact = true;
+
+	private SnapshotRequestMemo(IRouter requester) {
+		this.requester = requester;
+		requesterRouteTable = requester.getRouteTable();
+		interestVersion = ServerRouter.getInterestVersion();
+		capturedAt = MainProxy.getGlobalTick();
+	}
+
+	/**
+	 * Copies everything the requester can reach. Only to be called from the
+	 * server thread.
+	 */
+	static SnapshotRequestMemo capture(IRouter requester) {
+		SnapshotRequestMemo snapshot = new SnapshotRequestMemo(requester);
+		snapshot.add(requester);
+		for (ExitRoute route : requester.getIRoutersByCost()) {
+			snapshot.add(route.destination);
+		}
+		// pipes pulling from the same inventory must not provide to each other
+		for (RouterState providerState : snapshot.stateList) {
+			if (providerState.provider == null) {
+				continue;
+			}
+			for (RouterState state : snapshot.stateList) {
+				if (state.pipe.sharesInterestWith(providerState.pipe)) {
+					providerState.provider.sharedInterests.set(state.router.getSimpleID());
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	private void add(IRouter router) {
+		if (states.containsKey(router)) {
+			return;
+		}
+		CoreRoutedPipe pipe = router.getPipe();
+		if (pipe == null) {
+			return;
+		}
+		RouterState state = new RouterState(router, pipe);
+		states.put(router, state);
+		stateList.add(state);
+
+		if (pipe instanceof IProvideItems) {
+			Map<ItemIdentifier, Integer> stock = new HashMap<>();
+			((IProvideItems) pipe).getAllItems(stock, Collections.emptyList());
+			if (!stock.isEmpty()) {
+				state.provider = new SnapshotProvider((IProvideItems) pipe, stock);
+				stock.keySet().forEach(item -> addSource(item, router));
+			}
+			if (pipe.getItemOrderManager().hasExtras()) {
+				exact = false;
+			}
+		} else if (pipe instanceof IProvide) {
+			exact = false;
+		}
+
+		if (pipe instanceof ICraftItems) {
+			List<ItemIdentifierStack> craftables = ((ICraftItems) pipe).getCraftedItems();
+			if (craftables != null) {
+				for (ItemIdentifierStack craftable : craftables) {
+					ICraftingTemplate template = ((ICraftItems) pipe).addCrafting(new ItemResource(craftable, null));
+					if (template == null) {
+						exact = false;
+						continue;
+					}
+					state.templates.add(template);
+					todos.computeIfAbsent(template.getCrafter(), ICraft::getTodo);
+					addSource(craftable.getItem(), router);
+				}
+			}
+		} else if (pipe instanceof ICraft) {
+			exact = false;
+		}
+	}
+
+	private void addSource(ItemIdentifier item, IRouter router) {
+		List<IRouter> routers = itemSources.computeIfAbsent(item, key -> new ArrayList<>(1));
+		if (!routers.contains(router)) {
+			routers.add(router);
+		}
+	}
+
+	/**
+	 * @return true if a request of the requester can still be planned with
+	 * this snapshot. Only to be called from the server thread.
+	 */
+	boolean isCurrentFor(IRouter requester) {
+		int now = MainProxy.getGlobalTick();
+		return this.requester == requester
+				&& requester.getRouteTable() == requesterRouteTable
+				&& ServerRouter.getInterestVersion() == interestVersion
+				&& now - capturedAt < SnapshotRequestMemo.MAX_AGE && now >= capturedAt;
+	}
+
+	/**
+	 * @return false if a failed plan might have succeeded against the world
+	 */
+	boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * Checks the promises of the tree against the world. Only to be called
+	 * from the server thread.
+	 *
+	 * @return true if every promised provider still has the promised items
+	 * and every promised crafter can still craft its item
+	 */
+	boolean isStillValid(RequestTree tree) {
+		List<IPromise> promises = new ArrayList<>();
+		tree.collectPromises(promises);
+		Map<IProvideItems, Map<ItemIdentifier, Integer>> promised = new HashMap<>();
+		for (IPromise promise : promises) {
+			IProvide provider = promise.getProvider();
+			if (provider.getRouter() == null || provider.getRouter().getPipe() == null) {
+				return false;
+			}
+			if (promise.getType() == ResourceType.PROVIDER && provider instanceof IProvideItems) {
+				promised.computeIfAbsent((IProvideItems) provider, key -> new HashMap<>())
+						.merge(promise.getItemType(), promise.getAmount(), Integer::sum);
+			} else if (promise.getType() == ResourceType.CRAFTING && provider instanceof ICraft) {
+				if (!((ICraft) provider).canCraft(new ItemResource(new ItemIdentifierStack(promise.getItemType(), 1), null))) {
+					return false;
+				}
+			}
+		}
+		for (Entry<IProvideItems, Map<ItemIdentifier, Integer>> entry : promised.entrySet()) {
+			Map<ItemIdentifier, Integer> available = new HashMap<>();
+			entry.getKey().getAllItems(available, Collections.emptyList());
+			for (Entry<ItemIdentifier, Integer> item : entry.getValue().entrySet()) {
+				if (available.getOrDefault(item.getKey(), 0) < item.getValue()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected List<IRouter> getInterestedRouters(IResource item) {
+		if (item instanceof ItemResource) {
+			return itemSources.getOrDefault(((ItemResource) item).getItem(), Collections.emptyList());
+		}
+		List<IRouter> result = new ArrayList<>();
+		for (RouterState state : stateList) {
+			if (state.isInterestedIn(item)) {
+				result.add(state.router);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected List<ExitRoute> getCrafterSources(IRouter destination, IResource item, Pair<IRouter, Object> key) {
+		return getSources(destination, item, key);
+	}
+
+	@Override
+	protected List<ExitRoute> getRoutes(IRouter from, IRouter to) {
+		RouterState state = states.get(from);
+		if (state == null) {
+			exact = false;
+			return Collections.emptyList();
+		}
+		int id = to.getSimpleID();
+		if (id < 0 || id >= state.routeTable.size()) {
+			return Collections.emptyList();
+		}
+		List<ExitRoute> routes = state.routeTable.get(id);
+		return routes != null ? routes : Collections.emptyList();
+	}
+
+	@Override
+	protected IProvide getProvider(IRouter router) {
+		RouterState state = states.get(router);
+		return state != null ? state.provider : null;
+	}
+
+	@Override
+	protected ICraftingTemplate getCraftingTemplate(IRouter router, IResource item) {
+		RouterState state = states.get(router);
+		if (state == null) {
+			return null;
+		}
+		for (ICraftingTemplate template : state.templates) {
+			if (template.canCraft(item)) {
+				return template;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected Comparator<ExitRoute> getSorter(double distanceWeight) {
+		return new workWeightedSorter(distanceWeight) {
+
+			@Override
+			protected Integer getPriority(IRouter router) {
+				return states.get(router).priority;
+			}
+
+			@Override
+			protected double getLoadFactor(IRouter router) {
+				return states.get(router).loadFactor;
+			}
+		};
+	}
+
+	@Override
+	boolean canProvideTo(IProvide provider, IRouter destination) {
+		if (!states.containsKey(destination)) {
+			exact = false;
+			return false;
+		}
+		return !((SnapshotProvider) provider).sharedInterests.get(destination.getSimpleID());
+	}
+
+	@Override
+	int getTodo(ICraft crafter) {
+		Integer todo = todos.get(crafter);
+		if (todo == null) {
+			exact = false;
+			return 0;
+		}
+		return todo;
+	}
+
+	private static class RouterState {
+
+		private final IRouter router;
+		private final CoreRoutedPipe pipe;
+		private final List<List<ExitRoute>> routeTable;
+		private final Integer priority;
+		private final double loadFactor;
+		private final List<ICraftingTemplate> templates = new ArrayList<>(0);
+		private SnapshotProvider provider;
+
+		private RouterState(IRouter router, CoreRoutedPipe pipe) {
+			this.router = router;
+			this.pipe = pipe;
+			routeTable = router.getRouteTable();
+			priority = pipe instanceof IHavePriority ? ((IHavePriority) pipe).getPriority() : null;
+			loadFactor = pipe.getLoadFactor();
+		}
+
+		private boolean isInterestedIn(IResource item) {
+			if (provider != null && provider.stock.keySet().stream().anyMatch(stock -> item.matches(stock, IResource.MatchSettings.NORMAL))) {
+				return true;
+			}
+			return templates.stream().anyMatch(template -> template.canCraft(item));
+		}
+	}
+
+	/**
+	 * Promises the items a provider had available when the snapshot was taken.
+	 * The promises are made in the name of the real provider.
+	 */
+	private static class SnapshotProvider implements IProvide {
+
+		private final IProvideItems provider;
+		private final Map<ItemIdentifier, Integer> stock;
+		// simpleIDs of the routers sharing an inventory with the provider
+		private final BitSet sharedInterests = new BitSet();
+
+		private SnapshotProvider(IProvideItems provider, Map<ItemIdentifier, Integer> stock) {
+			this.provider = provider;
+			this.stock = stock;
+		}
+
+		@Override
+		public void canProvide(RequestTreeNode tree, RequestTree root, List<IFilter> filters) {
+			Collection<ItemIdentifier> possible;
+			if (tree.getRequestType() instanceof ItemResource) {
+				possible = Collections.singletonList(((ItemResource) tree.getRequestType()).getItem());
+			} else {
+				possible = stock.keySet();
+			}
+			outer:
+			for (ItemIdentifier item : possible) {
+				if (tree.isDone()) {
+					return;
+				}
+				if (!stock.containsKey(item) || !tree.getRequestType().matches(item, IResource.MatchSettings.NORMAL)) {
+					continue;
+				}
+				for (IFilter filter : filters) {
+					if (filter.isBlocked() == filter.isFilteredItem(item.getUndamaged()) || filter.blockProvider()) {
+						continue outer;
+					}
+				}
+				int canProvide = stock.get(item) - root.getAllPromissesFor(provider, item);
+				canProvide = Math.min(canProvide, tree.getMissingAmount());
+				if (canProvide < 1) {
+					continue;
+				}
+				tree.addPromise(new LogisticsPromise(item, canProvide, provider, ResourceType.PROVIDER));
+			}
+		}
+
+		@Override
+		public IRouter getRouter() {
+			return provider.getRouter();
+		}
+	}
+}
@@ -43,12 +43,17 @@ public class ExitRoute implements Comparable<ExitRoute>, LPFinalSerializable {
 	public EnumFacing insertOrientation;
 	public double distanceToDestination;
 	public IRouter root;
-	public List<IFilter> filters = Collections.unmodifiableList(new ArrayList<>(0));
+	public List<IFilter> filters = Collections.emptyList();
 	/**
 	 * Used to store debug information. No use in the actual Routing table
 	 * calculation
 	 */
 	public ExitRouteDebug debug = new ExitRouteDebug();
+	/**
+	 * simpleID of the router this route was extended from during the routing
+	 * table calculation. Used to track which links a routing table depends on.
+	 */
+	int previousHop;
 
 	public ExitRoute(IRouter source, IRouter destination, @Nullable EnumFacing exitOrientation, @Nullable EnumFacing insertOrientation, double metric,
 			EnumSet<PipeRoutingConnectionType> connectionDetails, int blockDistance) {
@@ -70,6 +75,21 @@ public class ExitRoute implements Comparable<ExitRoute>, LPFinalSerializable {
 		this.blockDistance = blockDistance;
 	}
 
+	/**
+	 * Restores a route of a {@link RouteTable}.
+	 */
+	ExitRoute(IRouter root, IRouter destination, @Nullable EnumFacing exitOrientation, double distanceToDestination, double destinationDistanceToRoot,
+			EnumSet<PipeRoutingConnectionType> connectionDetails, List<IFilter> filters, int blockDistance) {
+		this.root = root;
+		this.destination = destination;
+		this.exitOrientation = exitOrientation;
+		this.distanceToDestination = distanceToDestination;
+		this.destinationDistanceToRoot = destinationDistanceToRoot;
+		this.connectionDetails = connectionDetails;
+		this.filters = filters;
+		this.blockDistance = blockDistance;
+	}
+
 	@SideOnly(Side.CLIENT)
 	public ExitRoute(LPDataInput input) {
 		if (input.readBoolean()) {
@@ -109,6 +129,9 @@ public class ExitRoute implements Comparable<ExitRoute>, LPFinalSerializable {
 	public ExitRoute(IRouter source, IRouter destination, double distance, EnumSet<PipeRoutingConnectionType> enumSet, List<IFilter> filterA,
 			List<IFilter> filterB, int blockDistance) {
 		this(source, destination, null, null, distance, enumSet, blockDistance);
+		if (filterA.isEmpty() && filterB.isEmpty()) {
+			return;
+		}
 		List<IFilter> filter = new ArrayList<>(filterA.size() + filterB.size());
 		filter.addAll(filterA);
 		filter.addAll(filterB);
@@ -0,0 +1,209 @@
+package logisticspipes.routing;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.item.Item;
+
+import logisticspipes.request.resources.DictResource;
+import logisticspipes.request.resources.IResource;
+import logisticspipes.utils.item.DictItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.tuples.Pair;
+
+/**
+ * Index of the item interests of all {@link ServerRouter}s, answering
+ * {@link ServerRouter#getRoutersInterestedIn(ItemIdentifier)} without
+ * walking the interest maps.
+ *
+ * Every ItemIdentifier and every fuzzy variant of it (undamaged, ignoring NBT,
+ * ignoring data) share the same {@link Item}, so cached results are grouped by
+ * item and a changed interest only drops the results of its own item. A
+ * changed generic interest drops all cached results. Results for
+ * {@link DictResource}s are cached by request settings and dropped on any
+ * change, since the ore dictionary can match across items. Both caches only
+ * keep the most recently used results, up to {@link #MAX_CACHED_ITEMS} items
+ * with {@link #MAX_CACHED_VARIANTS} variants each and
+ * {@link #MAX_CACHED_DICTS} dictionary requests.
+ *
+ * Interests are changed on the server thread, but requests are also planned on
+ * other threads, so all access is synchronized. Every returned BitSet is a
+ * copy owned by the caller.
+ */
+class InterestIndex {
+
+	static final int MAX_CACHED_ITEMS = 1024;
+	static final int MAX_CACHED_VARIANTS = 64;
+	static final int MAX_CACHED_DICTS = 1024;
+
+	private final BitSet genericInterests = new BitSet();
+	private final Map<ItemIdentifier, BitSet> specificInterests = new HashMap<>();
+	private final Map<Item, Set<ItemIdentifier>> interestsByItem = new HashMap<>();
+	private final Map<DictItemIdentifier, Set<ItemIdentifier>> interestsByDict = new HashMap<>();
+
+	private final Map<Item, Map<ItemIdentifier, BitSet>> itemCache = InterestIndex.newCache(InterestIndex.MAX_CACHED_ITEMS);
+	private final Map<Pair<ItemIdentifier, Integer>, BitSet> dictCache = InterestIndex.newCache(InterestIndex.MAX_CACHED_DICTS);
+	private int version = 0;
+
+	/**
+	 * @return a number that changes every time any interest changes
+	 */
+	synchronized int getVersion() {
+		return version;
+	}
+
+	synchronized void addGeneric(int simpleID) {
+		if (genericInterests.get(simpleID)) {
+			return;
+		}
+		genericInterests.set(simpleID);
+		genericChanged();
+	}
+
+	synchronized void removeGeneric(int simpleID) {
+		if (!genericInterests.get(simpleID)) {
+			return;
+		}
+		genericInterests.clear(simpleID);
+		genericChanged();
+	}
+
+	synchronized void addSpecific(ItemIdentifier item, int simpleID) {
+		BitSet routers = specificInterests.get(item);
+		if (routers == null) {
+			routers = new BitSet();
+			specificInterests.put(item, routers);
+			interestsByItem.computeIfAbsent(item.item, key -> new HashSet<>()).add(item);
+			DictItemIdentifier dict = item.getDictIdentifiers();
+			if (dict != null) {
+				interestsByDict.computeIfAbsent(dict, key -> new HashSet<>()).add(item);
+			}
+		} else if (routers.get(simpleID)) {
+			return;
+		}
+		routers.set(simpleID);
+		specificChanged(item);
+	}
+
+	synchronized void removeSpecific(ItemIdentifier item, int simpleID) {
+		BitSet routers = specificInterests.get(item);
+		if (routers == null || !routers.get(simpleID)) {
+			return;
+		}
+		routers.clear(simpleID);
+		if (routers.isEmpty()) {
+			specificInterests.remove(item);
+			InterestIndex.removeFromGroup(interestsByItem, item.item, item);
+			DictItemIdentifier dict = item.getDictIdentifiers();
+			if (dict != null) {
+				InterestIndex.removeFromGroup(interestsByDict, dict, item);
+			}
+		}
+		specificChanged(item);
+	}
+
+	synchronized void clear() {
+		genericInterests.clear();
+		specificInterests.clear();
+		interestsByItem.clear();
+		interestsByDict.clear();
+		genericChanged();
+	}
+
+	/**
+	 * @param item the item, or null for the routers with generic interests only
+	 */
+	synchronized BitSet getInterestedIn(ItemIdentifier item) {
+		if (item == null) {
+			return (BitSet) genericInterests.clone();
+		}
+		Map<ItemIdentifier, BitSet> group = itemCache.computeIfAbsent(item.item, key -> InterestIndex.newCache(InterestIndex.MAX_CACHED_VARIANTS));
+		BitSet result = group.get(item);
+		if (result == null) {
+			BitSet routers = (BitSet) genericInterests.clone();
+			orSpecific(routers, item);
+			orSpecific(routers, item.getUndamaged());
+			orSpecific(routers, item.getIgnoringNBT());
+			orSpecific(routers, item.getUndamaged().getIgnoringNBT());
+			orSpecific(routers, item.getIgnoringData());
+			orSpecific(routers, item.getIgnoringData().getIgnoringNBT());
+			result = routers;
+			group.put(item, result);
+		}
+		return (BitSet) result.clone();
+	}
+
+	synchronized BitSet getInterestedIn(DictResource dict) {
+		int settings = (dict.use_od ? 1 : 0) | (dict.ignore_dmg ? 2 : 0) | (dict.ignore_nbt ? 4 : 0) | (dict.use_category ? 8 : 0);
+		Pair<ItemIdentifier, Integer> key = new Pair<>(dict.getItem(), settings);
+		BitSet result = dictCache.get(key);
+		if (result == null) {
+			BitSet routers = (BitSet) genericInterests.clone();
+			// without the ore dictionary only the same item can match
+			Set<ItemIdentifier> sameItem = interestsByItem.get(dict.getItem().item);
+			if (sameItem != null) {
+				sameItem.stream()
+						.filter(interest -> dict.matches(interest, IResource.MatchSettings.NORMAL))
+						.forEach(interest -> orSpecific(routers, interest));
+			}
+			DictItemIdentifier requested = dict.getItem().getDictIdentifiers();
+			if ((dict.use_od || dict.use_category) && requested != null) {
+				interestsByDict.entrySet().stream()
+						.filter(entry -> requested.canMatch(entry.getKey(), true, dict.use_category))
+						.forEach(entry -> entry.getValue().forEach(interest -> orSpecific(routers, interest)));
+			}
+			result = routers;
+			dictCache.put(key, result);
+		}
+		return (BitSet) result.clone();
+	}
+
+	private void orSpecific(BitSet routers, ItemIdentifier item) {
+		BitSet specific = specificInterests.get(item);
+		if (specific != null) {
+			routers.or(specific);
+		}
+	}
+
+	private void genericChanged() {
+		version++;
+		itemCache.clear();
+		dictCache.clear();
+	}
+
+	private void specificChanged(ItemIdentifier item) {
+		version++;
+		itemCache.remove(item.item);
+		dictCache.clear();
+	}
+
+	private static <K> void removeFromGroup(Map<K, Set<ItemIdentifier>> groups, K key, ItemIdentifier item) {
+		Set<ItemIdentifier> group = groups.get(key);
+		if (group != null) {
+			group.remove(item);
+			if (group.isEmpty()) {
+				groups.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * @return a map which drops its least recently used entry once it holds
+	 * more than maxSize entries
+	 */
+	private static <K, V> Map<K, V> newCache(int maxSize) {
+		return new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+}
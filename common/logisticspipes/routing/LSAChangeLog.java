@@ -0,0 +1,85 @@
+package logisticspipes.routing;
+
+/**
+ * Bounded log of the changes made to the shared LSA database. A router
+ * remembers the generation of this log its routing table was built against
+ * and can use it to decide whether a later LSA version can change any of
+ * its routes at all.
+ *
+ * Appending must happen while holding the LSA database write lock, before the
+ * new generation of the database is published.
+ */
+class LSAChangeLog {
+
+	/** marks a router that was reached over more than one link */
+	static final int EXPANDED_MULTIPLE = -1;
+
+	private static final int CAPACITY = 8192;
+	private static final int ANY_TARGET = -1;
+
+	private final int[] sources = new int[CAPACITY];
+	private final int[] targets = new int[CAPACITY];
+	private long generation = 0;
+
+	synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * The link from source to target was removed or got worse. This only
+	 * affects routes that actually went over this link.
+	 */
+	void linkChanged(int source, int target) {
+		append(source, target);
+	}
+
+	/**
+	 * Something at the source router changed in a way that may allow new or
+	 * cheaper routes. This affects every router that reached the source.
+	 */
+	void routerChanged(int source) {
+		append(source, ANY_TARGET);
+	}
+
+	private synchronized void append(int source, int target) {
+		int index = (int) (generation % CAPACITY);
+		sources[index] = source;
+		targets[index] = target;
+		generation++;
+	}
+
+	synchronized void clear() {
+		generation = 0;
+	}
+
+	/**
+	 * @param since       the generation the routing table was built against
+	 * @param self        the simpleID of the router owning the routing table
+	 * @param expandedVia for every simpleID the router it was reached from
+	 *                    (0 if never reached, {@link #EXPANDED_MULTIPLE} if
+	 *                    reached from more than one router)
+	 * @return true, if any change since the given generation might alter the
+	 * routing table
+	 */
+	synchronized boolean affects(long since, int self, int[] expandedVia) {
+		if (since < 0 || since > generation || generation - since > CAPACITY) {
+			return true;
+		}
+		for (long gen = since; gen < generation; gen++) {
+			int index = (int) (gen % CAPACITY);
+			int source = sources[index];
+			int target = targets[index];
+			if (target == ANY_TARGET) {
+				if (source == self || (source < expandedVia.length && expandedVia[source] != 0)) {
+					return true;
+				}
+			} else if (target < expandedVia.length) {
+				int via = expandedVia[target];
+				if (via == source || via == EXPANDED_MULTIPLE) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,274 @@
+package logisticspipes.routing;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import net.minecraft.util.EnumFacing;
+
+import logisticspipes.interfaces.routing.IFilter;
+
+/**
+ * Routing table of a {@link ServerRouter}, stored as flat arrays instead of a
+ * list of lists per destination.
+ *
+ * All routes to a destination are stored in one consecutive range of entries,
+ * closest route first. The range of the destination with the simpleID
+ * <code>id</code> is <code>offsets[id]</code> (inclusive) to
+ * <code>offsets[id + 1]</code> (exclusive). Every entry only consists of its
+ * destination, exit side, distances, connection flags and the index of its
+ * filters, identical filter lists are only stored once.
+ *
+ * The {@link ExitRoute}s handed out by this table are created on every call,
+ * changes to them don't change the table. Code which runs for every route,
+ * like routing an item, should read the entries directly.
+ */
+public class RouteTable {
+
+	public static final RouteTable EMPTY = new RouteTable(null, 0, Collections.emptyList());
+
+	private static final PipeRoutingConnectionType[] CONNECTION_TYPES = PipeRoutingConnectionType.values();
+
+	private final IRouter root;
+	private final int[] offsets;
+	/** the destination of every simpleID with routes */
+	private final IRouter[] destinations;
+
+	private final int[] destinationIds;
+	/** ordinal of the exit side, or -1 */
+	private final byte[] exitSides;
+	private final double[] distances;
+	private final double[] destinationDistances;
+	private final int[] blockDistances;
+	private final byte[] flags;
+	private final int[] filterIndices;
+
+	private final List<IFilter>[] filterLists;
+	private final IFilter[][] filterArrays;
+
+	/** the entries in the order of their cost */
+	private final int[] byCost;
+
+	private final List<List<ExitRoute>> tableView = new TableView();
+	private final List<ExitRoute> costView = new CostView();
+
+	/**
+	 * @param root   the router the routes start at
+	 * @param size   the minimum number of destinations this table can hold
+	 * @param routes all routes of the table, ordered by cost. Only read while
+	 *               constructing the table.
+	 */
+	@SuppressWarnings("unchecked")
+	public RouteTable(IRouter root, int size, List<ExitRoute> routes) {
+		this.root = root;
+		for (ExitRoute route : routes) {
+			size = Math.max(size, route.destination.getSimpleID() + 1);
+		}
+		offsets = new int[size + 1];
+		for (ExitRoute route : routes) {
+			offsets[route.destination.getSimpleID() + 1]++;
+		}
+		for (int i = 0; i < size; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int entries = routes.size();
+		destinations = new IRouter[size];
+		destinationIds = new int[entries];
+		exitSides = new byte[entries];
+		distances = new double[entries];
+		destinationDistances = new double[entries];
+		blockDistances = new int[entries];
+		flags = new byte[entries];
+		filterIndices = new int[entries];
+		byCost = new int[entries];
+
+		int[] next = new int[size];
+		System.arraycopy(offsets, 0, next, 0, size);
+		Map<List<IFilter>, Integer> internedFilters = new HashMap<>();
+		List<List<IFilter>> filterLists = new ArrayList<>();
+		filterLists.add(Collections.emptyList());
+		internedFilters.put(Collections.emptyList(), 0);
+		for (int i = 0; i < entries; i++) {
+			ExitRoute route = routes.get(i);
+			int id = route.destination.getSimpleID();
+			int entry = next[id]++;
+			byCost[i] = entry;
+			destinations[id] = route.destination;
+			destinationIds[entry] = id;
+			exitSides[entry] = (byte) (route.exitOrientation == null ? -1 : route.exitOrientation.ordinal());
+			distances[entry] = route.distanceToDestination;
+			destinationDistances[entry] = route.destinationDistanceToRoot;
+			blockDistances[entry] = route.blockDistance;
+			byte routeFlags = 0;
+			for (PipeRoutingConnectionType type : route.connectionDetails) {
+				routeFlags |= 1 << type.ordinal();
+			}
+			flags[entry] = routeFlags;
+			Integer filterIndex = internedFilters.get(route.filters);
+			if (filterIndex == null) {
+				filterIndex = filterLists.size();
+				List<IFilter> filters = Collections.unmodifiableList(new ArrayList<>(route.filters));
+				filterLists.add(filters);
+				internedFilters.put(filters, filterIndex);
+			}
+			filterIndices[entry] = filterIndex;
+		}
+		this.filterLists = filterLists.toArray(new List[0]);
+		filterArrays = new IFilter[this.filterLists.length][];
+		for (int i = 0; i < filterArrays.length; i++) {
+			filterArrays[i] = this.filterLists[i].toArray(new IFilter[0]);
+		}
+	}
+
+	/**
+	 * @return the number of destinations this table has room for.
+	 */
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @return the first entry of the routes to the given destination.
+	 */
+	public int getFirstEntry(int id) {
+		if (id < 0 || id >= size()) {
+			return 0;
+		}
+		return offsets[id];
+	}
+
+	/**
+	 * @return the entry after the last route to the given destination.
+	 */
+	public int getEndEntry(int id) {
+		if (id < 0 || id >= size()) {
+			return 0;
+		}
+		return offsets[id + 1];
+	}
+
+	public boolean hasRoutesTo(int id) {
+		return getEndEntry(id) > getFirstEntry(id);
+	}
+
+	public int getDestinationId(int entry) {
+		return destinationIds[entry];
+	}
+
+	public EnumFacing getExitSide(int entry) {
+		return exitSides[entry] < 0 ? null : EnumFacing.VALUES[exitSides[entry]];
+	}
+
+	public double getDistance(int entry) {
+		return distances[entry];
+	}
+
+	public boolean hasFlag(int entry, PipeRoutingConnectionType type) {
+		return (flags[entry] & (1 << type.ordinal())) != 0;
+	}
+
+	public IFilter[] getFilters(int entry) {
+		return filterArrays[filterIndices[entry]];
+	}
+
+	/**
+	 * @return a new {@link ExitRoute} with the data of the entry.
+	 */
+	public ExitRoute getRoute(int entry) {
+		EnumSet<PipeRoutingConnectionType> connectionDetails = EnumSet.noneOf(PipeRoutingConnectionType.class);
+		for (PipeRoutingConnectionType type : RouteTable.CONNECTION_TYPES) {
+			if (hasFlag(entry, type)) {
+				connectionDetails.add(type);
+			}
+		}
+		return new ExitRoute(root, destinations[destinationIds[entry]], getExitSide(entry), distances[entry], destinationDistances[entry], connectionDetails, filterLists[filterIndices[entry]], blockDistances[entry]);
+	}
+
+	/**
+	 * @return an unmodifiable view of the routes to the given destination,
+	 * closest first, or null if the destination can't be reached.
+	 */
+	public List<ExitRoute> getRoutes(int id) {
+		if (!hasRoutesTo(id)) {
+			return null;
+		}
+		return new DestinationView(offsets[id], offsets[id + 1]);
+	}
+
+	/**
+	 * @return an unmodifiable view of this table in the format of
+	 * {@link IRouter#getRouteTable()}.
+	 */
+	public List<List<ExitRoute>> asList() {
+		return tableView;
+	}
+
+	/**
+	 * @return an unmodifiable view of all routes of this table, in the order
+	 * of their cost.
+	 */
+	public List<ExitRoute> byCost() {
+		return costView;
+	}
+
+	private class DestinationView extends AbstractList<ExitRoute> implements RandomAccess {
+
+		private final int start;
+		private final int end;
+
+		private DestinationView(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public ExitRoute get(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (end - start));
+			}
+			return getRoute(start + index);
+		}
+
+		@Override
+		public int size() {
+			return end - start;
+		}
+	}
+
+	private class TableView extends AbstractList<List<ExitRoute>> implements RandomAccess {
+
+		@Override
+		public List<ExitRoute> get(int index) {
+			if (index < 0 || index >= RouteTable.this.size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + RouteTable.this.size());
+			}
+			return getRoutes(index);
+		}
+
+		@Override
+		public int size() {
+			return RouteTable.this.size();
+		}
+	}
+
+	private class CostView extends AbstractList<ExitRoute> implements RandomAccess {
+
+		@Override
+		public ExitRoute get(int index) {
+			if (index < 0 || index >= byCost.length) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + byCost.length);
+			}
+			return getRoute(byCost[index]);
+		}
+
+		@Override
+		public int size() {
+			return byCost.length;
+		}
+	}
+}
@@ -9,6 +9,7 @@ package logisticspipes.routing;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -19,11 +20,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
@@ -62,7 +66,6 @@ import logisticspipes.routing.pathfinder.PathFinder;
 import logisticspipes.ticks.LPTickHandler;
 import logisticspipes.ticks.RoutingTableUpdateThread;
 import logisticspipes.utils.CacheHolder;
-import logisticspipes.utils.OneList;
 import logisticspipes.utils.StackTraceUtil;
 import logisticspipes.utils.StackTraceUtil.Info;
 import logisticspipes.utils.item.ItemIdentifier;
@@ -76,6 +79,8 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	static HashMap<ItemIdentifier, Set<IRouter>> _globalSpecificInterests = new HashMap<>();
 	// things potentially interested in every item (chassi with generic sinks)
 	static Set<IRouter> _genericInterests = new TreeSet<>();
+	// both of the above by simpleID, with cached lookups
+	static final InterestIndex _interestIndex = new InterestIndex();
 
 	// things this pipe is interested in (either providing or sinking)
 	Set<ItemIdentifier> _hasInterestIn = new TreeSet<>();
@@ -90,116 +95,41 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		return simpleID; // guaranteed to be unique, and uniform distribution over a range.
 	}
 
-	protected static class LSA {
+	protected static final class LSA {
 
-		public HashMap<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric;
-		public List<Pair<ILogisticsPowerProvider, List<IFilter>>> power;
-		public ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower;
-	}
-
-	private abstract static class RouterRunnable implements Comparable<RouterRunnable>, Runnable {
-
-		public abstract int getPrority();
+		public final Map<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric;
+		public final List<Pair<ILogisticsPowerProvider, List<IFilter>>> power;
+		public final List<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower;
 
-		public abstract int localCompare(RouterRunnable o);
-
-		@Override
-		public int compareTo(RouterRunnable o) {
-			if (o.getPrority() == getPrority()) {
-				return localCompare(o);
-			}
-			return o.getPrority() - getPrority();
+		LSA(Map<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric, List<Pair<ILogisticsPowerProvider, List<IFilter>>> power, List<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower) {
+			this.neighboursWithMetric = Collections.unmodifiableMap(neighboursWithMetric);
+			this.power = power == null ? null : Collections.unmodifiableList(power);
+			this.subSystemPower = subSystemPower == null ? null : Collections.unmodifiableList(subSystemPower);
 		}
 	}
 
-	private class UpdateRouterRunnable extends RouterRunnable {
+	/**
+	 * One immutable generation of the LSA database. Writers publish a new
+	 * generation, routing tables are calculated against whatever generation
+	 * was current when they started, without any locking.
+	 */
+	public static final class LSADatabaseSnapshot {
 
-		int newVersion;
-		boolean run;
-		IRouter target;
+		private static final LSADatabaseSnapshot EMPTY = new LSADatabaseSnapshot(new LSA[0], 0);
 
-		UpdateRouterRunnable(IRouter target) {
-			run = true;
-			newVersion = _LSAVersion;
-			this.target = target;
-		}
+		private final LSA[] database;
+		private final long generation;
 
-		@Override
-		public void run() {
-			if (!run) {
-				return;
-			}
-			try {
-				CoreRoutedPipe p = target.getCachedPipe();
-				if (p == null) {
-					run = false;
-					return;
-				}
-				//spinlock during the first tick, we can't touch the routing table, untill Update() has been called on every pipe.
-				for (int i = 0; i < 10 && p.stillNeedReplace(); i++) {
-					Thread.sleep(10);
-				}
-				if (p.stillNeedReplace()) {
-					return; // drop the pipe update if it still needs replace after 5 ticks.
-				}
-				CreateRouteTable(newVersion);
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			run = false;
+		private LSADatabaseSnapshot(LSA[] database, long generation) {
+			this.database = database;
+			this.generation = generation;
 		}
 
-		@Override
-		public int getPrority() {
-			return 0;
-		}
-
-		@Override
-		public int localCompare(RouterRunnable o) {
-			int c = 0;
-			if (((UpdateRouterRunnable) o).newVersion <= 0) {
-				c = newVersion - ((UpdateRouterRunnable) o).newVersion; // negative numbers have priority, more negative first
-			}
-			if (c != 0) {
-				return 0;
+		private LSA get(int simpleID) {
+			if (simpleID < 0 || simpleID >= database.length) {
+				return null;
 			}
-			c = target.getSimpleID() - ((UpdateRouterRunnable) o).target.getSimpleID(); // do things in order of router id, to minimize router recursion
-			if (c != 0) {
-				return 0;
-			}
-			c = ((UpdateRouterRunnable) o).newVersion - newVersion; // higher version first
-			return c;
-		}
-	}
-
-	private static int maxLSAUpdateIndex = 0;
-
-	private class LSARouterRunnable extends RouterRunnable {
-
-		private final int index = ServerRouter.maxLSAUpdateIndex++;
-		HashMap<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric;
-		ArrayList<Pair<ILogisticsPowerProvider, List<IFilter>>> power;
-		ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower;
-
-		LSARouterRunnable(HashMap<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric, ArrayList<Pair<ILogisticsPowerProvider, List<IFilter>>> power, ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower) {
-			this.neighboursWithMetric = neighboursWithMetric;
-			this.power = power;
-			this.subSystemPower = subSystemPower;
-		}
-
-		@Override
-		public void run() {
-			lockAndUpdateLSA(neighboursWithMetric, power, subSystemPower);
-		}
-
-		@Override
-		public int getPrority() {
-			return 1;
-		}
-
-		@Override
-		public int localCompare(RouterRunnable o) {
-			return index - ((LSARouterRunnable) o).index;
+			return database[simpleID];
 		}
 	}
 
@@ -212,25 +142,41 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 
 	public boolean[] sideDisconnected = new boolean[6];
 
-	protected static int[] _lastLSAVersion = new int[0];
+	protected volatile int _lastLSAVersion = 0;
 	protected int _LSAVersion = 0;
-	protected final LSA _myLsa;
-
-	protected UpdateRouterRunnable updateThread = null;
+	protected volatile LSA _myLsa;
 
-	protected static final ReentrantReadWriteLock SharedLSADatabaseLock = new ReentrantReadWriteLock();
-	protected static final Lock SharedLSADatabasereadLock = ServerRouter.SharedLSADatabaseLock.readLock();
-	protected static final Lock SharedLSADatabasewriteLock = ServerRouter.SharedLSADatabaseLock.writeLock();
+	// only taken by writers, readers just use the current generation
+	protected static final Lock SharedLSADatabasewriteLock = new ReentrantLock();
 	protected final ReentrantReadWriteLock routingTableUpdateLock = new ReentrantReadWriteLock();
 	protected final Lock routingTableUpdateReadLock = routingTableUpdateLock.readLock();
 	protected final Lock routingTableUpdateWriteLock = routingTableUpdateLock.writeLock();
 	public Object _externalRoutersByCostLock = new Object();
 
-	protected static LSA[] SharedLSADatabase = new LSA[0];
+	protected static final AtomicReference<LSADatabaseSnapshot> SharedLSADatabase = new AtomicReference<>(LSADatabaseSnapshot.EMPTY);
+	protected static final LSAChangeLog SharedLSAChangeLog = new LSAChangeLog();
+
+	/**
+	 * What the current routing table was calculated from. Used to skip
+	 * recalculations for LSA changes that cannot affect any route.
+	 */
+	private static class RouteTableDependencies {
+
+		final long lsaGeneration;
+		final int[] expandedVia;
+		final BitSet inactive;
+
+		RouteTableDependencies(long lsaGeneration, int[] expandedVia, BitSet inactive) {
+			this.lsaGeneration = lsaGeneration;
+			this.expandedVia = expandedVia;
+			this.inactive = inactive;
+		}
+	}
+
+	private volatile RouteTableDependencies _routeTableDependencies = null;
 
 	/** Map of router -> orientation for all known destinations **/
-	public List<List<ExitRoute>> _routeTable = Collections.unmodifiableList(new ArrayList<>());
-	public List<ExitRoute> _routeCosts = Collections.unmodifiableList(new ArrayList<>());
+	public RouteTable _routeTable = RouteTable.EMPTY;
 	public List<Pair<ILogisticsPowerProvider, List<IFilter>>> _LPPowerTable = Collections.unmodifiableList(new ArrayList<>());
 	public List<Pair<ISubSystemPowerProvider, List<IFilter>>> _SubSystemPowerTable = Collections.unmodifiableList(new ArrayList<>());
 
@@ -266,9 +212,10 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	public static void cleanup() {
 		ServerRouter._globalSpecificInterests.clear();
 		ServerRouter._genericInterests.clear();
+		ServerRouter._interestIndex.clear();
 		ServerRouter.SharedLSADatabasewriteLock.lock();
-		ServerRouter.SharedLSADatabase = new LSA[0];
-		ServerRouter._lastLSAVersion = new int[0];
+		ServerRouter.SharedLSAChangeLog.clear();
+		ServerRouter.SharedLSADatabase.set(LSADatabaseSnapshot.EMPTY);
 		ServerRouter.SharedLSADatabasewriteLock.unlock();
 		ServerRouter.simpleIdUsedSet.clear();
 		ServerRouter.firstFreeId = 1;
@@ -288,6 +235,26 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		}
 	}
 
+	public static LSADatabaseSnapshot snapshotLSADatabase() {
+		return ServerRouter.SharedLSADatabase.get();
+	}
+
+	/**
+	 * Publishes a new generation of the LSA database with the given LSA
+	 * replaced. Needs to be called with the write lock held, after the change
+	 * was added to the change log.
+	 */
+	private static void publishLSA(int simpleID, LSA lsa) {
+		LSA[] database = ServerRouter.SharedLSADatabase.get().database;
+		if (database.length <= simpleID) {
+			database = Arrays.copyOf(database, ((int) (simpleID * 1.5)) + 1);
+		} else {
+			database = database.clone();
+		}
+		database[simpleID] = lsa;
+		ServerRouter.SharedLSADatabase.set(new LSADatabaseSnapshot(database, ServerRouter.SharedLSAChangeLog.getGeneration()));
+	}
+
 	public static int getBiggestSimpleID() {
 		return ServerRouter.simpleIdUsedSet.size();
 	}
@@ -303,22 +270,11 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		_yCoord = yCoord;
 		_zCoord = zCoord;
 		clearPipeCache();
-		_myLsa = new LSA();
-		_myLsa.neighboursWithMetric = new HashMap<>();
-		_myLsa.power = new ArrayList<>();
+		_myLsa = new LSA(new HashMap<>(), new ArrayList<>(), null);
 		ServerRouter.SharedLSADatabasewriteLock.lock(); // any time after we claim the SimpleID, the database could be accessed at that index
 		simpleID = ServerRouter.claimSimpleID();
-		if (ServerRouter.SharedLSADatabase.length <= simpleID) {
-			int newlength = ((int) (simpleID * 1.5)) + 1;
-			LSA[] new_SharedLSADatabase = new LSA[newlength];
-			System.arraycopy(ServerRouter.SharedLSADatabase, 0, new_SharedLSADatabase, 0, ServerRouter.SharedLSADatabase.length);
-			ServerRouter.SharedLSADatabase = new_SharedLSADatabase;
-			int[] new_lastLSAVersion = new int[newlength];
-			System.arraycopy(ServerRouter._lastLSAVersion, 0, new_lastLSAVersion, 0, ServerRouter._lastLSAVersion.length);
-			ServerRouter._lastLSAVersion = new_lastLSAVersion;
-		}
-		ServerRouter._lastLSAVersion[simpleID] = 0;
-		ServerRouter.SharedLSADatabase[simpleID] = _myLsa; // make non-structural change (threadsafe)
+		ServerRouter.SharedLSAChangeLog.routerChanged(simpleID);
+		ServerRouter.publishLSA(simpleID, _myLsa);
 		ServerRouter.SharedLSADatabasewriteLock.unlock();
 	}
 
@@ -386,9 +342,9 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 				updateLsa();
 			}
 		}
-		if (_LSAVersion > ServerRouter._lastLSAVersion[simpleID]) {
+		if (_LSAVersion > _lastLSAVersion) {
 			if (Configs.MULTI_THREAD_NUMBER > 0 && !force) {
-				RoutingTableUpdateThread.add(new UpdateRouterRunnable(this));
+				RoutingTableUpdateThread.addRouterUpdate(this, _LSAVersion);
 			} else {
 				CreateRouteTable(_LSAVersion);
 			}
@@ -398,13 +354,13 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	@Override
 	public List<List<ExitRoute>> getRouteTable() {
 		ensureRouteTableIsUpToDate(true);
-		return _routeTable;
+		return _routeTable.asList();
 	}
 
 	@Override
 	public List<ExitRoute> getIRoutersByCost() {
 		ensureRouteTableIsUpToDate(true);
-		return _routeCosts;
+		return _routeTable.byCost();
 	}
 
 	@Override
@@ -678,49 +634,137 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 					.getValue().distanceToDestination, adjacent.getValue().connectionDetails, adjacent
 					.getValue().filters, adjacent.getValue().blockDistance));
 		}
-		ArrayList<Pair<ILogisticsPowerProvider, List<IFilter>>> power = null;
-		if (_powerAdjacent != null) {
-			power = new ArrayList<>(_powerAdjacent);
-		}
-		ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower = null;
-		if (_subSystemPowerAdjacent != null) {
-			subSystemPower = new ArrayList<>(_subSystemPowerAdjacent);
-		}
+		ArrayList<Pair<ILogisticsPowerProvider, List<IFilter>>> power = _powerAdjacent != null ? new ArrayList<>(_powerAdjacent) : null;
+		ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower = _subSystemPowerAdjacent != null ? new ArrayList<>(_subSystemPowerAdjacent) : null;
 		if (Configs.MULTI_THREAD_NUMBER > 0) {
-			RoutingTableUpdateThread.add(new LSARouterRunnable(neighboursWithMetric, power, subSystemPower));
+			RoutingTableUpdateThread.addLSAUpdate(() -> lockAndUpdateLSA(neighboursWithMetric, power, subSystemPower));
 		} else {
 			lockAndUpdateLSA(neighboursWithMetric, power, subSystemPower);
 		}
 	}
 
 	private void lockAndUpdateLSA(HashMap<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric, ArrayList<Pair<ILogisticsPowerProvider, List<IFilter>>> power, ArrayList<Pair<ISubSystemPowerProvider, List<IFilter>>> subSystemPower) {
+		LSA lsa = new LSA(neighboursWithMetric, power, subSystemPower);
 		ServerRouter.SharedLSADatabasewriteLock.lock();
-		_myLsa.neighboursWithMetric = neighboursWithMetric;
-		_myLsa.power = power;
-		_myLsa.subSystemPower = subSystemPower;
+		// the router might have been destroyed while this update was queued
+		if (ServerRouter.SharedLSADatabase.get().get(simpleID) == _myLsa) {
+			logLSAChanges(_myLsa, lsa);
+			ServerRouter.publishLSA(simpleID, lsa);
+			_myLsa = lsa;
+		}
 		ServerRouter.SharedLSADatabasewriteLock.unlock();
 	}
 
+	/**
+	 * Diffs the new LSA against the current one. Links that only got worse
+	 * are logged on their own, so that routers which never used them can
+	 * skip the recalculation.
+	 */
+	private void logLSAChanges(LSA oldLsa, LSA newLsa) {
+		if (!Objects.equals(oldLsa.power, newLsa.power) || !Objects.equals(oldLsa.subSystemPower, newLsa.subSystemPower)) {
+			ServerRouter.SharedLSAChangeLog.routerChanged(simpleID);
+			return;
+		}
+		for (Entry<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> entry : newLsa.neighboursWithMetric.entrySet()) {
+			Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer> oldMetric = oldLsa.neighboursWithMetric.get(entry.getKey());
+			Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer> newMetric = entry.getValue();
+			if (oldMetric == null || newMetric.getValue1() < oldMetric.getValue1() || !oldMetric.getValue2().containsAll(newMetric.getValue2()) || !newMetric.getValue3().containsAll(oldMetric.getValue3())) {
+				// new link, or cheaper, more capable or less filtered than before
+				ServerRouter.SharedLSAChangeLog.routerChanged(simpleID);
+				return;
+			}
+			if (!oldMetric.equals(newMetric)) {
+				ServerRouter.SharedLSAChangeLog.linkChanged(simpleID, entry.getKey().getSimpleID());
+			}
+		}
+		oldLsa.neighboursWithMetric.keySet().stream()
+				.filter(router -> !newLsa.neighboursWithMetric.containsKey(router))
+				.forEach(router -> ServerRouter.SharedLSAChangeLog.linkChanged(simpleID, router.getSimpleID()));
+	}
+
+	/**
+	 * Checks whether anything the current routing table was calculated from
+	 * has changed.
+	 */
+	private boolean isRouteTableAffected(RouteTableDependencies dependencies) {
+		if (dependencies == null) {
+			return true;
+		}
+		if (ServerRouter.SharedLSAChangeLog.affects(dependencies.lsaGeneration, simpleID, dependencies.expandedVia)) {
+			return true;
+		}
+		// pipes being loaded or unloaded do not change any LSA, but still change the routes
+		for (int id = 1; id < dependencies.expandedVia.length; id++) {
+			if (dependencies.expandedVia[id] != 0 && !isRouterActive(id)) {
+				return true;
+			}
+		}
+		for (int id = dependencies.inactive.nextSetBit(0); id >= 0; id = dependencies.inactive.nextSetBit(id + 1)) {
+			if (isRouterActive(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isRouterActive(int simpleID) {
+		IRouter router = SimpleServiceLocator.routerManager.getRouterUnsafe(simpleID, false);
+		return router != null && router.getCachedPipe() != null;
+	}
+
+	/**
+	 * Called by the {@link RoutingTableUpdateThread} pool for a queued
+	 * routing table update.
+	 */
+	public void updateRouteTable(int version_to_update_to, LSADatabaseSnapshot snapshot) {
+		CoreRoutedPipe p = getCachedPipe();
+		if (p == null) {
+			return;
+		}
+		if (p.stillNeedReplace()) {
+			// we can't touch the routing table, untill Update() has been called on every pipe. The pipe will queue itself again.
+			return;
+		}
+		CreateRouteTable(version_to_update_to, new DummyRoutingDebugAdapter(), snapshot);
+	}
+
 	public void CreateRouteTable(int version_to_update_to) {
 		CreateRouteTable(version_to_update_to, new DummyRoutingDebugAdapter());
 	}
 
+	public void CreateRouteTable(int version_to_update_to, IRoutingDebugAdapter debug) {
+		CreateRouteTable(version_to_update_to, debug, null);
+	}
+
 	/**
 	 * Create a route table from the link state database
+	 *
+	 * @param snapshot the LSA database to use, or null to take a new snapshot
 	 */
-	public void CreateRouteTable(int version_to_update_to, IRoutingDebugAdapter debug) {
+	private void CreateRouteTable(int version_to_update_to, IRoutingDebugAdapter debug, LSADatabaseSnapshot snapshot) {
 
-		if (ServerRouter._lastLSAVersion[simpleID] >= version_to_update_to && !debug.independent()) {
+		if (_lastLSAVersion >= version_to_update_to && !debug.independent()) {
 			return; // this update is already done.
 		}
 
+		if (Configs.INCREMENTAL_ROUTING && !debug.independent() && !debug.isDebug()) {
+			RouteTableDependencies dependencies = _routeTableDependencies;
+			// everything up to this generation will have been checked, later changes are checked next time
+			long generation = ServerRouter.SharedLSAChangeLog.getGeneration();
+			if (!isRouteTableAffected(dependencies)) {
+				// nothing this routing table depends on has changed, just move it to the new version
+				markRouteTableUpToDate(version_to_update_to, new RouteTableDependencies(generation, dependencies.expandedVia, dependencies.inactive));
+				return;
+			}
+		}
+
 		//Dijkstra!
 
 		debug.init();
 
 		int routingTableSize = ServerRouter.getBiggestSimpleID();
 		if (routingTableSize == 0) {
-			routingTableSize = ServerRouter.SharedLSADatabase.length; // deliberatly ignoring concurrent access, either the old or the version of the size will work, this is just an approximate number.
+			routingTableSize = ServerRouter.SharedLSADatabase.get().database.length; // this is just an approximate number.
 		}
 
 		/**
@@ -757,6 +801,10 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 			filterList.add(null);
 		}
 
+		// the router every router was reached from, and the routers skipped because their pipe isn't loaded
+		int[] expandedVia = new int[ServerRouter.getBiggestSimpleID()];
+		BitSet inactive = new BitSet(ServerRouter.getBiggestSimpleID());
+
 		/** The total cost for the candidate route **/
 		PriorityQueue<ExitRoute> candidatesCost = new PriorityQueue<>((int) Math.sqrt(routingTableSize)); // sqrt nodes is a good guess for the total number of candidate nodes at once.
 
@@ -767,6 +815,7 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 			IRouter newRouter = pipe.getKey();
 			if (newRouter != null) {
 				ExitRoute newER = new ExitRoute(newRouter, newRouter, currentE.distanceToDestination, currentE.connectionDetails, currentE.filters, new ArrayList<>(0), currentE.blockDistance);
+				newER.previousHop = simpleID;
 				candidatesCost.add(newER);
 				debug.newCanidate(newER);
 			}
@@ -774,20 +823,21 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 
 		debug.start(candidatesCost, closedSet, filterList);
 
-		ServerRouter.SharedLSADatabasereadLock.lock(); // readlock, not inside the while - too costly to aquire, then release.
+		if (snapshot == null) {
+			snapshot = ServerRouter.snapshotLSADatabase();
+		}
+		LSA[] lsaDatabase = snapshot.database;
+		long lsaGeneration = snapshot.generation;
 		ExitRoute lowestCostNode;
 		while ((lowestCostNode = candidatesCost.poll()) != null) {
 			if (!lowestCostNode.hasActivePipe()) {
+				if (lowestCostNode.destination != null) {
+					inactive.set(lowestCostNode.destination.getSimpleID());
+				}
 				continue;
 			}
 
-			if (debug.isDebug()) {
-				ServerRouter.SharedLSADatabasereadLock.unlock();
-			}
 			debug.nextPipe(lowestCostNode);
-			if (debug.isDebug()) {
-				ServerRouter.SharedLSADatabasereadLock.lock();
-			}
 
 			for (ExitRoute e : candidatesCost) {
 				e.debug.isNewlyAddedCanidate = false;
@@ -841,10 +891,17 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 				}
 			}
 
+			int expandedID = lowestCostNode.destination.getSimpleID();
+			if (expandedVia[expandedID] == 0) {
+				expandedVia[expandedID] = lowestCostNode.previousHop;
+			} else if (expandedVia[expandedID] != lowestCostNode.previousHop) {
+				expandedVia[expandedID] = LSAChangeLog.EXPANDED_MULTIPLE;
+			}
+
 			//Add new candidates from the newly approved route
 			LSA lsa = null;
-			if (lowestCostNode.destination.getSimpleID() < ServerRouter.SharedLSADatabase.length) {
-				lsa = ServerRouter.SharedLSADatabase[lowestCostNode.destination.getSimpleID()];
+			if (lowestCostNode.destination.getSimpleID() < lsaDatabase.length) {
+				lsa = lsaDatabase[lowestCostNode.destination.getSimpleID()];
 			}
 			if (lsa == null) {
 				lowestCostNode.removeFlags(lowestCostClosedFlags);
@@ -891,6 +948,7 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 				if (!newCT.isEmpty()) {
 					ExitRoute next = new ExitRoute(lowestCostNode.root, newCandidate.getKey(), candidateCost, newCT, lowestCostNode.filters, newCandidate.getValue().getValue3(), blockDistance);
 					next.debug.isTraced = lowestCostNode.debug.isTraced;
+					next.previousHop = expandedID;
 					candidatesCost.add(next);
 					debug.newCanidate(next);
 				}
@@ -918,25 +976,14 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 				closedSet.set(lowestCostNode.destination.getSimpleID(), lowestCostClosedFlags);
 			}
 
-			if (debug.isDebug()) {
-				ServerRouter.SharedLSADatabasereadLock.unlock();
-			}
 			debug.handledPipe();
-			if (debug.isDebug()) {
-				ServerRouter.SharedLSADatabasereadLock.lock();
-			}
 		}
-		ServerRouter.SharedLSADatabasereadLock.unlock();
 
 		debug.stepOneDone();
 
 		//Build route table
-		ArrayList<List<ExitRoute>> routeTable = new ArrayList<>(ServerRouter.getBiggestSimpleID() + 1);
-		while (simpleID >= routeTable.size()) {
-			routeTable.add(null);
-		}
-		routeTable.set(simpleID, new OneList<>(new ExitRoute(this, this, null, null, 0, EnumSet
-				.allOf(PipeRoutingConnectionType.class), 0)));
+		List<ExitRoute> routes = new ArrayList<>(routeCosts.size() + 1);
+		routes.add(new ExitRoute(this, this, null, null, 0, EnumSet.allOf(PipeRoutingConnectionType.class), 0));
 
 		for (ExitRoute node : routeCosts) {
 			IRouter firstHop = node.root;
@@ -946,34 +993,22 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 			}
 			node.root = this; // replace the root with this, rather than the first hop.
 			node.exitOrientation = hop.exitOrientation;
-			while (node.destination.getSimpleID() >= routeTable
-					.size()) { // the array will not expand, as it is init'd to contain enough elements
-				routeTable.add(null);
-			}
-
-			List<ExitRoute> current = routeTable.get(node.destination.getSimpleID());
-			if (current != null && !current.isEmpty()) {
-				List<ExitRoute> list = new ArrayList<>(current);
-				list.add(node);
-				routeTable.set(node.destination.getSimpleID(), Collections.unmodifiableList(list));
-			} else {
-				routeTable.set(node.destination.getSimpleID(), new OneList<>(node));
-			}
+			routes.add(node);
 		}
+		RouteTable routeTable = new RouteTable(this, ServerRouter.getBiggestSimpleID() + 1, routes);
 		debug.stepTwoDone();
 		if (!debug.independent()) {
 			routingTableUpdateWriteLock.lock();
 			if (version_to_update_to == _LSAVersion) {
-				ServerRouter.SharedLSADatabasereadLock.lock();
-
-				if (ServerRouter._lastLSAVersion[simpleID] < version_to_update_to) {
-					ServerRouter._lastLSAVersion[simpleID] = version_to_update_to;
+				if (_lastLSAVersion < version_to_update_to) {
+					_lastLSAVersion = version_to_update_to;
 					_LPPowerTable = Collections.unmodifiableList(powerTable);
 					_SubSystemPowerTable = Collections.unmodifiableList(subSystemPower);
-					_routeTable = Collections.unmodifiableList(routeTable);
-					_routeCosts = Collections.unmodifiableList(routeCosts);
+					_routeTable = routeTable;
+					if (Configs.INCREMENTAL_ROUTING) {
+						_routeTableDependencies = new RouteTableDependencies(lsaGeneration, expandedVia, inactive);
+					}
 				}
-				ServerRouter.SharedLSADatabasereadLock.unlock();
 			}
 			routingTableUpdateWriteLock.unlock();
 		}
@@ -984,6 +1019,15 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		debug.done();
 	}
 
+	private void markRouteTableUpToDate(int version_to_update_to, RouteTableDependencies dependencies) {
+		routingTableUpdateWriteLock.lock();
+		if (version_to_update_to == _LSAVersion && _lastLSAVersion < version_to_update_to) {
+			_lastLSAVersion = version_to_update_to;
+			_routeTableDependencies = dependencies;
+		}
+		routingTableUpdateWriteLock.unlock();
+	}
+
 	@Override
 	public void act(BitSet hasBeenProcessed, IRAction actor) {
 		if (hasBeenProcessed.get(simpleID)) {
@@ -1007,9 +1051,10 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	 */
 	@Override
 	public void destroy() {
-		ServerRouter.SharedLSADatabasewriteLock.lock(); // take a write lock so that we don't overlap with any ongoing route updates
-		if (simpleID < ServerRouter.SharedLSADatabase.length) {
-			ServerRouter.SharedLSADatabase[simpleID] = null;
+		ServerRouter.SharedLSADatabasewriteLock.lock();
+		if (ServerRouter.SharedLSADatabase.get().get(simpleID) == _myLsa) {
+			ServerRouter.SharedLSAChangeLog.routerChanged(simpleID);
+			ServerRouter.publishLSA(simpleID, null);
 		}
 		ServerRouter.SharedLSADatabasewriteLock.unlock();
 		removeAllInterests();
@@ -1198,27 +1243,12 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	@Override
 	public ExitRoute getExitFor(int id, boolean active, ItemIdentifier type) {
 		ensureRouteTableIsUpToDate(true);
-		if (getRouteTable().size() <= id || getRouteTable().get(id) == null) {
+		RouteTable table = _routeTable;
+		int entry = ServerRouter.findRoutableEntry(table, id, active, type);
+		if (entry < 0) {
 			return null;
 		}
-		outer:
-		for (ExitRoute exit : getRouteTable().get(id)) {
-			if (exit.containsFlag(PipeRoutingConnectionType.canRouteTo)) {
-				for (IFilter filter : exit.filters) {
-					if (!active) {
-						if (filter.blockRouting() || filter.isBlocked() == filter.isFilteredItem(type)) {
-							continue outer;
-						}
-					} else {
-						if ((filter.blockProvider() && filter.blockCrafting()) || filter.isBlocked() == filter.isFilteredItem(type)) {
-							continue outer;
-						}
-					}
-				}
-				return exit;
-			}
-		}
-		return null;
+		return table.getRoute(entry);
 	}
 
 	@Override
@@ -1227,17 +1257,19 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 			return false;
 		}
 		ensureRouteTableIsUpToDate(true);
-		if (getRouteTable().size() <= id) {
-			return false;
-		}
-		List<ExitRoute> source = getRouteTable().get(id);
-		if (source == null) {
-			return false;
-		}
+		return ServerRouter.findRoutableEntry(_routeTable, id, active, type) >= 0;
+	}
+
+	/**
+	 * @return the closest entry in the routing table the given item can be
+	 * routed over to the given destination, or -1 if there is none.
+	 */
+	private static int findRoutableEntry(RouteTable table, int id, boolean active, ItemIdentifier type) {
+		int end = table.getEndEntry(id);
 		outer:
-		for (ExitRoute exit : source) {
-			if (exit.containsFlag(PipeRoutingConnectionType.canRouteTo)) {
-				for (IFilter filter : exit.filters) {
+		for (int entry = table.getFirstEntry(id); entry < end; entry++) {
+			if (table.hasFlag(entry, PipeRoutingConnectionType.canRouteTo)) {
+				for (IFilter filter : table.getFilters(entry)) {
 					if (!active) {
 						if (filter.blockRouting() || filter.isBlocked() == filter.isFilteredItem(type)) {
 							continue outer;
@@ -1248,10 +1280,10 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 						}
 					}
 				}
-				return true;
+				return entry;
 			}
 		}
-		return false;
+		return -1;
 	}
 
 	@Override
@@ -1317,11 +1349,13 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	private void removeGenericInterest() {
 		_hasGenericInterest = false;
 		ServerRouter._genericInterests.remove(this);
+		ServerRouter._interestIndex.removeGeneric(simpleID);
 	}
 
 	private void declareGenericInterest() {
 		_hasGenericInterest = true;
 		ServerRouter._genericInterests.add(this);
+		ServerRouter._interestIndex.addGeneric(simpleID);
 	}
 
 	private void addInterest(ItemIdentifier items) {
@@ -1331,6 +1365,7 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 			ServerRouter._globalSpecificInterests.put(items, interests);
 		}
 		interests.add(this);
+		ServerRouter._interestIndex.addSpecific(items, simpleID);
 	}
 
 	private void removeInterest(ItemIdentifier p2) {
@@ -1342,7 +1377,7 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		if (interests.isEmpty()) {
 			ServerRouter._globalSpecificInterests.remove(p2);
 		}
-
+		ServerRouter._interestIndex.removeSpecific(p2, simpleID);
 	}
 
 	public boolean hasGenericInterest() {
@@ -1353,79 +1388,38 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 		return _hasInterestIn.contains(item);
 	}
 
+	/**
+	 * @param item the item, or null for the routers with generic interests only
+	 * @return the simpleIDs of all routers interested in the item, as a new
+	 * BitSet owned by the caller
+	 */
 	public static BitSet getRoutersInterestedIn(ItemIdentifier item) {
-		BitSet s = new BitSet(ServerRouter.getBiggestSimpleID() + 1);
-		if (ServerRouter._genericInterests != null) {
-			for (IRouter r : ServerRouter._genericInterests) {
-				s.set(r.getSimpleID());
-			}
-		}
-		if (item == null) {
-			return s;
-		}
-		Set<IRouter> specifics = ServerRouter._globalSpecificInterests.get(item);
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		specifics = ServerRouter._globalSpecificInterests.get(item.getUndamaged());
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		specifics = ServerRouter._globalSpecificInterests.get(item.getIgnoringNBT());
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		specifics = ServerRouter._globalSpecificInterests.get(item.getUndamaged().getIgnoringNBT());
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		specifics = ServerRouter._globalSpecificInterests.get(item.getIgnoringData());
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		specifics = ServerRouter._globalSpecificInterests.get(item.getIgnoringData().getIgnoringNBT());
-		if (specifics != null) {
-			for (IRouter r : specifics) {
-				s.set(r.getSimpleID());
-			}
-		}
-		return s;
+		return ServerRouter._interestIndex.getInterestedIn(item);
 	}
 
+	/**
+	 * @return the simpleIDs of all routers interested in the resource, as a
+	 * new BitSet owned by the caller
+	 */
 	public static BitSet getRoutersInterestedIn(IResource item) {
 		if (item instanceof ItemResource) {
 			return ServerRouter.getRoutersInterestedIn(((ItemResource) item).getItem());
 		} else if (item instanceof FluidResource) {
 			return ServerRouter.getRoutersInterestedIn(((FluidResource) item).getFluid().getItemIdentifier());
 		} else if (item instanceof DictResource) {
-			DictResource dict = (DictResource) item;
-			BitSet s = new BitSet(ServerRouter.getBiggestSimpleID() + 1);
-			if (ServerRouter._genericInterests != null) {
-				for (IRouter r : ServerRouter._genericInterests) {
-					s.set(r.getSimpleID());
-				}
-			}
-			ServerRouter._globalSpecificInterests.entrySet().stream()
-					.filter(entry -> dict.matches(entry.getKey(), IResource.MatchSettings.NORMAL)).forEach(entry -> {
-				for (IRouter r : entry.getValue()) {
-					s.set(r.getSimpleID());
-				}
-			});
-			return s;
+			return ServerRouter._interestIndex.getInterestedIn((DictResource) item);
 		}
 		return new BitSet(ServerRouter.getBiggestSimpleID() + 1);
 	}
 
+	/**
+	 * @return a number that changes every time any router changes its
+	 * interests
+	 */
+	public static int getInterestVersion() {
+		return ServerRouter._interestIndex.getVersion();
+	}
+
 	@Override
 	public int compareTo(ServerRouter o) {
 		return simpleID - o.simpleID;
@@ -1434,12 +1428,8 @@ public class ServerRouter implements IRouter, Comparable<ServerRouter> {
 	@Override
 	public List<ExitRoute> getDistanceTo(IRouter r) {
 		ensureRouteTableIsUpToDate(true);
-		int id = r.getSimpleID();
-		if (_routeTable.size() <= id) {
-			return new ArrayList<>(0);
-		}
-		List<ExitRoute> result = _routeTable.get(id);
-		return result != null ? result : new ArrayList<>(0);
+		List<ExitRoute> result = _routeTable.getRoutes(r.getSimpleID());
+		return result != null ? result : Collections.emptyList();
 	}
 
 	public static Map<ItemIdentifier, Set<IRouter>> getInterestedInSpecifics() {
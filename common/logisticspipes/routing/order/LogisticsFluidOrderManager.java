@@ -10,7 +10,7 @@ import logisticspipes.utils.FluidIdentifier;
 
 public class LogisticsFluidOrderManager extends LogisticsOrderManager<LogisticsFluidOrder, FluidIdentifier> {
 
-	private static class IC implements LogisticsOrderLinkedList.IIdentityProvider<LogisticsFluidOrder, FluidIdentifier> {
+	private static class IC implements LogisticsOrderQueues.IIdentityProvider<LogisticsFluidOrder, FluidIdentifier> {
 
 		@Override
 		public FluidIdentifier getIdentity(LogisticsFluidOrder o) {
@@ -21,14 +21,19 @@ public class LogisticsFluidOrderManager extends LogisticsOrderManager<LogisticsF
 		public boolean isExtra(LogisticsFluidOrder o) {
 			return false;
 		}
+
+		@Override
+		public FluidIdentifier getAmountKey(LogisticsFluidOrder o) {
+			return o.getFluid();
+		}
 	}
 
 	public LogisticsFluidOrderManager(ILPPositionProvider pos) {
-		super(new LogisticsOrderLinkedList<LogisticsFluidOrder, FluidIdentifier>(new IC()), pos);
+		super(new LogisticsOrderQueues<LogisticsFluidOrder, FluidIdentifier>(new IC()), pos);
 	}
 
 	public LogisticsFluidOrderManager(IChangeListener listener, ILPPositionProvider pos) {
-		super(listener, pos, new LogisticsOrderLinkedList<LogisticsFluidOrder, FluidIdentifier>(new IC()));
+		super(listener, pos, new LogisticsOrderQueues<LogisticsFluidOrder, FluidIdentifier>(new IC()));
 	}
 
 	@Override
@@ -48,13 +53,6 @@ public class LogisticsFluidOrderManager extends LogisticsOrderManager<LogisticsF
 	}
 
 	public Integer totalFluidsCountInOrders(FluidIdentifier fluid) {
-		int itemCount = 0;
-		for (LogisticsFluidOrder request : _orders) {
-			if (!request.getFluid().equals(fluid)) {
-				continue;
-			}
-			itemCount += request.getAmount();
-		}
-		return itemCount;
+		return _orders.getAmountFor(fluid);
 	}
 }
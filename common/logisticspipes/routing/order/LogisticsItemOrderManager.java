@@ -15,7 +15,7 @@ import logisticspipes.utils.item.ItemIdentifierStack;
 
 public class LogisticsItemOrderManager extends LogisticsOrderManager<LogisticsItemOrder, DictResource.Identifier> {
 
-	private static class IC implements LogisticsOrderLinkedList.IIdentityProvider<LogisticsItemOrder, DictResource.Identifier> {
+	private static class IC implements LogisticsOrderQueues.IIdentityProvider<LogisticsItemOrder, DictResource.Identifier> {
 
 		@Override
 		public DictResource.Identifier getIdentity(LogisticsItemOrder o) {
@@ -29,6 +29,11 @@ public class LogisticsItemOrderManager extends LogisticsOrderManager<LogisticsIt
 		public boolean isExtra(LogisticsItemOrder o) {
 			return o instanceof LogisticsItemOrderExtra;
 		}
+
+		@Override
+		public ItemIdentifier getAmountKey(LogisticsItemOrder o) {
+			return o.getResource().getItem();
+		}
 	}
 
 	private static class LogisticsItemOrderExtra extends LogisticsItemOrder {
@@ -39,11 +44,11 @@ public class LogisticsItemOrderManager extends LogisticsOrderManager<LogisticsIt
 	}
 
 	public LogisticsItemOrderManager(ILPPositionProvider pos) {
-		super(new LogisticsOrderLinkedList<LogisticsItemOrder, DictResource.Identifier>(new IC()), pos);
+		super(new LogisticsOrderQueues<LogisticsItemOrder, DictResource.Identifier>(new IC()), pos);
 	}
 
 	public LogisticsItemOrderManager(IChangeListener listener, ILPPositionProvider pos) {
-		super(listener, pos, new LogisticsOrderLinkedList<LogisticsItemOrder, DictResource.Identifier>(new IC()));
+		super(listener, pos, new LogisticsOrderQueues<LogisticsItemOrder, DictResource.Identifier>(new IC()));
 	}
 
 	@Override
@@ -91,6 +96,7 @@ public class LogisticsItemOrderManager extends LogisticsOrderManager<LogisticsIt
 					}
 				} else {
 					order.getResource().getItemStack().setStackSize(order.getAmount() - itemsToRemove);
+					_orders.amountChanged(order);
 					break;
 				}
 			}
@@ -99,13 +105,6 @@ public class LogisticsItemOrderManager extends LogisticsOrderManager<LogisticsIt
 	}
 
 	public int totalItemsCountInOrders(ItemIdentifier item) {
-		int itemCount = 0;
-		for (LogisticsItemOrder request : _orders) {
-			if (!request.getResource().getItem().equals(item)) {
-				continue;
-			}
-			itemCount += request.getResource().stack.getStackSize();
-		}
-		return itemCount;
+		return _orders.getAmountFor(item);
 	}
 }
@@ -38,6 +38,13 @@ public abstract class LogisticsOrder implements IOrderInfoProvider {
 	private byte machineProgress = 0;
 	private List<IDistanceTracker> trackers = new ArrayList<>();
 
+	/*
+	 * Queue Information, maintained by LogisticsOrderQueues
+	 */
+	long queuePosition;
+	int queueDestination;
+	int queuedAmount;
+
 	public LogisticsOrder(ResourceType type, IAdditionalTargetInformation info) {
 		if (type == null) {
 			throw new NullPointerException();
@@ -7,10 +7,8 @@
 
 package logisticspipes.routing.order;
 
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
 import javax.annotation.Nonnull;
 
 import net.minecraft.entity.player.EntityPlayer;
@@ -28,17 +26,17 @@ import logisticspipes.utils.item.ItemIdentifierStack;
 
 public abstract class LogisticsOrderManager<T extends LogisticsOrder, I> implements Iterable<T> {
 
-	protected final LogisticsOrderLinkedList<T, I> _orders;
+	protected final LogisticsOrderQueues<T, I> _orders;
 	protected IChangeListener listener = null;
 	protected PlayerCollectionList watchingPlayers = new PlayerCollectionList();
 	private ILPPositionProvider pos;
 
-	public LogisticsOrderManager(LogisticsOrderLinkedList<T, I> orders, ILPPositionProvider pos) {
+	public LogisticsOrderManager(LogisticsOrderQueues<T, I> orders, ILPPositionProvider pos) {
 		_orders = orders;
 		this.pos = pos;
 	}
 
-	public LogisticsOrderManager(IChangeListener listener, ILPPositionProvider pos, LogisticsOrderLinkedList<T, I> orders) {
+	public LogisticsOrderManager(IChangeListener listener, ILPPositionProvider pos, LogisticsOrderQueues<T, I> orders) {
 		this(orders, pos);
 		this.listener = listener;
 	}
@@ -84,52 +82,30 @@ public abstract class LogisticsOrderManager<T extends LogisticsOrder, I> impleme
 		return peekAtTopRequest(type) != null;
 	}
 
-	/* only multi-access SAFE when type is null; all other access patterns may change the state of the stack so the returned element is on top*/
-	@SuppressWarnings("unchecked")
+	/**
+	 * Makes the earliest queued order of the given types the current order,
+	 * which all following sends and failures refer to.
+	 */
 	public T peekAtTopRequest(ResourceType... type) {
-		List<ResourceType> typeList = Arrays.asList(type);
-		if (_orders.size() == 0) {
-			return null;
-		}
-		T top = (T) _orders.getFirst().setInProgress(true);
-		int loopCount = 0;
-		while (!typeList.contains(top.getType())) {
-			loopCount++;
-			if (loopCount > _orders.size()) {
-				return null;
-			}
-			deferSend(); // sets the new top to InProgress
-			top = _orders.getFirst();
-		}
-		return top;
+		return _orders.select(type);
 	}
 
-	@SuppressWarnings("unchecked")
 	public void sendSuccessfull(int number, boolean defersend, IRoutedItem item) {
-		_orders.getFirst().reduceAmountBy(number);
-		if (_orders.getFirst().isWatched() && item != null) {
+		T order = _orders.getFirst();
+		order.reduceAmountBy(number);
+		_orders.amountChanged(order);
+		if (order.isWatched() && item != null) {
 			IDistanceTracker tracker = new DistanceTracker();
 			item.setDistanceTracker(tracker);
-			_orders.getFirst().addDistanceTracker(tracker);
+			order.addDistanceTracker(tracker);
 		}
-		int destination = _orders.getFirst().getRouterId();
-		if (_orders.getFirst().getAmount() <= 0) {
-			LogisticsOrder order = _orders.removeFirst();
+		if (order.getAmount() <= 0) {
+			_orders.removeFirst();
 			order.setFinished(true);
 			order.setInProgress(false);
 		}
-		if (!_orders.isEmpty()) {
-			LogisticsOrder start = _orders.getFirst();
-			if (defersend && destination == start.getRouterId()) {
-				_orders.addLast((T) _orders.removeFirst().setInProgress(false));
-				while (start != _orders.getFirst() && destination == _orders.getFirst().getRouterId()) {
-					_orders.addLast(_orders.removeFirst());
-				}
-				if (start == _orders.getFirst()) {
-					_orders.addLast(_orders.removeFirst());
-				}
-				_orders.getFirst().setInProgress(true);
-			}
+		if (defersend) {
+			_orders.deferDestination(order.getType(), order.getRouterId());
 		}
 		listen();
 	}
@@ -140,25 +116,16 @@ public abstract class LogisticsOrderManager<T extends LogisticsOrder, I> impleme
 			order.setFinished(true);
 			order.setInProgress(false);
 		}
-		if (!_orders.isEmpty()) {
-			_orders.getFirst().setInProgress(true);
-		}
 		listen();
 	}
 
-	@SuppressWarnings("unchecked")
 	public void deferSend() {
-		_orders.addLast((T) _orders.removeFirst().setInProgress(false));
-		_orders.getFirst().setInProgress(true);
+		_orders.deferFirst();
 		listen();
 	}
 
 	public int totalAmountCountInAllOrders() {
-		int amount = 0;
-		for (LogisticsOrder request : _orders) {
-			amount += request.getAmount();
-		}
-		return amount;
+		return _orders.getTotalAmount();
 	}
 
 	public void setMachineProgress(byte progress) {
@@ -0,0 +1,297 @@
+package logisticspipes.routing.order;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+
+import logisticspipes.routing.order.IOrderInfoProvider.ResourceType;
+
+/**
+ * The orders of one order manager, queued separately for every
+ * {@link ResourceType}.
+ *
+ * Within the queue of a type, the orders are grouped by destination and the
+ * destinations take turns: the first order of the first destination is the
+ * head of the queue, and deferring a destination moves its whole group behind
+ * all other destinations without touching any order. Every order carries the
+ * sequence number of when it was queued, which decides between the heads of
+ * several types.
+ *
+ * The amount still to be sent is counted per amount key and in total, so
+ * reserved amounts are known without walking the orders. Changes to the
+ * amount of a queued order must be reported with {@link #amountChanged}.
+ */
+public class LogisticsOrderQueues<E extends LogisticsOrder, I> implements Iterable<E> {
+
+	private static final Comparator<LogisticsOrder> QUEUE_ORDER = Comparator.comparingLong(order -> order.queuePosition);
+
+	private final IIdentityProvider<E, I> identifyer;
+	private final Map<ResourceType, TypeQueue<E>> queues = new EnumMap<>(ResourceType.class);
+	private final Map<Object, Integer> amounts = new HashMap<>();
+	private final Map<I, Integer> extraSize = new HashMap<>();
+	private int totalAmount = 0;
+	private int globalExtraCount = 0;
+	private int size = 0;
+	private long nextPosition = 0;
+	private E current = null;
+
+	public LogisticsOrderQueues(IIdentityProvider<E, I> identifyer) {
+		this.identifyer = identifyer;
+		for (ResourceType type : ResourceType.values()) {
+			queues.put(type, new TypeQueue<>());
+		}
+	}
+
+	public void addLast(E order) {
+		order.queuePosition = nextPosition++;
+		order.queueDestination = order.getRouterId();
+		queues.get(order.getType()).add(order);
+		size++;
+		order.queuedAmount = 0;
+		amountChanged(order);
+		I ident = identifyer.getIdentity(order);
+		if (identifyer.isExtra(order)) {
+			extraSize.merge(ident, 1, Integer::sum);
+			globalExtraCount++;
+		} else if (extraSize.getOrDefault(ident, 0) > 0) {
+			// extras of the item are handed out after the orders for it
+			for (TypeQueue<E> queue : queues.values()) {
+				for (E extra : queue.collect(lElem -> identifyer.isExtra(lElem) && ident.equals(identifyer.getIdentity(lElem)))) {
+					queue.remove(extra);
+					extra.queuePosition = nextPosition++;
+					queue.add(extra);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Makes the earliest queued head of the given types the current order.
+	 *
+	 * @return the current order, or null if there is no order of these types
+	 */
+	public E select(ResourceType... types) {
+		E top = null;
+		for (ResourceType type : types) {
+			E head = queues.get(type).peek();
+			if (head != null && (top == null || head.queuePosition < top.queuePosition)) {
+				top = head;
+			}
+		}
+		if (top != null) {
+			makeCurrent(top);
+		}
+		return top;
+	}
+
+	/**
+	 * @return the current order, which is the earliest queued head of all
+	 * types if no order was selected
+	 */
+	public E getFirst() {
+		if (current == null) {
+			E top = select(ResourceType.values());
+			if (top == null) {
+				throw new IllegalStateException("no orders queued");
+			}
+		}
+		return current;
+	}
+
+	public E removeFirst() {
+		E elem = getFirst();
+		remove(elem);
+		return elem;
+	}
+
+	public void removeAll(List<E> orders) {
+		for (E order : orders) {
+			remove(order);
+		}
+	}
+
+	/**
+	 * Moves the current order behind all other orders of its destination and
+	 * gives the other destinations of its type their turn first.
+	 */
+	public void deferFirst() {
+		E elem = getFirst();
+		TypeQueue<E> queue = queues.get(elem.getType());
+		queue.remove(elem);
+		elem.queuePosition = nextPosition++;
+		queue.add(elem);
+		queue.deferDestination(elem.queueDestination);
+		elem.setInProgress(false);
+		current = null;
+	}
+
+	/**
+	 * Gives all other destinations of the type their turn before the given
+	 * destination gets its next one.
+	 */
+	public void deferDestination(ResourceType type, int destination) {
+		if (queues.get(type).deferDestination(destination) && current != null && current.getType() == type && current.queueDestination == destination) {
+			current.setInProgress(false);
+			current = null;
+		}
+	}
+
+	/**
+	 * Updates the counted amounts after the amount of a queued order changed.
+	 */
+	public void amountChanged(E order) {
+		int delta = order.getAmount() - order.queuedAmount;
+		if (delta != 0) {
+			order.queuedAmount += delta;
+			totalAmount += delta;
+			amounts.merge(identifyer.getAmountKey(order), delta, Integer::sum);
+		}
+	}
+
+	/**
+	 * @return the amount still to be sent for all orders with the amount key
+	 */
+	public int getAmountFor(Object amountKey) {
+		return amounts.getOrDefault(amountKey, 0);
+	}
+
+	public int getTotalAmount() {
+		return totalAmount;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean hasExtras() {
+		return globalExtraCount != 0;
+	}
+
+	/**
+	 * @return an iterator over a copy of all orders, in the order they were
+	 * queued
+	 */
+	@Nonnull
+	@Override
+	public Iterator<E> iterator() {
+		List<E> all = new ArrayList<>(size);
+		for (TypeQueue<E> queue : queues.values()) {
+			queue.addAllTo(all);
+		}
+		all.sort(LogisticsOrderQueues.QUEUE_ORDER);
+		return Collections.unmodifiableList(all).iterator();
+	}
+
+	private void makeCurrent(E order) {
+		if (current != order) {
+			if (current != null) {
+				current.setInProgress(false);
+			}
+			current = order;
+		}
+		order.setInProgress(true);
+	}
+
+	private void remove(E elem) {
+		if (!queues.get(elem.getType()).remove(elem)) {
+			return;
+		}
+		size--;
+		totalAmount -= elem.queuedAmount;
+		Object amountKey = identifyer.getAmountKey(elem);
+		int left = amounts.getOrDefault(amountKey, 0) - elem.queuedAmount;
+		if (left == 0) {
+			amounts.remove(amountKey);
+		} else {
+			amounts.put(amountKey, left);
+		}
+		elem.queuedAmount = 0;
+		if (identifyer.isExtra(elem)) {
+			extraSize.computeIfPresent(identifyer.getIdentity(elem), (ident, prev) -> prev > 1 ? prev - 1 : null);
+			globalExtraCount--;
+		}
+		if (current == elem) {
+			current = null;
+		}
+	}
+
+	/**
+	 * The orders of one type, grouped by destination in turn order.
+	 */
+	private static class TypeQueue<E extends LogisticsOrder> {
+
+		private final LinkedHashMap<Integer, ArrayDeque<E>> destinations = new LinkedHashMap<>();
+
+		private E peek() {
+			Iterator<ArrayDeque<E>> iter = destinations.values().iterator();
+			return iter.hasNext() ? iter.next().peekFirst() : null;
+		}
+
+		private void add(E order) {
+			destinations.computeIfAbsent(order.queueDestination, key -> new ArrayDeque<>()).addLast(order);
+		}
+
+		private boolean remove(E order) {
+			ArrayDeque<E> orders = destinations.get(order.queueDestination);
+			if (orders == null || !orders.remove(order)) {
+				return false;
+			}
+			if (orders.isEmpty()) {
+				destinations.remove(order.queueDestination);
+			}
+			return true;
+		}
+
+		private boolean deferDestination(int destination) {
+			ArrayDeque<E> orders = destinations.remove(destination);
+			if (orders == null) {
+				return false;
+			}
+			destinations.put(destination, orders);
+			return true;
+		}
+
+		private List<E> collect(Predicate<E> filter) {
+			List<E> result = new ArrayList<>();
+			for (ArrayDeque<E> orders : destinations.values()) {
+				for (E order : orders) {
+					if (filter.test(order)) {
+						result.add(order);
+					}
+				}
+			}
+			return result;
+		}
+
+		private void addAllTo(List<E> list) {
+			for (ArrayDeque<E> orders : destinations.values()) {
+				list.addAll(orders);
+			}
+		}
+	}
+
+	public interface IIdentityProvider<A, B> {
+
+		B getIdentity(A o);
+
+		boolean isExtra(A o);
+
+		/**
+		 * @return the key the amount of the order is counted under
+		 */
+		Object getAmountKey(A o);
+	}
+}
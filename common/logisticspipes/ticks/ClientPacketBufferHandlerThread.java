@@ -1,14 +1,14 @@
 package logisticspipes.ticks;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.zip.GZIPInputStream;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
 import net.minecraft.entity.player.EntityPlayer;
 
@@ -19,6 +19,8 @@ import logisticspipes.network.abstractpackets.ModernPacket;
 import logisticspipes.network.packets.BufferTransfer;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.utils.tuples.Pair;
+import logisticspipes.utils.tuples.Triplet;
+import network.rs485.logisticspipes.util.ItemIdentifierDictionary;
 import network.rs485.logisticspipes.util.LPDataIOWrapper;
 
 public class ClientPacketBufferHandlerThread {
@@ -40,20 +42,6 @@ public class ClientPacketBufferHandlerThread {
 		return byteArrayOutputStream.toByteArray();
 	}
 
-	private static byte[] decompress(byte[] contentBytes) {
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		try {
-			GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(contentBytes));
-			int buffer;
-			while ((buffer = gzip.read()) != -1) {
-				out.write(buffer);
-			}
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		return out.toByteArray();
-	}
-
 	public void clientTick(TickEvent.ClientTickEvent event) {
 		if (event.phase != TickEvent.Phase.END) {
 			return;
@@ -111,11 +99,7 @@ public class ClientPacketBufferHandlerThread {
 							clearLock.lock();
 							try {
 								for (ModernPacket packet : clientList) {
-									output.writeByteArray(LPDataIOWrapper.collectData(dataOutput -> {
-										dataOutput.writeShort(packet.getId());
-										dataOutput.writeInt(packet.getDebugId());
-										packet.writeData(dataOutput);
-									}));
+									output.writeByteArray(LPDataIOWrapper.collectData(dataOutput -> PacketHandler.writePacket(dataOutput, packet)));
 								}
 							} finally {
 								clientList.clear();
@@ -187,16 +171,21 @@ public class ClientPacketBufferHandlerThread {
 
 		//Received compressed S->C data
 		private final LinkedList<byte[]> queue = new LinkedList<>();
-		//FIFO for deserialized S->C packets, decompressor adds, tickEnd removes
-		private final LinkedList<Pair<EntityPlayer, byte[]>> PacketBuffer = new LinkedList<>();
+		//FIFO for deserialized S->C packets with the dictionary of their connection, decompressor adds, tickEnd removes
+		private final LinkedList<Triplet<EntityPlayer, byte[], ItemIdentifierDictionary>> PacketBuffer = new LinkedList<>();
 		private final ReentrantLock packetBufferLock = new ReentrantLock();
 		//List of packets that that should be reattempted to apply in the next tick
 		private final LinkedList<Pair<EntityPlayer, ModernPacket>> retryPackets = new LinkedList<>();
 		private final ReentrantLock retryPacketsLock = new ReentrantLock();
 		//decompressed serialized S->C data
 		private byte[] ByteBuffer = new byte[] {};
-		//Clear content on next tick
-		private boolean clear = false;
+		//S->C data is one compression stream per connection, flushed after every BufferTransfer
+		private final Inflater inflater = new Inflater();
+		//item identifiers received over the S->C data of the current connection
+		private ItemIdentifierDictionary dictionary = new ItemIdentifierDictionary();
+		private final byte[] inflateBuffer = new byte[32 * 1024];
+		//guards the connection state (ByteBuffer, inflater, dictionary) against clear()
+		private final Object connectionLock = new Object();
 
 		public ClientDecompressorThread() {
 			super("LogisticsPipes Packet Decompressor Client");
@@ -204,12 +193,12 @@ public class ClientPacketBufferHandlerThread {
 			start();
 		}
 
-		private void handlePacketData(final Pair<EntityPlayer, byte[]> playerDataPair) {
-			LPDataIOWrapper.provideData(playerDataPair.getValue2(), input -> PacketHandler.onPacketData(input, playerDataPair.getValue1()));
+		private void handlePacketData(final Triplet<EntityPlayer, byte[], ItemIdentifierDictionary> packetData) {
+			LPDataIOWrapper.provideData(packetData.getValue2(), packetData.getValue3(), input -> PacketHandler.onPacketData(input, packetData.getValue1()));
 		}
 
 		public void clientTickEnd() {
-			Pair<EntityPlayer, byte[]> part;
+			Triplet<EntityPlayer, byte[], ItemIdentifierDictionary> part;
 			while (true) {
 				part = null;
 				packetBufferLock.lock();
@@ -250,38 +239,40 @@ public class ClientPacketBufferHandlerThread {
 		@Override
 		public void run() {
 			while (true) {
-				boolean flag;
-				do {
-					flag = false;
-					byte[] buffer = null;
-					synchronized (queue) {
-						if (queue.size() > 0) {
-							flag = true;
-							buffer = queue.getFirst();
-							queue.removeFirst();
+				synchronized (connectionLock) {
+					boolean flag;
+					do {
+						flag = false;
+						byte[] buffer = null;
+						synchronized (queue) {
+							if (queue.size() > 0) {
+								flag = true;
+								buffer = queue.getFirst();
+								queue.removeFirst();
+							}
 						}
-					}
-					if (flag && buffer != null) {
-						byte[] packetbytes = ClientPacketBufferHandlerThread.decompress(buffer);
-						byte[] newBuffer = new byte[packetbytes.length + ByteBuffer.length];
-						System.arraycopy(ByteBuffer, 0, newBuffer, 0, ByteBuffer.length);
-						System.arraycopy(packetbytes, 0, newBuffer, ByteBuffer.length, packetbytes.length);
-						ByteBuffer = newBuffer;
-					}
-				} while (flag);
+						if (flag && buffer != null) {
+							byte[] packetbytes = inflate(buffer);
+							byte[] newBuffer = new byte[packetbytes.length + ByteBuffer.length];
+							System.arraycopy(ByteBuffer, 0, newBuffer, 0, ByteBuffer.length);
+							System.arraycopy(packetbytes, 0, newBuffer, ByteBuffer.length, packetbytes.length);
+							ByteBuffer = newBuffer;
+						}
+					} while (flag);
 
-				while (ByteBuffer.length >= 4) {
-					int size = ((ByteBuffer[0] & 255) << 24) + ((ByteBuffer[1] & 255) << 16) + ((ByteBuffer[2] & 255) << 8) + ((ByteBuffer[3] & 255) << 0);
-					if (size + 4 > ByteBuffer.length) {
-						break;
-					}
-					byte[] packet = Arrays.copyOfRange(ByteBuffer, 4, size + 4);
-					ByteBuffer = Arrays.copyOfRange(ByteBuffer, size + 4, ByteBuffer.length);
-					packetBufferLock.lock();
-					try {
-						PacketBuffer.add(new Pair<>(MainProxy.proxy.getClientPlayer(), packet));
-					} finally {
-						packetBufferLock.unlock();
+					while (ByteBuffer.length >= 4) {
+						int size = ((ByteBuffer[0] & 255) << 24) + ((ByteBuffer[1] & 255) << 16) + ((ByteBuffer[2] & 255) << 8) + ((ByteBuffer[3] & 255) << 0);
+						if (size + 4 > ByteBuffer.length) {
+							break;
+						}
+						byte[] packet = Arrays.copyOfRange(ByteBuffer, 4, size + 4);
+						ByteBuffer = Arrays.copyOfRange(ByteBuffer, size + 4, ByteBuffer.length);
+						packetBufferLock.lock();
+						try {
+							PacketBuffer.add(new Triplet<>(MainProxy.proxy.getClientPlayer(), packet, dictionary));
+						} finally {
+							packetBufferLock.unlock();
+						}
 					}
 				}
 				synchronized (queue) {
@@ -291,13 +282,24 @@ public class ClientPacketBufferHandlerThread {
 						} catch (InterruptedException ignored) { }
 					}
 				}
-				if (clear) {
-					clear = false;
-					ByteBuffer = new byte[] {};
-				}
 			}
 		}
 
+		private byte[] inflate(byte[] content) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length * 4);
+			inflater.setInput(content);
+			try {
+				int length;
+				do {
+					length = inflater.inflate(inflateBuffer);
+					out.write(inflateBuffer, 0, length);
+				} while (length > 0);
+			} catch (DataFormatException e) {
+				throw new RuntimeException(e);
+			}
+			return out.toByteArray();
+		}
+
 		public void handlePacket(byte[] content) {
 			synchronized (queue) {
 				queue.addLast(content);
@@ -306,9 +308,27 @@ public class ClientPacketBufferHandlerThread {
 		}
 
 		public void clear() {
-			clear = true;
-			queue.clear();
-			retryPackets.clear();
+			// the decompressor must not inflate data of the previous connection into the new one
+			synchronized (connectionLock) {
+				synchronized (queue) {
+					queue.clear();
+				}
+				ByteBuffer = new byte[] {};
+				inflater.reset();
+				packetBufferLock.lock();
+				try {
+					PacketBuffer.clear();
+				} finally {
+					packetBufferLock.unlock();
+				}
+				retryPacketsLock.lock();
+				try {
+					retryPackets.clear();
+				} finally {
+					retryPacketsLock.unlock();
+				}
+				dictionary = new ItemIdentifierDictionary();
+			}
 		}
 
 		public void queuePacket(ModernPacket packet, EntityPlayer player) {
@@ -0,0 +1,47 @@
+package logisticspipes.ticks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.ChunkPos;
+
+import logisticspipes.network.PacketHandler;
+import logisticspipes.network.packets.pipe.ItemMotionBatchPacket;
+import logisticspipes.network.packets.pipe.ItemMotionBatchPacket.ItemMotion;
+import logisticspipes.proxy.MainProxy;
+import logisticspipes.utils.tuples.Pair;
+
+/**
+ * Collects the item position updates of every chunk during a server tick and
+ * sends them as one packet per chunk at the end of the tick.
+ */
+public class ItemMotionUpdateTick {
+
+	private static final Map<Pair<Integer, ChunkPos>, ItemMotionBatchPacket> batches = new LinkedHashMap<>();
+
+	private ItemMotionUpdateTick() {}
+
+	public static void add(TileEntity pipe, ItemMotion motion) {
+		ChunkPos chunk = new ChunkPos(pipe.getPos());
+		ItemMotionUpdateTick.batches.computeIfAbsent(new Pair<>(pipe.getWorld().provider.getDimension(), chunk),
+				key -> PacketHandler.getPacket(ItemMotionBatchPacket.class).setChunkX(chunk.x).setChunkZ(chunk.z)).addMotion(motion);
+	}
+
+	public static void tick() {
+		if (ItemMotionUpdateTick.batches.isEmpty()) {
+			return;
+		}
+		for (Entry<Pair<Integer, ChunkPos>, ItemMotionBatchPacket> batch : ItemMotionUpdateTick.batches.entrySet()) {
+			ChunkPos chunk = batch.getKey().getValue2();
+			MainProxy.sendPacketToAllWatchingChunk(chunk.getXStart(), chunk.getZStart(), batch.getKey().getValue1(), batch.getValue());
+		}
+		ItemMotionUpdateTick.batches.clear();
+	}
+
+	// called on server shutdown only
+	public static void clear() {
+		ItemMotionUpdateTick.batches.clear();
+	}
+}
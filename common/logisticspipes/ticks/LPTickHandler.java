@@ -47,6 +47,9 @@ public class LPTickHandler {
 		LPTickHandler.adjChecksDone = 0;
 		DebugGuiController.instance().execServer();
 		LogisticsPipes.getGlobalTickExecutor().tick();
+		if (event.phase == Phase.END) {
+			ItemMotionUpdateTick.tick();
+		}
 	}
 
 	private static Map<World, LPWorldInfo> worldInfo = new MapMaker().weakKeys().makeMap();
@@ -1,59 +1,181 @@
 package logisticspipes.ticks;
 
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import logisticspipes.config.Configs;
+import logisticspipes.routing.ServerRouter;
 
-public class RoutingTableUpdateThread extends Thread {
+/**
+ * Worker thread of the routing table update pool.
+ *
+ * Updates are collected and processed in batches: all queued LSA updates are
+ * applied first, in the order they were queued, then every router that asked
+ * for a new routing table is recalculated in parallel against one snapshot of
+ * the LSA database. Each router is only queued once, with the highest version
+ * it asked for.
+ */
+public class RoutingTableUpdateThread extends ForkJoinWorkerThread {
 
-	private static PriorityBlockingQueue<Runnable> updateCalls = new PriorityBlockingQueue<>();
+	private static ForkJoinPool pool = null;
 
-	private static Long average = 0L;
+	private static final ConcurrentLinkedQueue<Runnable> lsaUpdates = new ConcurrentLinkedQueue<>();
+	private static final ConcurrentHashMap<ServerRouter, Integer> routerUpdates = new ConcurrentHashMap<>();
+	private static final AtomicBoolean batchScheduled = new AtomicBoolean(false);
 
-	public RoutingTableUpdateThread(int i) {
-		super("LogisticsPipes RoutingTableUpdateThread #" + i);
+	private static final Object statsLock = new Object();
+	private static long average = 0L;
+	private static long batchAverage = 0L;
+	private static long lastBatchTime = 0L;
+	private static int lastBatchSize = 0;
+
+	private RoutingTableUpdateThread(ForkJoinPool pool, int i) {
+		super(pool);
+		setName("LogisticsPipes RoutingTableUpdateThread #" + i);
 		setDaemon(true);
 		setPriority(Configs.MULTI_THREAD_PRIORITY);
-		start();
 	}
 
-	public static void add(Runnable run) {
-		RoutingTableUpdateThread.updateCalls.add(run);
+	public static void startPool(int threads) {
+		if (RoutingTableUpdateThread.pool != null || threads <= 0) {
+			return;
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		RoutingTableUpdateThread.pool = new ForkJoinPool(threads, newPool -> new RoutingTableUpdateThread(newPool, threadCount.getAndIncrement()), null, false);
 	}
 
-	public static boolean remove(Runnable run) {
-		return RoutingTableUpdateThread.updateCalls.remove(run);
+	/**
+	 * Queues an update of the LSA database. LSA updates are applied in order,
+	 * before the next batch of routing tables is calculated.
+	 */
+	public static void addLSAUpdate(Runnable run) {
+		RoutingTableUpdateThread.lsaUpdates.add(run);
+		RoutingTableUpdateThread.scheduleBatch();
+	}
+
+	/**
+	 * Queues a routing table update for the given router. Queueing a router
+	 * that is already waiting only raises the version it is updated to.
+	 */
+	public static void addRouterUpdate(ServerRouter router, int version) {
+		RoutingTableUpdateThread.routerUpdates.merge(router, version, Math::max);
+		RoutingTableUpdateThread.scheduleBatch();
 	}
 
 	public static int size() {
-		return RoutingTableUpdateThread.updateCalls.size();
+		return RoutingTableUpdateThread.lsaUpdates.size() + RoutingTableUpdateThread.routerUpdates.size();
 	}
 
+	/**
+	 * @return the average time in ns a single routing table update took
+	 */
 	public static long getAverage() {
-		synchronized (RoutingTableUpdateThread.average) {
+		synchronized (RoutingTableUpdateThread.statsLock) {
 			return RoutingTableUpdateThread.average;
 		}
 	}
 
-	@Override
-	public void run() {
-		Runnable item;
-		// take blocks until things are available, no need to check
-		try {
-			while ((item = RoutingTableUpdateThread.updateCalls.take()) != null) {
-				long starttime = System.nanoTime();
-				item.run();
-				long took = System.nanoTime() - starttime;
-				synchronized (RoutingTableUpdateThread.average) {
-					if (RoutingTableUpdateThread.average == 0) {
-						RoutingTableUpdateThread.average = took;
-					} else {
-						RoutingTableUpdateThread.average = ((RoutingTableUpdateThread.average * 999L) + took) / 1000L;
-					}
-				}
+	/**
+	 * @return the average time in ns a batch took from start to the last
+	 * routing table being done
+	 */
+	public static long getBatchAverage() {
+		synchronized (RoutingTableUpdateThread.statsLock) {
+			return RoutingTableUpdateThread.batchAverage;
+		}
+	}
+
+	public static long getLastBatchTime() {
+		synchronized (RoutingTableUpdateThread.statsLock) {
+			return RoutingTableUpdateThread.lastBatchTime;
+		}
+	}
+
+	public static int getLastBatchSize() {
+		synchronized (RoutingTableUpdateThread.statsLock) {
+			return RoutingTableUpdateThread.lastBatchSize;
+		}
+	}
+
+	private static void scheduleBatch() {
+		if (RoutingTableUpdateThread.pool != null && RoutingTableUpdateThread.batchScheduled.compareAndSet(false, true)) {
+			RoutingTableUpdateThread.pool.execute(RoutingTableUpdateThread::runBatches);
+		}
+	}
+
+	private static boolean hasWork() {
+		return !RoutingTableUpdateThread.lsaUpdates.isEmpty() || !RoutingTableUpdateThread.routerUpdates.isEmpty();
+	}
+
+	private static void runBatches() {
+		do {
+			while (RoutingTableUpdateThread.hasWork()) {
+				RoutingTableUpdateThread.runBatch();
 			}
-		} catch (InterruptedException ignored) {
+			RoutingTableUpdateThread.batchScheduled.set(false);
+			// something might have been queued after the last check, but before the flag was cleared
+		} while (RoutingTableUpdateThread.hasWork() && RoutingTableUpdateThread.batchScheduled.compareAndSet(false, true));
+	}
+
+	private static void runBatch() {
+		long startTime = System.nanoTime();
 
+		Runnable lsaUpdate;
+		while ((lsaUpdate = RoutingTableUpdateThread.lsaUpdates.poll()) != null) {
+			try {
+				lsaUpdate.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+
+		if (RoutingTableUpdateThread.routerUpdates.isEmpty()) {
+			return;
+		}
+		ServerRouter.LSADatabaseSnapshot snapshot = ServerRouter.snapshotLSADatabase();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(RoutingTableUpdateThread.routerUpdates.size());
+		for (ServerRouter router : RoutingTableUpdateThread.routerUpdates.keySet()) {
+			// a version queued after this remove will end up in the next batch
+			Integer version = RoutingTableUpdateThread.routerUpdates.remove(router);
+			if (version != null) {
+				tasks.add(ForkJoinTask.adapt(() -> RoutingTableUpdateThread.updateRouter(router, version, snapshot)));
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+
+		long took = System.nanoTime() - startTime;
+		synchronized (RoutingTableUpdateThread.statsLock) {
+			RoutingTableUpdateThread.lastBatchTime = took;
+			RoutingTableUpdateThread.lastBatchSize = tasks.size();
+			if (RoutingTableUpdateThread.batchAverage == 0) {
+				RoutingTableUpdateThread.batchAverage = took;
+			} else {
+				RoutingTableUpdateThread.batchAverage = ((RoutingTableUpdateThread.batchAverage * 99L) + took) / 100L;
+			}
+		}
+	}
+
+	private static void updateRouter(ServerRouter router, int version, ServerRouter.LSADatabaseSnapshot snapshot) {
+		long startTime = System.nanoTime();
+		try {
+			router.updateRouteTable(version, snapshot);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		long took = System.nanoTime() - startTime;
+		synchronized (RoutingTableUpdateThread.statsLock) {
+			if (RoutingTableUpdateThread.average == 0) {
+				RoutingTableUpdateThread.average = took;
+			} else {
+				RoutingTableUpdateThread.average = ((RoutingTableUpdateThread.average * 999L) + took) / 1000L;
+			}
 		}
 	}
 }
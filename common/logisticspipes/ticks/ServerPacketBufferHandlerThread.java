@@ -10,18 +10,22 @@ import java.util.LinkedList;
 import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import net.minecraft.entity.player.EntityPlayer;
 
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
 import logisticspipes.network.PacketHandler;
 import logisticspipes.network.abstractpackets.ModernPacket;
 import logisticspipes.network.packets.BufferTransfer;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.utils.tuples.Pair;
+import network.rs485.logisticspipes.util.ItemIdentifierDictionary;
 import network.rs485.logisticspipes.util.LPDataIOWrapper;
 
 public class ServerPacketBufferHandlerThread {
@@ -31,18 +35,6 @@ public class ServerPacketBufferHandlerThread {
 
 	public ServerPacketBufferHandlerThread() {}
 
-	private static byte[] compress(byte[] content) {
-		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		try {
-			GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-			gzipOutputStream.write(content);
-			gzipOutputStream.close();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		return byteArrayOutputStream.toByteArray();
-	}
-
 	private static byte[] decompress(byte[] contentBytes) {
 		ByteArrayOutputStream out = new ByteArrayOutputStream();
 		try {
@@ -89,10 +81,20 @@ public class ServerPacketBufferHandlerThread {
 
 	private static class ServerCompressorThread extends Thread {
 
+		//size of the uncompressed data sent with one BufferTransfer
+		private static final int CHUNK_SIZE = 32 * 1024;
+
 		//Map of Players to lists of S->C packets to be serialized and compressed
 		private final HashMap<EntityPlayer, LinkedList<ModernPacket>> serverList = new HashMap<>();
-		//Map of Players to serialized but still uncompressed S->C data
-		private final HashMap<EntityPlayer, byte[]> serverBuffer = new HashMap<>();
+		//Map of Players to serialized but still uncompressed S->C data, in buffers taken from the pool
+		private final HashMap<EntityPlayer, ByteBuf> serverBuffer = new HashMap<>();
+		//Map of Players to their S->C compression stream, which keeps its dictionary until the player is cleared
+		private final HashMap<EntityPlayer, Deflater> deflaters = new HashMap<>();
+		//Map of Players to the item identifiers sent to them, kept as long as the deflater
+		private final HashMap<EntityPlayer, ItemIdentifierDictionary> dictionaries = new HashMap<>();
+		//reused output of the deflaters
+		private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(ServerCompressorThread.CHUNK_SIZE);
+		private final byte[] deflateBuffer = new byte[ServerCompressorThread.CHUNK_SIZE];
 		//used to cork the compressor so we can queue up a whole bunch of packets at once
 		private boolean pause = false;
 		//Clear content on next tick
@@ -110,41 +112,38 @@ public class ServerPacketBufferHandlerThread {
 				synchronized (serverList) {
 					if (!pause) {
 						for (Entry<EntityPlayer, LinkedList<ModernPacket>> playerPacketEntry : serverList.entrySet()) {
-							EntityPlayer player = playerPacketEntry.getKey();
-							serverBuffer.put(player, LPDataIOWrapper.collectData(output -> {
-								if (serverBuffer.containsKey(player)) {
-									output.writeBytes(serverBuffer.get(player));
+							ByteBuf buffer = serverBuffer.computeIfAbsent(playerPacketEntry.getKey(), player -> PooledByteBufAllocator.DEFAULT.heapBuffer(ServerCompressorThread.CHUNK_SIZE));
+							ItemIdentifierDictionary dictionary = dictionaries.computeIfAbsent(playerPacketEntry.getKey(), player -> new ItemIdentifierDictionary());
+							LinkedList<ModernPacket> packets = playerPacketEntry.getValue();
+							try {
+								for (ModernPacket packet : packets) {
+									// same layout as LPDataOutput.writeByteArray, without the intermediate array
+									int lengthIndex = buffer.writerIndex();
+									buffer.writeInt(0);
+									LPDataIOWrapper.writeData(buffer, dictionary, dataOutput -> PacketHandler.writePacket(dataOutput, packet));
+									buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - 4);
 								}
-
-								LinkedList<ModernPacket> packets = playerPacketEntry.getValue();
-								try {
-									for (ModernPacket packet : packets) {
-										output.writeByteArray(LPDataIOWrapper.collectData(dataOutput -> {
-											dataOutput.writeShort(packet.getId());
-											dataOutput.writeInt(packet.getDebugId());
-											packet.writeData(dataOutput);
-										}));
-									}
-								} finally {
-									packets.clear();
-								}
-							}));
+							} finally {
+								packets.clear();
+							}
 						}
 						serverList.clear();
 					}
 				}
 				//Send Content
-				for (Entry<EntityPlayer, byte[]> player : serverBuffer.entrySet()) {
-					while (player.getValue().length > 32 * 1024) {
-						byte[] sendbuffer = Arrays.copyOf(player.getValue(), 1024 * 32);
-						byte[] newbuffer = Arrays.copyOfRange(player.getValue(), 1024 * 32, player.getValue().length);
-						player.setValue(newbuffer);
-						byte[] compressed = ServerPacketBufferHandlerThread.compress(sendbuffer);
-						MainProxy.sendPacketToPlayer(PacketHandler.getPacket(BufferTransfer.class).setContent(compressed), player.getKey());
+				for (Entry<EntityPlayer, ByteBuf> player : serverBuffer.entrySet()) {
+					ByteBuf buffer = player.getValue();
+					try {
+						Deflater deflater = deflaters.computeIfAbsent(player.getKey(), key -> new Deflater());
+						while (buffer.isReadable()) {
+							int length = Math.min(buffer.readableBytes(), ServerCompressorThread.CHUNK_SIZE);
+							deflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+							buffer.skipBytes(length);
+							MainProxy.sendPacketToPlayer(PacketHandler.getPacket(BufferTransfer.class).setContent(flush(deflater)), player.getKey());
+						}
+					} finally {
+						buffer.release();
 					}
-					byte[] sendbuffer = player.getValue();
-					byte[] compressed = ServerPacketBufferHandlerThread.compress(sendbuffer);
-					MainProxy.sendPacketToPlayer(PacketHandler.getPacket(BufferTransfer.class).setContent(compressed), player.getKey());
 				}
 				serverBuffer.clear();
 				synchronized (serverList) {
@@ -159,13 +158,31 @@ public class ServerPacketBufferHandlerThread {
 					do {
 						player = playersToClear.poll();
 						if (player != null) {
-							serverBuffer.remove(player);
+							Deflater deflater = deflaters.remove(player);
+							if (deflater != null) {
+								deflater.end();
+							}
+							dictionaries.remove(player);
 						}
 					} while (player != null);
 				}
 			}
 		}
 
+		/**
+		 * Compresses all input of the deflater and flushes it, so the client
+		 * can decompress everything sent so far with one inflater.
+		 */
+		private byte[] flush(Deflater deflater) {
+			compressed.reset();
+			int length;
+			do {
+				length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+				compressed.write(deflateBuffer, 0, length);
+			} while (length == deflateBuffer.length);
+			return compressed.toByteArray();
+		}
+
 		public void addPacketToCompressor(ModernPacket packet, EntityPlayer player) {
 			synchronized (serverList) {
 				LinkedList<ModernPacket> packetList = serverList.get(player);
@@ -22,6 +22,7 @@ import logisticspipes.interfaces.routing.IRequireReliableFluidTransport;
 import logisticspipes.interfaces.routing.IRequireReliableTransport;
 import logisticspipes.items.LogisticsFluidContainer;
 import logisticspipes.logisticspipes.IRoutedItem;
+import logisticspipes.network.packets.pipe.ItemMotionBatchPacket.ItemMotion;
 import logisticspipes.pipes.basic.CoreRoutedPipe;
 import logisticspipes.pipes.basic.LogisticsTileGenericPipe;
 import logisticspipes.proxy.MainProxy;
@@ -192,6 +193,13 @@ public abstract class LPTravelingItem {
 
 		@Getter
 		private ItemRoutingInformation info;
+		// the motion last sent to the clients and the pipe they know the item in
+		@Getter
+		@Setter
+		private ItemMotion sentMotion;
+		@Getter
+		@Setter
+		private TileEntity sentMotionPipe;
 
 		public LPTravelingItemServer(ItemIdentifierStack stack) {
 			super();
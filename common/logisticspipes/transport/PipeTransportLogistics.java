@@ -30,6 +30,7 @@ import lombok.Data;
 import logisticspipes.LPConstants;
 import logisticspipes.api.ILogisticsPowerProvider;
 import logisticspipes.blocks.powertile.LogisticsPowerJunctionTileEntity;
+import logisticspipes.config.Configs;
 import logisticspipes.interfaces.IBufferItems;
 import logisticspipes.interfaces.IInventoryUtil;
 import logisticspipes.interfaces.IItemAdvancedExistance;
@@ -42,9 +43,9 @@ import logisticspipes.logisticspipes.IRoutedItem.TransportMode;
 import logisticspipes.modules.abstractmodules.LogisticsModule.ModulePositionType;
 import logisticspipes.network.PacketHandler;
 import logisticspipes.network.packets.pipe.ItemBufferSyncPacket;
+import logisticspipes.network.packets.pipe.ItemMotionBatchPacket.ItemMotion;
 import logisticspipes.network.packets.pipe.PipeContentPacket;
 import logisticspipes.network.packets.pipe.PipeContentRequest;
-import logisticspipes.network.packets.pipe.PipePositionPacket;
 import logisticspipes.pipes.PipeItemsFluidSupplier;
 import logisticspipes.pipes.PipeLogisticsChassi;
 import logisticspipes.pipes.PipeLogisticsChassi.ChassiTargetInformation;
@@ -56,6 +57,7 @@ import logisticspipes.proxy.MainProxy;
 import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.routing.ItemRoutingInformation;
 import logisticspipes.routing.pathfinder.IPipeInformationProvider;
+import logisticspipes.ticks.ItemMotionUpdateTick;
 import logisticspipes.transport.LPTravelingItem.LPTravelingItemClient;
 import logisticspipes.transport.LPTravelingItem.LPTravelingItemServer;
 import logisticspipes.utils.CacheHolder.CacheTypes;
@@ -207,7 +209,7 @@ public class PipeTransportLogistics {
 				return 0;
 			}
 			getPipe().debug.log("Injected Item: [" + item.input + ", " + item.output + "] (" + ((LPTravelingItemServer) item).getInfo());
-		} else {
+		} else if (getPipe().isOpaque()) {
 			item.output = null;
 		}
 
@@ -774,14 +776,36 @@ public class PipeTransportLogistics {
 
 	private void sendItemPacket(LPTravelingItemServer item) {
 		if (MainProxy.isAnyoneWatching(container.getPos(), getWorld().provider.getDimension())) {
+			ItemMotion motion = new ItemMotion(container.getPos(), item.getId(), item.input, item.output, item.getSpeed(), item.getPosition(), item.getYaw());
+			if (Configs.ITEM_MOTION_EXTRAPOLATION && isExtrapolatedByClients(item, motion)) {
+				item.setSentMotionPipe(container);
+				return;
+			}
 			if (!LPTravelingItem.clientSideKnownIDs.get(item.getId())) {
 				MainProxy.sendPacketToAllWatchingChunk(container, (PacketHandler.getPacket(PipeContentPacket.class).setItem(item.getItemIdentifierStack()).setTravelId(item.getId())));
 				LPTravelingItem.clientSideKnownIDs.set(item.getId());
 			}
-			MainProxy.sendPacketToAllWatchingChunk(container, (PacketHandler.getPacket(PipePositionPacket.class).setSpeed(item.getSpeed()).setPosition(item.getPosition()).setInput(item.input).setOutput(item.output).setTravelId(item.getId()).setYaw(item.getYaw()).setTilePos(container)));
+			ItemMotionUpdateTick.add(container, motion);
+			item.setSentMotion(motion);
+			item.setSentMotionPipe(container);
 		}
 	}
 
+	/**
+	 * @return true, if the clients already moved the item from the previous
+	 * pipe into this one with the same speed and direction
+	 */
+	private boolean isExtrapolatedByClients(LPTravelingItemServer item, ItemMotion motion) {
+		TileEntity previous = item.getSentMotionPipe();
+		if (previous == null || item.output == null || !motion.sameCourse(item.getSentMotion())) {
+			return false;
+		}
+		// players watching another chunk didn't see the item in the previous pipe
+		return container.getTile(item.output.getOpposite()) == previous
+				&& previous.getPos().getX() >> 4 == container.getPos().getX() >> 4
+				&& previous.getPos().getZ() >> 4 == container.getPos().getZ() >> 4;
+	}
+
 	public void handleItemPositionPacket(int travelId, EnumFacing input, EnumFacing output, float speed, float position, float yaw) {
 		WeakReference<LPTravelingItemClient> ref = LPTravelingItem.clientList.get(travelId);
 		LPTravelingItemClient item = null;
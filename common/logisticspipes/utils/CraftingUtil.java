@@ -1,9 +1,13 @@
 package logisticspipes.utils;
 
+import java.util.List;
+
+import net.minecraft.inventory.InventoryCrafting;
 import net.minecraft.item.crafting.CraftingManager;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.registry.RegistryNamespaced;
+import net.minecraft.world.World;
 
 public class CraftingUtil {
 
@@ -14,4 +18,20 @@ public class CraftingUtil {
 		return CraftingManager.REGISTRY;
 	}
 
+	/**
+	 * @return all recipes matching the crafting grid, in the order of
+	 * {@link #getRecipeList()}. The list can't be modified.
+	 */
+	public static List<IRecipe> getMatchingRecipes(InventoryCrafting grid, World world) {
+		return RecipeIndex.getMatchingRecipes(grid, world);
+	}
+
+	/**
+	 * Has to be called after recipes were added, removed or replaced, so
+	 * {@link #getMatchingRecipes} doesn't answer from outdated recipes.
+	 */
+	public static void recipesChanged() {
+		RecipeIndex.invalidate();
+	}
+
 }
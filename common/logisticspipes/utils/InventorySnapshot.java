@@ -0,0 +1,64 @@
+package logisticspipes.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import javax.annotation.Nullable;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Remembers the ItemIdentifier of every slot of an inventory, so all
+ * InventoryUtils reading the same inventory, e.g. of several modules or
+ * repeated reads within one tick, don't identify the same stacks again.
+ *
+ * Snapshots belong to the side of a tile entity, capabilities may return a
+ * new handler on every call. Only the identifiers are kept, not the stacks:
+ * an identifier is reused as long as item, damage and tag of the stack in the
+ * slot are equal to it, comparing against the tag copy of the identifier.
+ */
+class InventorySnapshot {
+
+	private static final Map<TileEntity, InventorySnapshot[]> snapshots = new WeakHashMap<>();
+
+	private ItemIdentifier[] slots = new ItemIdentifier[0];
+
+	/**
+	 * @return the snapshot of the inventory of the tile entity on the given
+	 * side, which is null for the inventory without side
+	 */
+	static InventorySnapshot get(TileEntity tile, @Nullable EnumFacing side) {
+		int index = side == null ? EnumFacing.VALUES.length : side.ordinal();
+		synchronized (InventorySnapshot.snapshots) {
+			InventorySnapshot[] sides = InventorySnapshot.snapshots.computeIfAbsent(tile, key -> new InventorySnapshot[EnumFacing.VALUES.length + 1]);
+			if (sides[index] == null) {
+				sides[index] = new InventorySnapshot();
+			}
+			return sides[index];
+		}
+	}
+
+	/**
+	 * @param stack the current, non-empty stack in the slot
+	 */
+	synchronized ItemIdentifier identify(int slot, ItemStack stack) {
+		if (slot >= slots.length) {
+			slots = Arrays.copyOf(slots, slot + 1);
+		}
+		ItemIdentifier identifier = slots[slot];
+		if (identifier == null || !InventorySnapshot.matches(identifier, stack)) {
+			identifier = ItemIdentifier.get(stack);
+			slots[slot] = identifier;
+		}
+		return identifier;
+	}
+
+	private static boolean matches(ItemIdentifier identifier, ItemStack stack) {
+		return identifier.item == stack.getItem() && identifier.itemDamage == stack.getItemDamage() && Objects.equals(identifier.tag, stack.getTagCompound());
+	}
+}
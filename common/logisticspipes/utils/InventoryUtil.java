@@ -12,8 +12,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
 
 import net.minecraftforge.items.IItemHandler;
 
@@ -28,13 +31,27 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 	private final boolean _hideOne;
 	private final int _cropStart;
 	private final int _cropEnd;
+	private final InventorySnapshot _snapshot;
 
 	public InventoryUtil(IItemHandler inventory, boolean hideOnePerStack, boolean hideOne, int cropStart, int cropEnd) {
+		this(inventory, new InventorySnapshot(), hideOnePerStack, hideOne, cropStart, cropEnd);
+	}
+
+	/**
+	 * Shares the identified slots with all other InventoryUtils of the same
+	 * tile entity and side.
+	 */
+	public InventoryUtil(TileEntity tile, @Nullable EnumFacing dir, IItemHandler inventory, boolean hideOnePerStack, boolean hideOne, int cropStart, int cropEnd) {
+		this(inventory, InventorySnapshot.get(tile, dir), hideOnePerStack, hideOne, cropStart, cropEnd);
+	}
+
+	private InventoryUtil(IItemHandler inventory, InventorySnapshot snapshot, boolean hideOnePerStack, boolean hideOne, int cropStart, int cropEnd) {
 		_inventory = inventory;
 		_hideOnePerStack = hideOnePerStack;
 		_hideOne = hideOne;
 		_cropStart = cropStart;
 		_cropEnd = cropEnd;
+		_snapshot = snapshot;
 	}
 
 	@Override
@@ -43,7 +60,7 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 		boolean first = true;
 		for (int i = _cropStart; i < _inventory.getSlots() - _cropEnd; i++) {
 			ItemStack stack = _inventory.getStackInSlot(i);
-			if (stack.isEmpty() || !ItemIdentifier.get(stack).equals(item)) {
+			if (stack.isEmpty() || !_snapshot.identify(i, stack).equals(item)) {
 				continue;
 			}
 			if (first) {
@@ -64,7 +81,7 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 			if (stack.isEmpty()) {
 				continue;
 			}
-			ItemIdentifier itemId = ItemIdentifier.get(stack);
+			ItemIdentifier itemId = _snapshot.identify(i, stack);
 			int stackSize = stack.getCount() - (_hideOnePerStack ? 1 : 0);
 			Integer currentSize = items.get(itemId);
 			if (currentSize == null) {
@@ -84,7 +101,7 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 			if (stack.isEmpty()) {
 				continue;
 			}
-			items.add(ItemIdentifier.get(stack));
+			items.add(_snapshot.identify(i, stack));
 		}
 		return items;
 	}
@@ -106,7 +123,7 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 
 		for (int i = _cropStart; i < _inventory.getSlots() - _cropEnd && count > 0; i++) {
 			ItemStack stack = _inventory.getStackInSlot(i);
-			if (stack.isEmpty() || (stack.getCount() == 1 && _hideOnePerStack) || !ItemIdentifier.get(stack).equals(item)) {
+			if (stack.isEmpty() || (stack.getCount() == 1 && _hideOnePerStack) || !_snapshot.identify(i, stack).equals(item)) {
 				continue;
 			}
 			int itemsToSplit = Math.min(count, stack.getCount() - (((first && _hideOne) || _hideOnePerStack) ? 1 : 0));
@@ -133,7 +150,7 @@ public class InventoryUtil implements IInventoryUtil, ISpecialInsertion {
 			if (stack.isEmpty()) {
 				continue;
 			}
-			if (ItemIdentifier.get(stack).getUndamaged().equals(item)) {
+			if (_snapshot.identify(i, stack).getUndamaged().equals(item)) {
 				return true;
 			}
 		}
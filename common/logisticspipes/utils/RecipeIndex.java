@@ -0,0 +1,241 @@
+package logisticspipes.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.RegistryNamespaced;
+import net.minecraft.world.World;
+
+import net.minecraftforge.common.crafting.IngredientNBT;
+import net.minecraftforge.oredict.OreIngredient;
+import net.minecraftforge.oredict.ShapedOreRecipe;
+import net.minecraftforge.oredict.ShapelessOreRecipe;
+
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Index of the crafting recipes, answering which recipes match a crafting
+ * grid without calling {@link IRecipe#matches} on every registered recipe.
+ *
+ * Shaped and shapeless recipes of the vanilla and ore dictionary types only
+ * accept the items of their ingredients, so they are bucketed by every item
+ * any of their ingredients accepts and only tested if all items of the grid
+ * are accepted and the number of stacks fits. The candidates among them are
+ * cached by the ItemIdentifiers of the slots of the grid. Every other recipe
+ * can match anything, and may depend on the world or the player crafting, so
+ * it is tested on every call.
+ *
+ * Everything is dropped when recipes are registered (see
+ * {@link CraftingUtil#recipesChanged()}), when the recipe registry is replaced
+ * or when the number of its recipes changes.
+ */
+class RecipeIndex {
+
+	private static final int MAX_CACHED_GRIDS = 1024;
+
+	private static RecipeIndex instance = null;
+
+	private final RegistryNamespaced<ResourceLocation, IRecipe> registry;
+	private final int recipeCount;
+	private final Map<Item, List<IndexedRecipe>> recipesByItem = new HashMap<>();
+	private final List<IndexedRecipe> unindexed = new ArrayList<>();
+	private final Map<Fingerprint, List<IndexedRecipe>> candidates = new LinkedHashMap<Fingerprint, List<IndexedRecipe>>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Fingerprint, List<IndexedRecipe>> eldest) {
+			return size() > RecipeIndex.MAX_CACHED_GRIDS;
+		}
+	};
+
+	private RecipeIndex(RegistryNamespaced<ResourceLocation, IRecipe> registry, int recipeCount) {
+		this.registry = registry;
+		this.recipeCount = recipeCount;
+		int order = 0;
+		for (IRecipe recipe : registry) {
+			IndexedRecipe indexed = new IndexedRecipe(recipe, order++);
+			if (indexed.items == null) {
+				unindexed.add(indexed);
+			} else {
+				for (Item item : indexed.items) {
+					recipesByItem.computeIfAbsent(item, key -> new ArrayList<>()).add(indexed);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return all recipes matching the grid, in registration order. The list
+	 * can't be modified.
+	 */
+	static synchronized List<IRecipe> getMatchingRecipes(InventoryCrafting grid, World world) {
+		RegistryNamespaced<ResourceLocation, IRecipe> registry = CraftingUtil.getRecipeList();
+		int recipeCount = registry.getKeys().size();
+		if (RecipeIndex.instance == null || RecipeIndex.instance.registry != registry || RecipeIndex.instance.recipeCount != recipeCount) {
+			RecipeIndex.instance = new RecipeIndex(registry, recipeCount);
+		}
+		return RecipeIndex.instance.find(grid, world);
+	}
+
+	/**
+	 * Drops the index, it is rebuilt on the next call.
+	 */
+	static synchronized void invalidate() {
+		RecipeIndex.instance = null;
+	}
+
+	private List<IRecipe> find(InventoryCrafting grid, World world) {
+		Fingerprint fingerprint = new Fingerprint(grid);
+		List<IndexedRecipe> cachedCandidates = candidates.get(fingerprint);
+		if (cachedCandidates == null) {
+			cachedCandidates = getCandidates(fingerprint);
+			candidates.put(fingerprint, cachedCandidates);
+		}
+		List<IndexedRecipe> found = new ArrayList<>();
+		for (IndexedRecipe recipe : cachedCandidates) {
+			if (recipe.recipe.canFit(grid.getWidth(), grid.getHeight()) && recipe.recipe.matches(grid, world)) {
+				found.add(recipe);
+			}
+		}
+		for (IndexedRecipe recipe : unindexed) {
+			if (recipe.recipe.matches(grid, world)) {
+				found.add(recipe);
+			}
+		}
+		found.sort((a, b) -> Integer.compare(a.order, b.order));
+		List<IRecipe> recipes = new ArrayList<>(found.size());
+		for (IndexedRecipe recipe : found) {
+			recipes.add(recipe.recipe);
+		}
+		return Collections.unmodifiableList(recipes);
+	}
+
+	/**
+	 * @return the indexed recipes accepting every item in the grid with the
+	 * right number of stacks, out of the smallest bucket of these items
+	 */
+	private List<IndexedRecipe> getCandidates(Fingerprint fingerprint) {
+		if (fingerprint.items.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<IndexedRecipe> smallest = null;
+		for (Item item : fingerprint.items) {
+			List<IndexedRecipe> bucket = recipesByItem.get(item);
+			if (bucket == null) {
+				return Collections.emptyList();
+			}
+			if (smallest == null || bucket.size() < smallest.size()) {
+				smallest = bucket;
+			}
+		}
+		List<IndexedRecipe> candidates = new ArrayList<>();
+		for (IndexedRecipe recipe : smallest) {
+			if (recipe.stacks == fingerprint.stacks && recipe.items.containsAll(fingerprint.items)) {
+				candidates.add(recipe);
+			}
+		}
+		return candidates;
+	}
+
+	private static class IndexedRecipe {
+
+		private final IRecipe recipe;
+		private final int order;
+		/** all items accepted by any ingredient, or null if the recipe can match anything */
+		private final Set<Item> items;
+		/** the number of non-empty ingredients */
+		private final int stacks;
+
+		private IndexedRecipe(IRecipe recipe, int order) {
+			this.recipe = recipe;
+			this.order = order;
+			Set<Item> accepted = null;
+			int count = 0;
+			if (RecipeIndex.isIndexable(recipe)) {
+				accepted = new HashSet<>();
+				for (Ingredient ingredient : recipe.getIngredients()) {
+					if (ingredient == Ingredient.EMPTY) {
+						continue;
+					}
+					if (!RecipeIndex.isIndexable(ingredient)) {
+						accepted = null;
+						break;
+					}
+					count++;
+					for (ItemStack stack : ingredient.getMatchingStacks()) {
+						accepted.add(stack.getItem());
+					}
+				}
+			}
+			items = accepted;
+			stacks = count;
+		}
+	}
+
+	/**
+	 * Only recipes whose matches method is known to just test the ingredients
+	 * are indexed, not subclasses which may do anything else.
+	 */
+	private static boolean isIndexable(IRecipe recipe) {
+		Class<?> type = recipe.getClass();
+		return type == ShapedRecipes.class || type == ShapelessRecipes.class || type == ShapedOreRecipe.class || type == ShapelessOreRecipe.class;
+	}
+
+	private static boolean isIndexable(Ingredient ingredient) {
+		Class<?> type = ingredient.getClass();
+		return type == Ingredient.class || type == OreIngredient.class || type == IngredientNBT.class;
+	}
+
+	private static class Fingerprint {
+
+		private final ItemIdentifier[] slots;
+		private final int width;
+		private final Set<Item> items = new HashSet<>();
+		private final int stacks;
+		private final int hash;
+
+		private Fingerprint(InventoryCrafting grid) {
+			slots = new ItemIdentifier[grid.getSizeInventory()];
+			width = grid.getWidth();
+			int count = 0;
+			for (int i = 0; i < slots.length; i++) {
+				ItemStack stack = grid.getStackInSlot(i);
+				if (!stack.isEmpty()) {
+					slots[i] = ItemIdentifier.get(stack);
+					items.add(stack.getItem());
+					count++;
+				}
+			}
+			stacks = count;
+			hash = Arrays.hashCode(slots) * 31 + width;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Fingerprint)) {
+				return false;
+			}
+			Fingerprint other = (Fingerprint) obj;
+			return width == other.width && Arrays.equals(slots, other.slots);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -59,6 +60,8 @@ public class ItemDisplay {
 	private InputBar requestCountBar;
 	private Object[] tooltip = null;
 	private boolean listbyserver = false;
+	@Getter
+	private int contentVersion = 0;
 
 	private final IItemSearch search;
 	private final FontRenderer fontRenderer;
@@ -126,6 +129,35 @@ public class ItemDisplay {
 		}
 	}
 
+	/**
+	 * Applies changes the server sent for the list it sent before.
+	 *
+	 * @param baseVersion the version of the list the changes apply to, 0 if
+	 *                    they are a complete list
+	 * @return false, if the changes were ignored because they don't apply to
+	 * the shown list
+	 */
+	public boolean applyItemListChanges(int baseVersion, int version, Collection<ItemIdentifierStack> changed, Collection<ItemIdentifier> removed) {
+		if (baseVersion != 0 && baseVersion != contentVersion) {
+			return false;
+		}
+		Map<ItemIdentifier, ItemIdentifierStack> items = new LinkedHashMap<>();
+		if (baseVersion != 0) {
+			for (ItemIdentifierStack stack : _allItems) {
+				items.put(stack.getItem(), stack);
+			}
+		}
+		for (ItemIdentifier item : removed) {
+			items.remove(item);
+		}
+		for (ItemIdentifierStack stack : changed) {
+			items.put(stack.getItem(), stack);
+		}
+		contentVersion = version;
+		setItemList(items.values());
+		return true;
+	}
+
 	private static class StackComparitor implements Comparator<ItemIdentifierStack> {
 
 		@Override
@@ -16,11 +16,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReferenceArray;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.annotation.Nonnull;
 
 import net.minecraft.block.Block;
@@ -70,14 +69,15 @@ import logisticspipes.utils.ReflectionHelper;
  */
 public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTypeHolder {
 
-	//a key to look up a ItemIdentifier by Item:damage:tag
+	//a key to look up a ItemIdentifier by Item:damage:tag, or the tagged variants of an Item:damage if tag is null
+	//tags compare by content, so the tag of an ItemStack can be used to look up without copying it
 	private static class ItemKey {
 
 		public final Item item;
 		public final int itemDamage;
-		public final FinalNBTTagCompound tag;
+		public final NBTTagCompound tag;
 
-		public ItemKey(Item i, int d, FinalNBTTagCompound t) {
+		public ItemKey(Item i, int d, NBTTagCompound t) {
 			item = i;
 			itemDamage = d;
 			tag = t;
@@ -89,12 +89,12 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 				return false;
 			}
 			ItemKey i = (ItemKey) that;
-			return item == i.item && itemDamage == i.itemDamage && tag.equals(i.tag);
+			return item == i.item && itemDamage == i.itemDamage && Objects.equals(tag, i.tag);
 		}
 
 		@Override
 		public int hashCode() {
-			return item.hashCode() ^ itemDamage ^ tag.hashCode();
+			return item.hashCode() ^ itemDamage ^ (tag == null ? 0 : tag.hashCode());
 		}
 	}
 
@@ -182,15 +182,13 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 	private final static ConcurrentHashMap<Item, IDamagedIdentifierHolder> damageIdentifiers = new ConcurrentHashMap<>(4096, 0.5f, 1);
 
 	//map for id+damage+tag -> ItemIdentifier lookup
-	private final static HashMap<ItemKey, IDReference> keyRefMap = new HashMap<>(1024, 0.5f);
-	//for tracking the tagUniqueIDs in use for a given Item
-	private final static HashMap<Item, BitSet> tagIDsets = new HashMap<>(1024, 0.5f);
+	private final static ConcurrentHashMap<ItemKey, IDReference> keyRefMap = new ConcurrentHashMap<>(1024, 0.5f);
+	//map for id+damage -> references of all tagged ItemIdentifiers, only modified inside compute calls for the same key
+	private final static ConcurrentHashMap<ItemKey, Set<IDReference>> tagVariants = new ConcurrentHashMap<>(1024, 0.5f);
+	//for tracking the tagUniqueIDs in use for a given Item, every BitSet is guarded by itself
+	private final static ConcurrentHashMap<Item, BitSet> tagIDsets = new ConcurrentHashMap<>(1024, 0.5f);
 	//a referenceQueue to collect GCed identifier refs
 	private final static ReferenceQueue<ItemIdentifier> keyRefQueue = new ReferenceQueue<>();
-	//and locks to protect these
-	private final static ReadWriteLock keyRefLock = new ReentrantReadWriteLock();
-	private final static Lock keyRefRlock = ItemIdentifier.keyRefLock.readLock();
-	private final static Lock keyRefWlock = ItemIdentifier.keyRefLock.writeLock();
 
 	//helper thread to clean up references to GCed ItemIdentifiers
 	private static final class ItemIdentifierCleanupThread extends Thread {
@@ -210,17 +208,14 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 				} catch (InterruptedException e) {
 					continue;
 				}
-				ItemIdentifier.keyRefWlock.lock();
 				do {
-					//value in the map might have been replaced in the meantime
-					IDReference current = ItemIdentifier.keyRefMap.get(r.key);
-					if (r == current) {
-						ItemIdentifier.keyRefMap.remove(r.key);
-						ItemIdentifier.tagIDsets.get(r.key.item).clear(r.uniqueID);
+					ItemIdentifier.removeTagVariant(r);
+					//value in the map might have been replaced in the meantime, which keeps the uniqueID in use
+					if (ItemIdentifier.keyRefMap.remove(r.key, r)) {
+						ItemIdentifier.releaseTagID(r.key.item, r.uniqueID);
 					}
 					r = (IDReference) (ItemIdentifier.keyRefQueue.poll());
 				} while (r != null);
-				ItemIdentifier.keyRefWlock.unlock();
 			}
 		}
 	}
@@ -295,43 +290,61 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 		return ret;
 	}
 
-	private static ItemIdentifier getOrCreateTag(Item item, int damage, FinalNBTTagCompound tag) {
+	private static ItemIdentifier getOrCreateTag(Item item, int damage, NBTTagCompound tag) {
+		//no lock, the lookup uses the tag as it is and only a new ItemIdentifier gets a copy of it
 		ItemKey k = new ItemKey(item, damage, tag);
-		ItemIdentifier.keyRefRlock.lock();
-		IDReference r = ItemIdentifier.keyRefMap.get(k);
-		if (r != null) {
-			ItemIdentifier ret = r.get();
-			if (ret != null) {
-				ItemIdentifier.keyRefRlock.unlock();
-				return ret;
+		while (true) {
+			IDReference r = ItemIdentifier.keyRefMap.get(k);
+			if (r != null) {
+				ItemIdentifier ret = r.get();
+				if (ret != null) {
+					return ret;
+				}
 			}
-		}
-		ItemIdentifier.keyRefRlock.unlock();
-		ItemIdentifier.keyRefWlock.lock();
-		r = ItemIdentifier.keyRefMap.get(k);
-		if (r != null) {
-			ItemIdentifier ret = r.get();
-			if (ret != null) {
-				ItemIdentifier.keyRefWlock.unlock();
+			//a collected ItemIdentifier which wasn't cleaned up yet keeps its uniqueID
+			int nextUniqueID = r == null ? ItemIdentifier.takeTagID(item) : r.uniqueID;
+			FinalNBTTagCompound finaltag = new FinalNBTTagCompound(tag);
+			ItemKey realKey = new ItemKey(item, damage, finaltag);
+			ItemIdentifier ret = new ItemIdentifier(item, damage, finaltag, nextUniqueID);
+			IDReference newRef = new IDReference(realKey, nextUniqueID, ret);
+			if (r == null ? ItemIdentifier.keyRefMap.putIfAbsent(realKey, newRef) == null : ItemIdentifier.keyRefMap.replace(realKey, r, newRef)) {
+				ItemIdentifier.tagVariants.compute(new ItemKey(item, damage, null), (key, variants) -> {
+					if (variants == null) {
+						variants = ConcurrentHashMap.newKeySet();
+					}
+					variants.add(newRef);
+					return variants;
+				});
 				return ret;
 			}
+			//another thread was faster, use its ItemIdentifier
+			if (r == null) {
+				ItemIdentifier.releaseTagID(item, nextUniqueID);
+			}
 		}
-		if (ItemIdentifier.tagIDsets.get(item) == null) {
-			ItemIdentifier.tagIDsets.put(item, new BitSet(16));
+	}
+
+	private static int takeTagID(Item item) {
+		BitSet ids = ItemIdentifier.tagIDsets.computeIfAbsent(item, key -> new BitSet(16));
+		synchronized (ids) {
+			int id = ids.nextClearBit(1);
+			ids.set(id);
+			return id;
 		}
-		int nextUniqueID;
-		if (r == null) {
-			nextUniqueID = ItemIdentifier.tagIDsets.get(item).nextClearBit(1);
-			ItemIdentifier.tagIDsets.get(item).set(nextUniqueID);
-		} else {
-			nextUniqueID = r.uniqueID;
+	}
+
+	private static void releaseTagID(Item item, int id) {
+		BitSet ids = ItemIdentifier.tagIDsets.get(item);
+		synchronized (ids) {
+			ids.clear(id);
 		}
-		FinalNBTTagCompound finaltag = new FinalNBTTagCompound(tag);
-		ItemKey realKey = new ItemKey(item, damage, finaltag);
-		ItemIdentifier ret = new ItemIdentifier(item, damage, finaltag, nextUniqueID);
-		ItemIdentifier.keyRefMap.put(realKey, new IDReference(realKey, nextUniqueID, ret));
-		ItemIdentifier.keyRefWlock.unlock();
-		return ret;
+	}
+
+	private static void removeTagVariant(IDReference r) {
+		ItemIdentifier.tagVariants.computeIfPresent(new ItemKey(r.key.item, r.key.itemDamage, null), (key, variants) -> {
+			variants.remove(r);
+			return variants.isEmpty() ? null : variants;
+		});
 	}
 
 	public static ItemIdentifier get(Item item, int itemUndamagableDamage, NBTTagCompound tag) {
@@ -350,7 +363,7 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 			return ItemIdentifier.getOrCreateDamage(item, itemUndamagableDamage, proposal);
 		} else {
 			//tag
-			return ItemIdentifier.getOrCreateTag(item, itemUndamagableDamage, new FinalNBTTagCompound(tag));
+			return ItemIdentifier.getOrCreateTag(item, itemUndamagableDamage, tag);
 		}
 	}
 
@@ -380,16 +393,16 @@ public final class ItemIdentifier implements Comparable<ItemIdentifier>, ILPCCTy
 	}
 
 	public static List<ItemIdentifier> getMatchingNBTIdentifier(Item item, int itemData) {
-		//inefficient, we'll have to add another map if this becomes a bottleneck
 		ArrayList<ItemIdentifier> resultlist = new ArrayList<>(16);
-		ItemIdentifier.keyRefRlock.lock();
-		for (IDReference r : ItemIdentifier.keyRefMap.values()) {
-			ItemIdentifier t = r.get();
-			if (t != null && t.item == item && t.itemDamage == itemData) {
-				resultlist.add(t);
+		Set<IDReference> variants = ItemIdentifier.tagVariants.get(new ItemKey(item, itemData, null));
+		if (variants != null) {
+			for (IDReference r : variants) {
+				ItemIdentifier t = r.get();
+				if (t != null) {
+					resultlist.add(t);
+				}
 			}
 		}
-		ItemIdentifier.keyRefRlock.unlock();
 		return resultlist;
 	}
 
@@ -0,0 +1,89 @@
+package logisticspipes.pipes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import logisticspipes.interfaces.routing.IAdditionalTargetInformation;
+import logisticspipes.interfaces.routing.ICraftItems;
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.interfaces.routing.IRequestItems;
+import logisticspipes.request.ICraftingTemplate;
+import logisticspipes.request.IPromise;
+import logisticspipes.request.ItemCraftingTemplate;
+import logisticspipes.request.RequestTree;
+import logisticspipes.request.RequestTreeNode;
+import logisticspipes.request.resources.IResource;
+import logisticspipes.request.resources.ItemResource;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.LogisticsPromise;
+import logisticspipes.routing.order.LogisticsOrder;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+
+/**
+ * Crafts one fixed recipe, planned like a crafting pipe, without ever
+ * receiving or sending an item.
+ */
+public class FakeCrafterPipe extends FakePipe implements ICraftItems {
+
+	private ItemIdentifierStack result;
+	private List<ItemIdentifierStack> ingredients;
+
+	public FakeCrafterPipe(IRouter router) {
+		super(router);
+	}
+
+	public void setRecipe(ItemIdentifierStack result, List<ItemIdentifierStack> ingredients) {
+		this.result = result;
+		this.ingredients = ingredients;
+		setInterests(Collections.singleton(result.getItem()), false);
+	}
+
+	@Override
+	public ICraftingTemplate addCrafting(IResource type) {
+		if (!canCraft(type)) {
+			return null;
+		}
+		ItemCraftingTemplate template = new ItemCraftingTemplate(result, this, 0);
+		for (ItemIdentifierStack ingredient : ingredients) {
+			template.addRequirement(new ItemResource(ingredient, this), null);
+		}
+		return template;
+	}
+
+	@Override
+	public boolean canCraft(IResource toCraft) {
+		return toCraft.matches(result.getItem(), IResource.MatchSettings.NORMAL);
+	}
+
+	@Override
+	public List<ItemIdentifierStack> getCraftedItems() {
+		return Collections.singletonList(result);
+	}
+
+	@Override
+	public int getTodo() {
+		return 0;
+	}
+
+	@Override
+	public void registerExtras(IPromise promise) {}
+
+	@Override
+	public void canProvide(RequestTreeNode tree, RequestTree root, List<IFilter> filter) {}
+
+	@Override
+	public LogisticsOrder fullFill(LogisticsPromise promise, IRequestItems destination, IAdditionalTargetInformation info) {
+		return null;
+	}
+
+	@Override
+	public void getAllItems(Map<ItemIdentifier, Integer> list, List<IFilter> filter) {}
+
+	@Override
+	public void itemLost(ItemIdentifierStack item, IAdditionalTargetInformation info) {}
+
+	@Override
+	public void itemArrived(ItemIdentifierStack item, IAdditionalTargetInformation info) {}
+}
@@ -0,0 +1,77 @@
+package logisticspipes.pipes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import net.minecraft.item.Item;
+import net.minecraft.tileentity.TileEntity;
+
+import logisticspipes.modules.abstractmodules.LogisticsModule;
+import logisticspipes.pipefxhandlers.Particles;
+import logisticspipes.pipes.basic.CoreRoutedPipe;
+import logisticspipes.routing.IRouter;
+import logisticspipes.textures.Textures.TextureType;
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * A routed pipe without a tile entity, world or item, for the benchmarks.
+ *
+ * The pipe is constructed without an item and is never bound to a tile, so
+ * only the methods overridden here and the ones of the request planning may be
+ * called. Its inventories need the vanilla Bootstrap.
+ */
+public class FakePipe extends CoreRoutedPipe {
+
+	private final IRouter fakeRouter;
+	private Set<ItemIdentifier> interests = Collections.emptySet();
+	private boolean genericInterests;
+
+	public FakePipe(IRouter router) {
+		super((Item) null);
+		fakeRouter = router;
+	}
+
+	public void setInterests(Set<ItemIdentifier> interests, boolean genericInterests) {
+		this.interests = interests;
+		this.genericInterests = genericInterests;
+	}
+
+	@Override
+	public IRouter getRouter() {
+		return fakeRouter;
+	}
+
+	@Override
+	public Set<ItemIdentifier> getSpecificInterests() {
+		return interests;
+	}
+
+	@Override
+	public boolean hasGenericInterests() {
+		return genericInterests;
+	}
+
+	@Override
+	protected List<TileEntity> getConnectedRawInventories() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void spawnParticle(Particles particle, int amount) {}
+
+	@Override
+	public ItemSendMode getItemSendMode() {
+		return ItemSendMode.Normal;
+	}
+
+	@Override
+	public TextureType getCenterTexture() {
+		return null;
+	}
+
+	@Override
+	public LogisticsModule getLogisticsModule() {
+		return null;
+	}
+}
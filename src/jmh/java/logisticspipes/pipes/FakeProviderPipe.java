@@ -0,0 +1,67 @@
+package logisticspipes.pipes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import logisticspipes.interfaces.routing.IAdditionalTargetInformation;
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.interfaces.routing.IProvideItems;
+import logisticspipes.interfaces.routing.IRequestItems;
+import logisticspipes.request.RequestTree;
+import logisticspipes.request.RequestTreeNode;
+import logisticspipes.request.resources.ItemResource;
+import logisticspipes.routing.IRouter;
+import logisticspipes.routing.LogisticsPromise;
+import logisticspipes.routing.order.IOrderInfoProvider.ResourceType;
+import logisticspipes.routing.order.LogisticsOrder;
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Provides a fixed stock of items, promising them like a provider pipe.
+ */
+public class FakeProviderPipe extends FakePipe implements IProvideItems {
+
+	private Map<ItemIdentifier, Integer> stock;
+
+	public FakeProviderPipe(IRouter router) {
+		super(router);
+	}
+
+	public void setStock(Map<ItemIdentifier, Integer> stock) {
+		this.stock = new HashMap<>(stock);
+		setInterests(this.stock.keySet(), false);
+	}
+
+	@Override
+	public void canProvide(RequestTreeNode tree, RequestTree root, List<IFilter> filters) {
+		if (!(tree.getRequestType() instanceof ItemResource)) {
+			return;
+		}
+		ItemIdentifier item = ((ItemResource) tree.getRequestType()).getItem();
+		for (IFilter filter : filters) {
+			if (filter.isBlocked() == filter.isFilteredItem(item.getUndamaged()) || filter.blockProvider()) {
+				return;
+			}
+		}
+		int canProvide = stock.getOrDefault(item, 0);
+		canProvide -= root.getAllPromissesFor(this, item);
+		if (canProvide < 1) {
+			return;
+		}
+		tree.addPromise(new LogisticsPromise(item, Math.min(canProvide, tree.getMissingAmount()), this, ResourceType.PROVIDER));
+	}
+
+	@Override
+	public LogisticsOrder fullFill(LogisticsPromise promise, IRequestItems destination, IAdditionalTargetInformation info) {
+		return null;
+	}
+
+	@Override
+	public void getAllItems(Map<ItemIdentifier, Integer> list, List<IFilter> filter) {
+		for (Entry<ItemIdentifier, Integer> entry : stock.entrySet()) {
+			list.merge(entry.getKey(), entry.getValue(), Integer::sum);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package logisticspipes.request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logisticspipes.pipes.FakeCrafterPipe;
+import logisticspipes.pipes.FakePipe;
+import logisticspipes.pipes.FakeProviderPipe;
+import logisticspipes.request.resources.ItemResource;
+import logisticspipes.routing.BenchmarkNetwork;
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+
+/**
+ * Plans a request for the top of a recipe tree in a grid network. Every item
+ * of a level is crafted from {@link #INGREDIENTS} items of the level below,
+ * and the items of the lowest level are stocked by providers, so planning
+ * walks every crafter and provider of the tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestTreeBenchmark {
+
+	private static final int INGREDIENTS = 3;
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	@Param({ "1", "3" })
+	public int depth;
+
+	private BenchmarkNetwork network;
+	private FakePipe requester;
+	private ItemIdentifier top;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bootstrap.register();
+		network = new BenchmarkNetwork(size);
+		int nextRouter = 1;
+		int nextItem = 0;
+		top = ItemIdentifier.get(Items.DYE, nextItem++, null);
+		List<ItemIdentifier> level = Collections.singletonList(top);
+		for (int d = 0; d < depth; d++) {
+			List<ItemIdentifier> below = new ArrayList<>();
+			for (ItemIdentifier item : level) {
+				List<ItemIdentifierStack> ingredients = new ArrayList<>();
+				for (int i = 0; i < RequestTreeBenchmark.INGREDIENTS; i++) {
+					ItemIdentifier ingredient = ItemIdentifier.get(Items.DYE, nextItem++, null);
+					ingredients.add(ingredient.makeStack(1));
+					below.add(ingredient);
+				}
+				// spread the crafters over the network
+				FakeCrafterPipe crafter = network.setPipe(nextRouter++ * 7 % (size - 1) + 1, FakeCrafterPipe::new);
+				crafter.setRecipe(item.makeStack(1), ingredients);
+			}
+			level = below;
+		}
+		for (ItemIdentifier item : level) {
+			FakeProviderPipe provider = network.setPipe(nextRouter++ * 7 % (size - 1) + 1, FakeProviderPipe::new);
+			provider.setStock(Collections.singletonMap(item, 1024));
+		}
+		requester = network.getPipe(0);
+		network.start();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		network.stop();
+	}
+
+	@Benchmark
+	public int planRequest() {
+		RequestTree tree = new RequestTree(new ItemResource(top.makeStack(16), requester), null, RequestTree.defaultRequestFlags, null);
+		return tree.getPromiseAmount();
+	}
+}
@@ -0,0 +1,99 @@
+package logisticspipes.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.EnumFacing;
+
+import logisticspipes.logistics.LogisticsManager;
+import logisticspipes.pipes.FakePipe;
+import logisticspipes.proxy.SimpleServiceLocator;
+
+/**
+ * A square grid of fake routers, every router linked to the routers next to
+ * it. Each router has a plain {@link FakePipe} until it is replaced with
+ * {@link #setPipe}, and the network is published to the LSA database by
+ * {@link #start}.
+ */
+public class BenchmarkNetwork {
+
+	private final int width;
+	private final List<FakeRouter> routers;
+	private final List<FakePipe> pipes;
+
+	public BenchmarkNetwork(int size) {
+		Bootstrap.register();
+		ServerRouter.cleanup();
+		width = (int) Math.ceil(Math.sqrt(size));
+		routers = new ArrayList<>(size);
+		pipes = new ArrayList<>(size);
+		FakeRouterManager routerManager = new FakeRouterManager();
+		for (int i = 0; i < size; i++) {
+			FakeRouter router = new FakeRouter(i);
+			routers.add(router);
+			routerManager.add(router);
+			pipes.add(null);
+			setPipe(i, FakePipe::new);
+			if (i % width != 0) {
+				FakeRouter.link(routers.get(i - 1), router, EnumFacing.EAST);
+			}
+			if (i >= width) {
+				FakeRouter.link(routers.get(i - width), router, EnumFacing.SOUTH);
+			}
+		}
+		SimpleServiceLocator.setRouterManager(routerManager);
+		SimpleServiceLocator.setLogisticsManager(new LogisticsManager());
+	}
+
+	public <T extends FakePipe> T setPipe(int index, Function<IRouter, T> factory) {
+		T pipe = factory.apply(routers.get(index));
+		routers.get(index).setPipe(pipe);
+		pipes.set(index, pipe);
+		return pipe;
+	}
+
+	/**
+	 * Publishes the links of all routers and reads the interests of all pipes.
+	 * The routing tables are computed when they are used first.
+	 */
+	public void start() {
+		for (FakeRouter router : routers) {
+			router.publish();
+		}
+		for (FakeRouter router : routers) {
+			router.ticksUntillNextInventoryCheck = 0;
+			router.updateInterests();
+			router.flagForRoutingUpdate();
+		}
+	}
+
+	public void stop() {
+		ServerRouter.cleanup();
+	}
+
+	public int size() {
+		return routers.size();
+	}
+
+	public FakeRouter getRouter(int index) {
+		return routers.get(index);
+	}
+
+	public FakePipe getPipe(int index) {
+		return pipes.get(index);
+	}
+
+	/**
+	 * A debug adapter which makes the router compute a routing table without
+	 * storing it, so the same table can be computed over and over.
+	 */
+	public static class IndependentRoutingDebugAdapter extends DummyRoutingDebugAdapter {
+
+		@Override
+		public boolean independent() {
+			return true;
+		}
+	}
+}
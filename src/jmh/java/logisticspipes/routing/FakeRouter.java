@@ -0,0 +1,87 @@
+package logisticspipes.routing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.minecraft.util.EnumFacing;
+
+import logisticspipes.interfaces.routing.IFilter;
+import logisticspipes.pipes.basic.CoreRoutedPipe;
+import logisticspipes.utils.tuples.Quartet;
+
+/**
+ * A server router which isn't backed by a pipe in a world. Its neighbors are
+ * set with {@link #link} and its pipe is whatever pipe it was given.
+ */
+public class FakeRouter extends ServerRouter {
+
+	/**
+	 * The LSA update the server router runs after its adjacent routers changed,
+	 * which it only reaches from the pipe it is bound to.
+	 */
+	private static final Method LOCK_AND_UPDATE_LSA;
+
+	static {
+		try {
+			LOCK_AND_UPDATE_LSA = ServerRouter.class.getDeclaredMethod("lockAndUpdateLSA", HashMap.class, ArrayList.class, ArrayList.class);
+			LOCK_AND_UPDATE_LSA.setAccessible(true);
+		} catch (NoSuchMethodException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Map<IRouter, ExitRoute> neighbors = new HashMap<>();
+	private CoreRoutedPipe pipe;
+
+	public FakeRouter(int index) {
+		super(null, 0, index, 0, 0);
+	}
+
+	public void setPipe(CoreRoutedPipe pipe) {
+		this.pipe = pipe;
+	}
+
+	@Override
+	public CoreRoutedPipe getPipe() {
+		return pipe;
+	}
+
+	@Override
+	public CoreRoutedPipe getCachedPipe() {
+		return pipe;
+	}
+
+	/**
+	 * Connects both routers in both directions with a cost of 1.
+	 */
+	public static void link(FakeRouter a, FakeRouter b, EnumFacing side) {
+		a.neighbors.put(b, new ExitRoute(a, b, side, side.getOpposite(), 1.0, EnumSet.allOf(PipeRoutingConnectionType.class), 1));
+		b.neighbors.put(a, new ExitRoute(b, a, side.getOpposite(), side, 1.0, EnumSet.allOf(PipeRoutingConnectionType.class), 1));
+	}
+
+	/**
+	 * Makes the linked neighbors the adjacent routers and publishes them in the
+	 * LSA database right away.
+	 */
+	public void publish() {
+		_adjacentRouter_Old = _adjacentRouter;
+		_adjacentRouter = Collections.unmodifiableMap(new HashMap<>(neighbors));
+		HashMap<IRouter, Quartet<Double, EnumSet<PipeRoutingConnectionType>, List<IFilter>, Integer>> neighboursWithMetric = new HashMap<>();
+		for (Entry<IRouter, ExitRoute> adjacent : _adjacentRouter.entrySet()) {
+			ExitRoute route = adjacent.getValue();
+			neighboursWithMetric.put(adjacent.getKey(), new Quartet<>(route.distanceToDestination, route.connectionDetails, route.filters, route.blockDistance));
+		}
+		try {
+			FakeRouter.LOCK_AND_UPDATE_LSA.invoke(this, neighboursWithMetric, null, null);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
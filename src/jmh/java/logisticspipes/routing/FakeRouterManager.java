@@ -0,0 +1,85 @@
+package logisticspipes.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resolves the simpleIDs of the routers of a benchmark network.
+ */
+public class FakeRouterManager implements IRouterManager {
+
+	private final List<IRouter> routers = new ArrayList<>();
+
+	public void add(IRouter router) {
+		int id = router.getSimpleID();
+		while (routers.size() <= id) {
+			routers.add(null);
+		}
+		routers.set(id, router);
+	}
+
+	@Override
+	public int getIDforUUID(UUID id) {
+		for (IRouter router : routers) {
+			if (router != null && router.getId().equals(id)) {
+				return router.getSimpleID();
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public IRouter getOrCreateRouter(UUID routerUUid, int dimension, int xCoord, int yCoord, int zCoord, boolean forceCreateDuplicateAtCoordinate) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public IRouter getRouter(int id) {
+		return getRouterUnsafe(id, false);
+	}
+
+	@Override
+	public boolean isRouter(int id) {
+		return getRouter(id) != null;
+	}
+
+	@Override
+	public void removeRouter(int id) {
+		if (id < routers.size()) {
+			routers.set(id, null);
+		}
+	}
+
+	@Override
+	public List<IRouter> getRouters() {
+		return routers;
+	}
+
+	@Override
+	public void serverStopClean() {
+		routers.clear();
+	}
+
+	@Override
+	public void clearClientRouters() {}
+
+	@Override
+	public void dimensionUnloaded(int dim) {}
+
+	@Override
+	public boolean isRouterUnsafe(int id, boolean isClientSide) {
+		return getRouterUnsafe(id, isClientSide) != null;
+	}
+
+	@Override
+	public IRouter getRouterUnsafe(Integer value1, boolean isClientSide) {
+		if (value1 == null || value1 < 0 || value1 >= routers.size()) {
+			return null;
+		}
+		return routers.get(value1);
+	}
+
+	@Override
+	public void printAllRouters() {}
+}
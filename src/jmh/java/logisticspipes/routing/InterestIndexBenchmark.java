@@ -0,0 +1,79 @@
+package logisticspipes.routing;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logisticspipes.pipes.FakePipe;
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * Looks up the routers interested in an item, with every router interested
+ * in a few of {@link #ITEMS} items and every tenth router in everything.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestIndexBenchmark {
+
+	private static final int ITEMS = 256;
+	private static final int INTERESTS_PER_ROUTER = 4;
+
+	@Param({ "100", "1000", "10000" })
+	public int size;
+
+	private BenchmarkNetwork network;
+	private ItemIdentifier[] items;
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bootstrap.register();
+		items = new ItemIdentifier[InterestIndexBenchmark.ITEMS];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = ItemIdentifier.get(Items.DYE, i, null);
+		}
+		network = new BenchmarkNetwork(size);
+		for (int i = 0; i < size; i++) {
+			Set<ItemIdentifier> interests = new HashSet<>();
+			for (int j = 0; j < InterestIndexBenchmark.INTERESTS_PER_ROUTER; j++) {
+				interests.add(items[(i * 31 + j * 7) % items.length]);
+			}
+			FakePipe pipe = network.getPipe(i);
+			pipe.setInterests(interests, i % 10 == 0);
+		}
+		network.start();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		network.stop();
+	}
+
+	@Benchmark
+	public BitSet getRoutersInterestedIn() {
+		next = (next + 1) % items.length;
+		return ServerRouter.getRoutersInterestedIn(items[next]);
+	}
+}
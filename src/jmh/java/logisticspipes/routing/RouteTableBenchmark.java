@@ -0,0 +1,67 @@
+package logisticspipes.routing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dijkstra over the LSA database of a grid network, from a corner router.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTableBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int size;
+
+	private BenchmarkNetwork network;
+	private ServerRouter source;
+	private final BenchmarkNetwork.IndependentRoutingDebugAdapter independent = new BenchmarkNetwork.IndependentRoutingDebugAdapter();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		network = new BenchmarkNetwork(size);
+		network.start();
+		source = network.getRouter(0);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		network.stop();
+	}
+
+	/**
+	 * A full computation of the routing table, which isn't stored.
+	 */
+	@Benchmark
+	public void createRouteTable() {
+		source.CreateRouteTable(0, independent);
+	}
+
+	/**
+	 * A routing update without any change to the network, as it happens for
+	 * every router when any router of the network changed.
+	 */
+	@Benchmark
+	public List<List<ExitRoute>> routingUpdateWithoutChange() {
+		source.flagForRoutingUpdate();
+		return source.getRouteTable();
+	}
+}
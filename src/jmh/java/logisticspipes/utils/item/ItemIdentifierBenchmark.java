@@ -0,0 +1,73 @@
+package logisticspipes.utils.item;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Interning of items which are already known, as done for every stack the
+ * pipes look at.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemIdentifierBenchmark {
+
+	private NBTTagCompound tag;
+	private ItemStack stack;
+	private ItemStack taggedStack;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bootstrap.register();
+		tag = new NBTTagCompound();
+		tag.setString("name", "benchmark");
+		tag.setInteger("count", 42);
+		NBTTagCompound nested = new NBTTagCompound();
+		nested.setDouble("value", 0.5);
+		tag.setTag("nested", nested);
+		stack = new ItemStack(Items.DYE, 1, 4);
+		taggedStack = new ItemStack(Items.DYE, 1, 4);
+		taggedStack.setTagCompound(tag.copy());
+		ItemIdentifier.get(Items.DYE, 4, null);
+		ItemIdentifier.get(Items.DYE, 4, tag);
+	}
+
+	@Benchmark
+	public ItemIdentifier getWithoutTag() {
+		return ItemIdentifier.get(Items.DYE, 4, null);
+	}
+
+	@Benchmark
+	public ItemIdentifier getWithTag() {
+		return ItemIdentifier.get(Items.DYE, 4, tag);
+	}
+
+	@Benchmark
+	public ItemIdentifier getFromStack() {
+		return ItemIdentifier.get(stack);
+	}
+
+	@Benchmark
+	public ItemIdentifier getFromTaggedStack() {
+		return ItemIdentifier.get(taggedStack);
+	}
+}
@@ -0,0 +1,71 @@
+package network.rs485.logisticspipes.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logisticspipes.utils.item.ItemIdentifier;
+import logisticspipes.utils.item.ItemIdentifierStack;
+
+/**
+ * Writing and reading a list of item stacks, like the inventory contents the
+ * request GUIs and HUDs receive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LPDataIOWrapperBenchmark {
+
+	@Param({ "16", "256" })
+	public int stacks;
+
+	private List<ItemIdentifierStack> items;
+	private byte[] data;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bootstrap.register();
+		items = new ArrayList<>(stacks);
+		for (int i = 0; i < stacks; i++) {
+			NBTTagCompound tag = null;
+			if (i % 4 == 0) {
+				tag = new NBTTagCompound();
+				tag.setInteger("index", i);
+			}
+			items.add(new ItemIdentifierStack(ItemIdentifier.get(Items.DYE, i % 16, tag), i + 1));
+		}
+		data = write();
+	}
+
+	@Benchmark
+	public byte[] write() {
+		return LPDataIOWrapper.collectData(output -> output.writeCollection(items, LPDataOutput::writeItemIdentifierStack));
+	}
+
+	@Benchmark
+	public List<ItemIdentifierStack> read() {
+		List<List<ItemIdentifierStack>> result = new ArrayList<>(1);
+		LPDataIOWrapper.provideData(data, input -> result.add(input.readArrayList(LPDataInput::readItemIdentifierStack)));
+		return result.get(0);
+	}
+}
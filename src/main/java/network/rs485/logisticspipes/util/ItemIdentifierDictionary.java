@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018  RS485
+ *
+ * "LogisticsPipes" is distributed under the terms of the Minecraft Mod Public
+ * License 1.0.1, or MMPL. Please check the contents of the license located in
+ * https://github.com/RS485/LogisticsPipes/blob/dev/LICENSE.md
+ *
+ * This file can instead be distributed under the license terms of the
+ * MIT license:
+ *
+ * Copyright (c) 2018  RS485
+ *
+ * This MIT license was reworded to only match this file. If you use the regular
+ * MIT license in your project, replace this copyright notice (this line and any
+ * lines below and NOT the copyright line above) with the lines from the original
+ * MIT license located here: http://opensource.org/licenses/MIT
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this file and associated documentation files (the "Source Code"), to deal in
+ * the Source Code without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Source Code, and to permit persons to whom the Source Code is furnished
+ * to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Source Code, which also can be
+ * distributed under the MIT.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package network.rs485.logisticspipes.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import logisticspipes.utils.item.ItemIdentifier;
+
+/**
+ * The item identifiers sent over one direction of a connection. The first
+ * time an identifier is written it is sent in full and numbered, afterwards
+ * only its number is sent. The writing and the reading side each keep a
+ * dictionary and number the identifiers in the order they were sent, so all
+ * data using a dictionary has to be read in the order it was written.
+ *
+ * Having a dictionary also switches the {@link LPDataIOWrapper} to the compact
+ * encoding of item stacks and collection sizes.
+ */
+public final class ItemIdentifierDictionary {
+
+	/** identifiers beyond this are sent in full every time */
+	static final int MAX_ENTRIES = 1 << 16;
+
+	private final Map<ItemIdentifier, Integer> ids = new HashMap<>();
+	private final List<ItemIdentifier> identifiers = new ArrayList<>();
+
+	/**
+	 * @return the number of the identifier, or -1 if it wasn't sent yet
+	 */
+	int getId(ItemIdentifier item) {
+		return ids.getOrDefault(item, -1);
+	}
+
+	/**
+	 * @return false if the dictionary is full and the identifier wasn't added
+	 */
+	boolean add(ItemIdentifier item) {
+		if (identifiers.size() >= ItemIdentifierDictionary.MAX_ENTRIES) {
+			return false;
+		}
+		ids.put(item, identifiers.size());
+		identifiers.add(item);
+		return true;
+	}
+
+	ItemIdentifier get(int id) {
+		if (id < 0 || id >= identifiers.size()) {
+			throw new IndexOutOfBoundsException("Unknown ItemIdentifier " + id);
+		}
+		return identifiers.get(id);
+	}
+}
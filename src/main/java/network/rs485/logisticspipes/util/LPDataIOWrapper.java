@@ -78,8 +78,16 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 
 	private static final Charset UTF_8 = StandardCharsets.UTF_8;
 	private static final HashMap<Long, LPDataIOWrapper> BUFFER_WRAPPER_MAP = new HashMap<>();
+	// markers of an item identifier in the compact encoding, followed by the number of the identifier
+	private static final int ITEM_NULL = 0;
+	private static final int ITEM_NEW = 1;
+	private static final int ITEM_INLINE = 2;
+	private static final int ITEM_KNOWN = 3;
 	ByteBuf localBuffer;
 	private int reference;
+	/** set when the compact encoding is used */
+	@Nullable
+	private ItemIdentifierDictionary dictionary;
 
 	private LPDataIOWrapper(ByteBuf buffer) {
 		localBuffer = buffer;
@@ -144,6 +152,38 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 		lpData.unsetBuffer();
 	}
 
+	/**
+	 * Writes in the compact encoding, with item identifiers from the given
+	 * dictionary. The data has to be read with the reading side's dictionary,
+	 * in the same order as it was written.
+	 */
+	public static void writeData(ByteBuf dataBuffer, ItemIdentifierDictionary dictionary, LPDataOutputConsumer dataOutputConsumer) {
+		LPDataIOWrapper lpData = getInstance(dataBuffer);
+		ItemIdentifierDictionary previous = lpData.dictionary;
+		lpData.dictionary = dictionary;
+
+		dataOutputConsumer.accept(lpData);
+
+		lpData.dictionary = previous;
+		lpData.unsetBuffer();
+	}
+
+	/**
+	 * Reads data written with {@link #writeData(ByteBuf, ItemIdentifierDictionary, LPDataOutputConsumer)}.
+	 */
+	public static void provideData(byte[] data, ItemIdentifierDictionary dictionary, LPDataInputConsumer dataInputConsumer) {
+		ByteBuf dataBuffer = wrappedBuffer(data);
+		LPDataIOWrapper lpData = getInstance(dataBuffer);
+		ItemIdentifierDictionary previous = lpData.dictionary;
+		lpData.dictionary = dictionary;
+
+		dataInputConsumer.accept(lpData);
+
+		lpData.dictionary = previous;
+		lpData.unsetBuffer();
+		dataBuffer.release();
+	}
+
 	private void unsetBuffer() {
 		if (localBuffer.hasMemoryAddress()) {
 			synchronized (BUFFER_WRAPPER_MAP) {
@@ -206,6 +246,20 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 		localBuffer.writeLong(l);
 	}
 
+	@Override
+	public void writeVarInt(int i) {
+		while ((i & ~0x7F) != 0) {
+			localBuffer.writeByte((i & 0x7F) | 0x80);
+			i >>>= 7;
+		}
+		localBuffer.writeByte(i);
+	}
+
+	@Override
+	public void writeSignedVarInt(int i) {
+		writeVarInt((i << 1) ^ (i >> 31));
+	}
+
 	@Override
 	public void writeFloat(float f) {
 		localBuffer.writeFloat(f);
@@ -340,7 +394,9 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 
 	@Override
 	public void writeItemIdentifier(@Nullable ItemIdentifier item) {
-		if (item == null) {
+		if (dictionary != null) {
+			writeCompactItemIdentifier(item, dictionary);
+		} else if (item == null) {
 			writeInt(0);
 		} else {
 			writeInt(Item.getIdFromItem(item.item));
@@ -349,22 +405,56 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 		}
 	}
 
+	private void writeCompactItemIdentifier(@Nullable ItemIdentifier item, ItemIdentifierDictionary dictionary) {
+		if (item == null) {
+			writeVarInt(ITEM_NULL);
+			return;
+		}
+		int id = dictionary.getId(item);
+		if (id != -1) {
+			writeVarInt(ITEM_KNOWN + id);
+			return;
+		}
+		writeVarInt(dictionary.add(item) ? ITEM_NEW : ITEM_INLINE);
+		writeVarInt(Item.getIdFromItem(item.item));
+		writeSignedVarInt(item.itemDamage);
+		writeNBTTagCompound(item.tag);
+	}
+
 	@Override
 	public void writeItemIdentifierStack(@Nullable ItemIdentifierStack stack) {
 		if (stack == null) {
-			writeInt(-1);
+			writeSize(-1);
 		} else {
-			writeInt(stack.getStackSize());
+			writeSize(stack.getStackSize());
 			writeItemIdentifier(stack.getItem());
 		}
 	}
 
+	/**
+	 * Sizes and stack sizes are ints, or varints in the compact encoding.
+	 */
+	private void writeSize(int size) {
+		if (dictionary != null) {
+			writeSignedVarInt(size);
+		} else {
+			writeInt(size);
+		}
+	}
+
+	private int readSize() {
+		if (dictionary != null) {
+			return readSignedVarInt();
+		}
+		return readInt();
+	}
+
 	@Override
 	public <T> void writeCollection(@Nullable Collection<T> collection, IWriteListObject<T> handler) {
 		if (collection == null) {
-			writeInt(-1);
+			writeSize(-1);
 		} else {
-			writeInt(collection.size());
+			writeSize(collection.size());
 			for (T obj : collection) {
 				handler.writeObject(this, obj);
 			}
@@ -443,6 +533,28 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 		return localBuffer.readLong();
 	}
 
+	@Override
+	public int readVarInt() {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if (shift >= 35) {
+				throw new IndexOutOfBoundsException("VarInt is too long");
+			}
+			b = localBuffer.readByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	@Override
+	public int readSignedVarInt() {
+		int i = readVarInt();
+		return (i >>> 1) ^ -(i & 1);
+	}
+
 	@Override
 	public float readFloat() {
 		return localBuffer.readFloat();
@@ -593,6 +705,9 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 	@Nullable
 	@Override
 	public ItemIdentifier readItemIdentifier() {
+		if (dictionary != null) {
+			return readCompactItemIdentifier(dictionary);
+		}
 		final int itemId = readInt();
 		if (itemId == 0) {
 			return null;
@@ -603,10 +718,29 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 		return ItemIdentifier.get(Item.getItemById(itemId), damage, tag);
 	}
 
+	@Nullable
+	private ItemIdentifier readCompactItemIdentifier(ItemIdentifierDictionary dictionary) {
+		final int marker = readVarInt();
+		if (marker == ITEM_NULL) {
+			return null;
+		} else if (marker >= ITEM_KNOWN) {
+			return dictionary.get(marker - ITEM_KNOWN);
+		}
+
+		int itemId = readVarInt();
+		int damage = readSignedVarInt();
+		NBTTagCompound tag = readNBTTagCompound();
+		ItemIdentifier item = ItemIdentifier.get(Item.getItemById(itemId), damage, tag);
+		if (marker == ITEM_NEW) {
+			dictionary.add(item);
+		}
+		return item;
+	}
+
 	@Nullable
 	@Override
 	public ItemIdentifierStack readItemIdentifierStack() {
-		int stacksize = readInt();
+		int stacksize = readSize();
 		if (stacksize == -1) {
 			return null;
 		}
@@ -634,7 +768,7 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 	@Nullable
 	@Override
 	public <T> ArrayList<T> readArrayList(IReadListObject<T> reader) {
-		int size = readInt();
+		int size = readSize();
 		if (size == -1) {
 			return null;
 		}
@@ -649,7 +783,7 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 	@Nullable
 	@Override
 	public <T> LinkedList<T> readLinkedList(IReadListObject<T> reader) {
-		int size = readInt();
+		int size = readSize();
 		if (size == -1) {
 			return null;
 		}
@@ -664,7 +798,7 @@ public final class LPDataIOWrapper implements LPDataInput, LPDataOutput {
 	@Nullable
 	@Override
 	public <T> Set<T> readSet(IReadListObject<T> handler) {
-		int size = readInt();
+		int size = readSize();
 		if (size == -1) {
 			return null;
 		}
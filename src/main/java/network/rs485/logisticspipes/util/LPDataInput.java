@@ -84,6 +84,16 @@ public interface LPDataInput {
 	 */
 	long readLong();
 
+	/**
+	 * @see LPDataOutput#writeVarInt(int)
+	 */
+	int readVarInt();
+
+	/**
+	 * @see LPDataOutput#writeSignedVarInt(int)
+	 */
+	int readSignedVarInt();
+
 	/**
 	 * @see java.io.DataInput#readFloat()
 	 */
@@ -82,6 +82,18 @@ public interface LPDataOutput {
 	 */
 	void writeLong(long l);
 
+	/**
+	 * Writes the int in 1 to 5 bytes, 7 bits at a time, so small positive
+	 * values are short. Negative values always take 5 bytes.
+	 */
+	void writeVarInt(int i);
+
+	/**
+	 * Writes the int as a zigzag encoded varint, so values close to zero are
+	 * short regardless of their sign.
+	 */
+	void writeSignedVarInt(int i);
+
 	/**
 	 * @see java.io.DataOutput#writeFloat(float)
 	 */
@@ -52,6 +52,7 @@ import lombok.Data;
 
 import logisticspipes.LPConstants;
 import logisticspipes.LogisticsPipes;
+import logisticspipes.pipes.basic.LogisticsTileGenericPipe;
 import logisticspipes.proxy.MainProxy;
 import logisticspipes.proxy.SimpleServiceLocator;
 import logisticspipes.routing.pathfinder.IPipeInformationProvider.ConnectionPipeType;
@@ -102,7 +103,14 @@ public class WorldCoordinatesWrapper {
 		this.coords = coords;
 	}
 
+	/**
+	 * The neighbors of a logistics pipe are taken from its {@link logisticspipes.pipes.basic.PipeNeighborCache}.
+	 */
 	public Stream<NeighborTileEntity<TileEntity>> allNeighborTileEntities() {
+		TileEntity tile = getTileEntity();
+		if (tile instanceof LogisticsTileGenericPipe && ((LogisticsTileGenericPipe) tile).nonNull()) {
+			return ((LogisticsTileGenericPipe) tile).getNeighborCache().getNeighbors().stream();
+		}
 		return Arrays.stream(EnumFacing.VALUES).map(this::getNeighbor).filter(Objects::nonNull);
 	}
 
@@ -112,7 +120,7 @@ public class WorldCoordinatesWrapper {
 			LogisticsPipes.log.warn("The coordinates didn't hold a pipe at all", new Throwable("Stack trace"));
 			return Stream.empty();
 		}
-		return allNeighborTileEntities().filter(adjacent -> MainProxy.checkPipesConnections(pipe, adjacent.getTileEntity(), adjacent.getDirection()));
+		return connectedTileEntities(pipe);
 	}
 
 	public Stream<NeighborTileEntity<TileEntity>> connectedTileEntities(ConnectionPipeType pipeType) {
@@ -123,7 +131,15 @@ public class WorldCoordinatesWrapper {
 			}
 			return Stream.empty();
 		}
-		return allNeighborTileEntities().filter(neighbor -> MainProxy.checkPipesConnections(pipe, neighbor.getTileEntity(), neighbor.getDirection()));
+		return connectedTileEntities(pipe);
+	}
+
+	private Stream<NeighborTileEntity<TileEntity>> connectedTileEntities(TileEntity pipe) {
+		if (pipe instanceof LogisticsTileGenericPipe && ((LogisticsTileGenericPipe) pipe).nonNull()) {
+			return ((LogisticsTileGenericPipe) pipe).getNeighborCache().getConnected().stream();
+		}
+		return Arrays.stream(EnumFacing.VALUES).map(this::getNeighbor).filter(Objects::nonNull)
+				.filter(neighbor -> MainProxy.checkPipesConnections(pipe, neighbor.getTileEntity(), neighbor.getDirection()));
 	}
 
 	@Nullable
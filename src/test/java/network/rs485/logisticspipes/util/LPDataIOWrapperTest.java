@@ -5,6 +5,8 @@ import java.util.BitSet;
 import java.util.HashSet;
 import java.util.LinkedList;
 
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -12,12 +14,15 @@ import net.minecraft.util.EnumFacing;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+
+import logisticspipes.utils.item.ItemIdentifier;
 import static io.netty.buffer.Unpooled.buffer;
 import static io.netty.buffer.Unpooled.directBuffer;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -210,6 +215,55 @@ public class LPDataIOWrapperTest {
 		compareBuffer.release();
 	}
 
+	@org.junit.jupiter.api.Test
+	public void testVarInt() {
+		int[] values = new int[] { 0, 1, 127, 128, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+
+		byte[] data = LPDataIOWrapper.collectData(output -> {
+			for (int value : values) {
+				output.writeVarInt(value);
+			}
+		});
+
+		assertEquals(1 + 1 + 1 + 2 + 3 + 5 + 5 + 5, data.length);
+
+		LPDataIOWrapper.provideData(data, input -> {
+			for (int value : values) {
+				assertEquals(value, input.readVarInt());
+			}
+
+			assertEquals(0, ((LPDataIOWrapper) input).localBuffer.readableBytes(), BUFFER_EMPTY_MSG);
+		});
+	}
+
+	@org.junit.jupiter.api.Test
+	public void testSignedVarInt() {
+		int[] values = new int[] { 0, -1, 1, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE };
+
+		byte[] data = LPDataIOWrapper.collectData(output -> {
+			for (int value : values) {
+				output.writeSignedVarInt(value);
+			}
+		});
+
+		assertEquals(1 + 1 + 1 + 1 + 2 + 5 + 5, data.length);
+
+		LPDataIOWrapper.provideData(data, input -> {
+			for (int value : values) {
+				assertEquals(value, input.readSignedVarInt());
+			}
+
+			assertEquals(0, ((LPDataIOWrapper) input).localBuffer.readableBytes(), BUFFER_EMPTY_MSG);
+		});
+	}
+
+	@org.junit.jupiter.api.Test
+	public void testInvalidVarInt() {
+		byte[] data = new byte[] { -1, -1, -1, -1, -1, 1 };
+
+		LPDataIOWrapper.provideData(data, input -> assertThrows(IndexOutOfBoundsException.class, input::readVarInt));
+	}
+
 	@org.junit.jupiter.api.Test
 	public void testWriteLong() {
 		long value = 0x6f0f9f3f6f0f9f3fL;
@@ -623,6 +677,67 @@ public class LPDataIOWrapperTest {
 		});
 	}
 
+	@org.junit.jupiter.api.Test
+	public void testCompactArrayList() {
+		ArrayList<String> arrayList = new ArrayList<>();
+		arrayList.add("drölf");
+		arrayList.add("text");
+
+		ByteBuf dataBuffer = buffer();
+		LPDataIOWrapper.writeData(dataBuffer, new ItemIdentifierDictionary(), output -> {
+			output.writeCollection(arrayList, LPDataOutput::writeUTF);
+			output.writeCollection(null, LPDataOutput::writeUTF);
+		});
+		byte[] data = new byte[dataBuffer.readableBytes()];
+		dataBuffer.readBytes(data);
+		dataBuffer.release();
+
+		LPDataIOWrapper.provideData(data, new ItemIdentifierDictionary(), input -> {
+			assertEquals(arrayList, input.readArrayList(LPDataInput::readUTF));
+			assertNull(input.readArrayList(LPDataInput::readUTF));
+
+			assertEquals(0, ((LPDataIOWrapper) input).localBuffer.readableBytes(), BUFFER_EMPTY_MSG);
+		});
+	}
+
+	@org.junit.jupiter.api.Test
+	public void testCompactItemIdentifier() {
+		Bootstrap.register();
+		ItemIdentifier item = ItemIdentifier.get(Items.STICK, 0, null);
+		ItemIdentifierDictionary sendDictionary = new ItemIdentifierDictionary();
+
+		byte[] first = collectCompactData(sendDictionary, output -> output.writeItemIdentifier(item));
+		byte[] second = collectCompactData(sendDictionary, output -> {
+			output.writeItemIdentifier(item);
+			output.writeItemIdentifier(null);
+		});
+
+		ItemIdentifierDictionary receiveDictionary = new ItemIdentifierDictionary();
+		LPDataIOWrapper.provideData(first, receiveDictionary, input -> {
+			assertSame(item, input.readItemIdentifier());
+
+			assertEquals(0, ((LPDataIOWrapper) input).localBuffer.readableBytes(), BUFFER_EMPTY_MSG);
+		});
+		LPDataIOWrapper.provideData(second, receiveDictionary, input -> {
+			assertSame(item, input.readItemIdentifier());
+			assertNull(input.readItemIdentifier());
+
+			assertEquals(0, ((LPDataIOWrapper) input).localBuffer.readableBytes(), BUFFER_EMPTY_MSG);
+		});
+
+		// known identifiers only resolve with the dictionary of their connection
+		assertThrows(IndexOutOfBoundsException.class, () -> LPDataIOWrapper.provideData(second, new ItemIdentifierDictionary(), LPDataInput::readItemIdentifier));
+	}
+
+	private static byte[] collectCompactData(ItemIdentifierDictionary dictionary, LPDataOutput.LPDataOutputConsumer dataOutputConsumer) {
+		ByteBuf dataBuffer = buffer();
+		LPDataIOWrapper.writeData(dataBuffer, dictionary, dataOutputConsumer);
+		byte[] data = new byte[dataBuffer.readableBytes()];
+		dataBuffer.readBytes(data);
+		dataBuffer.release();
+		return data;
+	}
+
 	@org.junit.jupiter.api.Test
 	public void testLinkedList() {
 		LinkedList<String> linkedList = new LinkedList<>();